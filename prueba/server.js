@@ -10,7 +10,7 @@ const app = express();
 const PORT = 8082;
 
 // Configuración de middleware
-app.use(bodyParser.json());
+app.use(bodyParser.json({ limit: '10mb' }));
 
 // Almacenamiento de transacciones (en memoria)
 let transacciones = [];
@@ -108,18 +108,8 @@ function detenerModoAutomatico() {
     }
 }
 
-// Endpoint para recibir transacciones
-app.post('/api/v1/transacciones', (req, res) => {
-    const transaccion = req.body;
-    
-    // Validar la transacción
-    if (!transaccion || !transaccion.codTransaccion) {
-        return res.status(400).json({ 
-            error: 'Transacción inválida', 
-            mensaje: 'La transacción debe incluir un código de transacción'
-        });
-    }
-    
+// Registrar una transacción recibida o actualizar sus intentos si es un reintento
+function registrarTransaccion(transaccion) {
     // Verificar si ya existe para manejar reintentos
     const existeIndex = transacciones.findIndex(t => t.codTransaccion === transaccion.codTransaccion);
     
@@ -139,6 +129,21 @@ app.post('/api/v1/transacciones', (req, res) => {
         // Añadir a la lista
         transacciones.push(transaccion);
     }
+}
+
+// Endpoint para recibir transacciones
+app.post('/api/v1/transacciones', (req, res) => {
+    const transaccion = req.body;
+    
+    // Validar la transacción
+    if (!transaccion || !transaccion.codTransaccion) {
+        return res.status(400).json({ 
+            error: 'Transacción inválida', 
+            mensaje: 'La transacción debe incluir un código de transacción'
+        });
+    }
+    
+    registrarTransaccion(transaccion);
     
     // Guardar transacciones
     guardarTransacciones();
@@ -151,6 +156,42 @@ app.post('/api/v1/transacciones', (req, res) => {
     });
 });
 
+// Endpoint para recibir un lote de transacciones recurrentes con un resultado por cada una
+app.post('/api/v1/transacciones/recurrentes/lote', (req, res) => {
+    const lote = req.body;
+    
+    if (!Array.isArray(lote)) {
+        return res.status(400).json({ 
+            error: 'Lote inválido', 
+            mensaje: 'El cuerpo debe ser una lista de transacciones'
+        });
+    }
+    
+    const resultados = lote.map(transaccion => {
+        if (!transaccion || !transaccion.codTransaccion) {
+            return {
+                codigoUnicoTransaccion: transaccion ? transaccion.codigoUnicoTransaccion : null,
+                codigoRespuesta: 400,
+                mensaje: 'La transacción debe incluir un código de transacción'
+            };
+        }
+        registrarTransaccion(transaccion);
+        return {
+            codigoUnicoTransaccion: transaccion.codigoUnicoTransaccion,
+            codigoRespuesta: 200,
+            mensaje: 'Transacción recibida correctamente'
+        };
+    });
+    
+    // Guardar transacciones una sola vez por lote
+    guardarTransacciones();
+    
+    const aceptadas = resultados.filter(r => r.codigoRespuesta === 200).length;
+    console.log(chalk.green(`✓ Lote recibido: ${aceptadas} de ${lote.length} transacciones aceptadas`));
+    
+    return res.status(200).json(resultados);
+});
+
 // Endpoint para generar una nueva transacción de prueba
 app.post('/api/v1/transacciones/prueba', (req, res) => {
     console.log(chalk.blue('Solicitud recibida para generar una transacción de prueba'));
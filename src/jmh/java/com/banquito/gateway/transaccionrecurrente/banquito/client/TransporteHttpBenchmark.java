@@ -0,0 +1,132 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpServer;
+
+import feign.Client;
+import feign.Feign;
+import feign.Headers;
+import feign.RequestLine;
+import feign.Response;
+import feign.hc5.ApacheHttp5Client;
+
+/**
+ * Transporte de Feign hacia transaccion-simple: HttpURLConnection contra Apache HttpClient 5 con pool.
+ * El servicio se sustituye por un servidor local con latencia fija; el modo de muestreo reporta p50 y p99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(50)
+@Fork(1)
+public class TransporteHttpBenchmark {
+
+    private static final String CUERPO = "{\"codTransaccion\":\"ABC1234567\",\"codigoUnicoTransaccion\":\"TR12345678-ab12c\","
+            + "\"tipo\":\"PAG\",\"marca\":\"VISA\",\"monto\":100.50,\"moneda\":\"USD\",\"pais\":\"EC\"}";
+
+    interface TransaccionSimpleApi {
+        @RequestLine("POST /api/v1/transacciones/recurrentes")
+        @Headers("Content-Type: application/json")
+        Response ejecutar(String cuerpo);
+    }
+
+    @Param({"2"})
+    private long latenciaServicioMs;
+
+    @Param({"50"})
+    private int conexionesMaximas;
+
+    private HttpServer servidor;
+    private CloseableHttpClient httpClient;
+    private TransaccionSimpleApi porDefecto;
+    private TransaccionSimpleApi conPool;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/api/v1/transacciones/recurrentes", intercambio -> {
+            try (InputStream entrada = intercambio.getRequestBody()) {
+                entrada.readAllBytes();
+            }
+            dormir(latenciaServicioMs);
+            byte[] respuesta = CUERPO.getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().add("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(201, respuesta.length);
+            intercambio.getResponseBody().write(respuesta);
+            intercambio.close();
+        });
+        servidor.start();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(conexionesMaximas)
+                        .setMaxConnPerRoute(conexionesMaximas)
+                        .build())
+                .build();
+        porDefecto = api(new Client.Default(null, null));
+        conPool = api(new ApacheHttp5Client(httpClient));
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() throws IOException {
+        httpClient.close();
+        servidor.stop(0);
+    }
+
+    @Benchmark
+    public int httpUrlConnection() {
+        return enviar(porDefecto);
+    }
+
+    @Benchmark
+    public int apacheHttpClient5ConPool() {
+        return enviar(conPool);
+    }
+
+    private TransaccionSimpleApi api(Client cliente) {
+        return Feign.builder()
+                .client(cliente)
+                .target(TransaccionSimpleApi.class, "http://127.0.0.1:" + servidor.getAddress().getPort());
+    }
+
+    private static int enviar(TransaccionSimpleApi api) {
+        try (Response respuesta = api.ejecutar(CUERPO)) {
+            return respuesta.status();
+        }
+    }
+
+    private static void dormir(long milis) {
+        try {
+            Thread.sleep(milis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
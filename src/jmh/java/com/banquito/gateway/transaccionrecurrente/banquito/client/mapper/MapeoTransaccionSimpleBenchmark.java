@@ -0,0 +1,107 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.client.mapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.client.dto.TransaccionSimpleDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigoTemporal;
+
+/**
+ * Compara el mapeo original de cada cobro contra la plantilla precalculada.
+ * Ejecutar con {@code -prof gc} para obtener los bytes asignados por operación (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeoTransaccionSimpleBenchmark {
+
+    @Param({ "1000" })
+    private int suscripciones;
+
+    private TransaccionRecurrente[] transacciones;
+    private TransaccionSimpleMapper mapper;
+    private LocalDateTime fecha;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        transacciones = new TransaccionRecurrente[suscripciones];
+        for (int i = 0; i < suscripciones; i++) {
+            TransaccionRecurrente transaccion = new TransaccionRecurrente(String.format("TR%08d", i));
+            transaccion.setMonto(new BigDecimal("100.50"));
+            transaccion.setMarca("VISA");
+            transaccion.setEstado("ACT");
+            transaccion.setMoneda("USD");
+            transaccion.setPais("EC");
+            transaccion.setTarjeta(4532015112830366L + i);
+            transaccion.setFechaCaducidad(LocalDate.of(2027, 1 + i % 12, 1));
+            transaccion.setSwiftBanco("BANKEC21XXX");
+            transaccion.setCuentaIban("EC12345678901234567890");
+            transaccion.setCvv(String.valueOf(100 + i % 900));
+            transaccion.setFrecuenciaDias(15);
+            transacciones[i] = transaccion;
+        }
+        mapper = new TransaccionSimpleMapper(new GeneradorCodigoTemporal(0, (nodo, hasta) -> hasta), suscripciones);
+        fecha = LocalDateTime.now();
+    }
+
+    @Benchmark
+    public TransaccionSimpleDTO mapeoOriginal() {
+        return mapeoOriginal(siguienteTransaccion());
+    }
+
+    @Benchmark
+    public TransaccionSimpleDTO plantillaPrecalculada() {
+        return mapper.toCobro(siguienteTransaccion(), fecha);
+    }
+
+    private TransaccionRecurrente siguienteTransaccion() {
+        TransaccionRecurrente transaccion = transacciones[siguiente];
+        siguiente = siguiente + 1 == transacciones.length ? 0 : siguiente + 1;
+        return transaccion;
+    }
+
+    // Copia del mapeo que hacía TransaccionRecurrenteTask antes de introducir las plantillas
+    private TransaccionSimpleDTO mapeoOriginal(TransaccionRecurrente transaccion) {
+        TransaccionSimpleDTO dto = new TransaccionSimpleDTO();
+        dto.setCodTransaccion(UUID.randomUUID().toString().substring(0, 10));
+        dto.setCodigoUnicoTransaccion(transaccion.getCodigo() + "-" + UUID.randomUUID().toString().substring(0, 5));
+        dto.setTipo("PAG");
+        dto.setFecha(fecha);
+        dto.setEstado("ACT");
+        dto.setDiferido(false);
+        dto.setMarca(transaccion.getMarca());
+        dto.setMonto(transaccion.getMonto());
+        dto.setMoneda(transaccion.getMoneda());
+        dto.setPais(transaccion.getPais());
+        dto.setNumeroTarjeta(transaccion.getTarjeta().toString());
+        String mes = String.format("%02d", transaccion.getFechaCaducidad().getMonthValue());
+        String anio = String.valueOf(transaccion.getFechaCaducidad().getYear() % 100);
+        dto.setFechaExpiracion(mes + "/" + anio);
+        dto.setSwift_banco(transaccion.getSwiftBanco());
+        dto.setCuenta_iban(transaccion.getCuentaIban());
+        dto.setCvv(Integer.parseInt(transaccion.getCvv()));
+        dto.setFrecuenciaDias(transaccion.getFrecuenciaDias());
+        return dto;
+    }
+}
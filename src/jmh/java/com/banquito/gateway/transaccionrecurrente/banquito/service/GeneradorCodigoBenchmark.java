@@ -0,0 +1,41 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generación concurrente de códigos: UUID truncado (SecureRandom compartido) contra el generador temporal.
+ * El número de hilos se puede cambiar con {@code -t}; {@code -prof gc} añade los bytes por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class GeneradorCodigoBenchmark {
+
+    private final GeneradorCodigo aleatorio = new GeneradorCodigoAleatorio();
+    private final GeneradorCodigo temporal = new GeneradorCodigoTemporal(0, (nodo, hasta) -> hasta);
+
+    @Benchmark
+    public String uuidTruncado() {
+        return aleatorio.generar();
+    }
+
+    @Benchmark
+    public String temporal() {
+        return temporal.generar();
+    }
+}
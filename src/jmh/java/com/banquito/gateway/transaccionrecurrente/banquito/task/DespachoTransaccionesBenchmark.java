@@ -0,0 +1,82 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+/**
+ * Tiempo de un ciclo de despacho contra un servicio externo lento (simulado con una espera fija por
+ * transacción): envío secuencial contra el despachador con hilos virtuales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DespachoTransaccionesBenchmark {
+
+    @Param({"200"})
+    private int transacciones;
+
+    @Param({"50"})
+    private long latenciaServicioMs;
+
+    @Param({"50"})
+    private int concurrenciaMaxima;
+
+    private List<TransaccionRecurrente> lote;
+    private DespachadorTransacciones despachador;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        lote = new ArrayList<>(transacciones);
+        for (int i = 0; i < transacciones; i++) {
+            TransaccionRecurrente transaccion = new TransaccionRecurrente(String.format("TR%08d", i));
+            transaccion.setEstado("ACT");
+            lote.add(transaccion);
+        }
+        despachador = new DespachadorTransacciones(concurrenciaMaxima);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        despachador.detener();
+    }
+
+    @Benchmark
+    public void secuencial() {
+        for (TransaccionRecurrente transaccion : lote) {
+            servicioLento(transaccion);
+        }
+    }
+
+    @Benchmark
+    public void paralelo() throws Exception {
+        despachador.despachar(lote, this::servicioLento).get(5, TimeUnit.MINUTES);
+    }
+
+    private void servicioLento(TransaccionRecurrente transaccion) {
+        try {
+            Thread.sleep(latenciaServicioMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.client.dto.ResultadoLoteTransaccionDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.client.dto.TransaccionSimpleDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.ServicioNoDisponibleException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+@Component
+public class EnvioTransaccionSimple {
+
+    public static final String SERVICIO = "transaccion-simple";
+
+    private static final Duration ESPERA_BULKHEAD_LLENO = Duration.ofSeconds(1);
+
+    private final TransaccionSimpleClient client;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public EnvioTransaccionSimple(TransaccionSimpleClient client, CircuitBreakerRegistry circuitBreakerRegistry, 
+            BulkheadRegistry bulkheadRegistry) {
+        this.client = client;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(SERVICIO);
+        this.bulkhead = bulkheadRegistry.bulkhead(SERVICIO);
+    }
+
+    public ResponseEntity<TransaccionSimpleDTO> ejecutarTransaccion(TransaccionSimpleDTO transaccion) {
+        return proteger(() -> client.ejecutarTransaccion(transaccion));
+    }
+
+    public ResponseEntity<List<ResultadoLoteTransaccionDTO>> ejecutarLote(List<TransaccionSimpleDTO> transacciones) {
+        return proteger(() -> client.ejecutarLote(transacciones));
+    }
+
+    public CircuitBreaker.State getEstado() {
+        return circuitBreaker.getState();
+    }
+
+    private <T> T proteger(Supplier<T> llamada) {
+        try {
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, llamada)).get();
+        } catch (CallNotPermittedException e) {
+            throw new ServicioNoDisponibleException(SERVICIO, esperaCircuitoAbierto());
+        } catch (BulkheadFullException e) {
+            throw new ServicioNoDisponibleException(SERVICIO, ESPERA_BULKHEAD_LLENO);
+        }
+    }
+
+    private Duration esperaCircuitoAbierto() {
+        return Duration.ofMillis(circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1));
+    }
+}
@@ -0,0 +1,13 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.client.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ResultadoLoteTransaccionDTO {
+    
+    private String codigoUnicoTransaccion;
+    private Integer codigoRespuesta;
+    private String mensaje;
+}
@@ -0,0 +1,109 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.client.mapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.client.dto.TransaccionSimpleDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+/**
+ * Carga útil precalculada de una suscripción. Los campos que no cambian entre cobros
+ * (tarjeta, caducidad, CVV, cuenta, monto...) se convierten una sola vez y en cada
+ * despacho solo se completan los identificadores y la fecha.
+ */
+public final class PlantillaTransaccionSimple {
+
+    private final String codigo;
+    private final String prefijoCodigoUnico;
+    private final String tipo;
+    private final String estado;
+    private final String marca;
+    private final BigDecimal monto;
+    private final String moneda;
+    private final String pais;
+    private final String numeroTarjeta;
+    private final String fechaExpiracion;
+    private final String swiftBanco;
+    private final String cuentaIban;
+    private final Integer cvv;
+    private final Integer frecuenciaDias;
+
+    // Valores de origen con los que se construyó la plantilla, para detectar cambios en la suscripción
+    private final Long tarjetaOrigen;
+    private final LocalDate fechaCaducidadOrigen;
+    private final String cvvOrigen;
+    private final Integer frecuenciaOrigen;
+
+    PlantillaTransaccionSimple(TransaccionRecurrente transaccion, String tipo, String estado, String numeroTarjeta,
+            String fechaExpiracion, Integer cvv, Integer frecuenciaDias) {
+        this.codigo = transaccion.getCodigo();
+        this.prefijoCodigoUnico = transaccion.getCodigo() + "-";
+        this.tipo = tipo;
+        this.estado = estado;
+        this.marca = transaccion.getMarca();
+        this.monto = transaccion.getMonto();
+        this.moneda = transaccion.getMoneda();
+        this.pais = transaccion.getPais();
+        this.numeroTarjeta = numeroTarjeta;
+        this.fechaExpiracion = fechaExpiracion;
+        this.swiftBanco = transaccion.getSwiftBanco();
+        this.cuentaIban = transaccion.getCuentaIban();
+        this.cvv = cvv;
+        this.frecuenciaDias = frecuenciaDias;
+        this.tarjetaOrigen = transaccion.getTarjeta();
+        this.fechaCaducidadOrigen = transaccion.getFechaCaducidad();
+        this.cvvOrigen = transaccion.getCvv();
+        this.frecuenciaOrigen = transaccion.getFrecuenciaDias();
+    }
+
+    public TransaccionSimpleDTO instanciar(String codTransaccion, String codigoUnicoTransaccion, LocalDateTime fecha) {
+        TransaccionSimpleDTO dto = new TransaccionSimpleDTO();
+        dto.setCodTransaccion(codTransaccion);
+        dto.setCodigoUnicoTransaccion(codigoUnicoTransaccion);
+        dto.setFecha(fecha);
+        dto.setTipo(tipo);
+        dto.setEstado(estado);
+        dto.setDiferido(false);
+        dto.setMarca(marca);
+        dto.setMonto(monto);
+        dto.setMoneda(moneda);
+        dto.setPais(pais);
+        dto.setNumeroTarjeta(numeroTarjeta);
+        dto.setFechaExpiracion(fechaExpiracion);
+        dto.setSwift_banco(swiftBanco);
+        dto.setCuenta_iban(cuentaIban);
+        dto.setCvv(cvv);
+        dto.setFrecuenciaDias(frecuenciaDias);
+        return dto;
+    }
+
+    public boolean correspondeA(TransaccionRecurrente transaccion) {
+        return codigo.equals(transaccion.getCodigo())
+                && Objects.equals(monto, transaccion.getMonto())
+                && Objects.equals(marca, transaccion.getMarca())
+                && Objects.equals(moneda, transaccion.getMoneda())
+                && Objects.equals(pais, transaccion.getPais())
+                && Objects.equals(swiftBanco, transaccion.getSwiftBanco())
+                && Objects.equals(cuentaIban, transaccion.getCuentaIban())
+                && Objects.equals(tarjetaOrigen, transaccion.getTarjeta())
+                && Objects.equals(fechaCaducidadOrigen, transaccion.getFechaCaducidad())
+                && Objects.equals(cvvOrigen, transaccion.getCvv())
+                && Objects.equals(frecuenciaOrigen, transaccion.getFrecuenciaDias());
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public String getPrefijoCodigoUnico() {
+        return prefijoCodigoUnico;
+    }
+
+    static String formatearExpiracion(LocalDate fechaCaducidad) {
+        int mes = fechaCaducidad.getMonthValue();
+        int anio = fechaCaducidad.getYear() % 100;
+        return (mes < 10 ? "0" + mes : String.valueOf(mes)) + "/" + anio;
+    }
+}
@@ -1,56 +1,132 @@
 package com.banquito.gateway.transaccionrecurrente.banquito.client.mapper;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.banquito.gateway.transaccionrecurrente.banquito.client.dto.TransaccionSimpleDTO;
 import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigo;
 
 @Component
 public class TransaccionSimpleMapper {
-    
+
+    static final String TARJETA_POR_DEFECTO = "4111111111111111";
+    static final String EXPIRACION_POR_DEFECTO = "12/25";
+    static final int CVV_POR_DEFECTO = 123;
+    static final int FRECUENCIA_POR_DEFECTO = 30;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Logger log = LoggerFactory.getLogger(TransaccionSimpleMapper.class);
+    private final Map<String, PlantillaTransaccionSimple> plantillas = new ConcurrentHashMap<>();
+    private final GeneradorCodigo generadorCodigo;
+    private final int capacidadPlantillas;
+
+    public TransaccionSimpleMapper(GeneradorCodigo generadorCodigo,
+            @Value("${transaccion.recurrente.plantillas.capacidad-maxima:100000}") int capacidadPlantillas) {
+        this.generadorCodigo = generadorCodigo;
+        this.capacidadPlantillas = capacidadPlantillas;
+    }
+
     public TransaccionSimpleDTO toTransaccionSimpleDTO(TransaccionRecurrente transaccion) {
         if (transaccion == null) {
             return null;
         }
-        
-        TransaccionSimpleDTO dto = new TransaccionSimpleDTO();
-        dto.setCodTransaccion(UUID.randomUUID().toString().substring(0, 10));
-        dto.setTipo("REC"); 
-        dto.setMarca(transaccion.getMarca());
-        dto.setMonto(transaccion.getMonto());
-        dto.setCodigoUnicoTransaccion(UUID.randomUUID().toString());
-        dto.setFecha(LocalDateTime.now());
-        dto.setEstado("PEN"); 
-        dto.setMoneda(transaccion.getMoneda());
-        dto.setPais(transaccion.getPais());
-        
+        PlantillaTransaccionSimple plantilla = construirPlantilla(transaccion, "REC", "PEN", false);
+        return plantilla.instanciar(generadorCodigo.generar(), UUID.randomUUID().toString(), LocalDateTime.now());
+    }
+
+    public TransaccionSimpleDTO toCobro(TransaccionRecurrente transaccion, LocalDateTime fecha) {
+        PlantillaTransaccionSimple plantilla = obtenerPlantilla(transaccion);
+        String sufijo = hex(ThreadLocalRandom.current().nextInt(), 5);
+        return plantilla.instanciar(generadorCodigo.generar(), plantilla.getPrefijoCodigoUnico() + sufijo, fecha);
+    }
+
+    public PlantillaTransaccionSimple obtenerPlantilla(TransaccionRecurrente transaccion) {
+        PlantillaTransaccionSimple plantilla = plantillas.get(transaccion.getCodigo());
+        if (plantilla != null && plantilla.correspondeA(transaccion)) {
+            return plantilla;
+        }
+        plantilla = construirPlantilla(transaccion, "PAG", "ACT", true);
+        if (plantillas.size() >= capacidadPlantillas && !plantillas.containsKey(transaccion.getCodigo())) {
+            liberarEspacio();
+        }
+        plantillas.put(transaccion.getCodigo(), plantilla);
+        return plantilla;
+    }
+
+    public void descartarPlantilla(String codigo) {
+        plantillas.remove(codigo);
+    }
+
+    public int plantillasEnCache() {
+        return plantillas.size();
+    }
+
+    private void liberarEspacio() {
+        // Expulsión arbitraria: basta con acotar la memoria, la plantilla se reconstruye en el siguiente cobro
+        Iterator<String> codigos = plantillas.keySet().iterator();
+        if (codigos.hasNext()) {
+            codigos.next();
+            codigos.remove();
+        }
+    }
+
+    private PlantillaTransaccionSimple construirPlantilla(TransaccionRecurrente transaccion, String tipo, String estado,
+            boolean valoresPorDefecto) {
+        String numeroTarjeta = null;
         if (transaccion.getTarjeta() != null) {
-            dto.setNumeroTarjeta(transaccion.getTarjeta().toString());
+            numeroTarjeta = transaccion.getTarjeta().toString();
+        } else if (valoresPorDefecto) {
+            log.warn("La tarjeta está vacía para la transacción {}, usando valor predeterminado", transaccion.getCodigo());
+            numeroTarjeta = TARJETA_POR_DEFECTO;
         }
-        
+
+        String fechaExpiracion = null;
         if (transaccion.getFechaCaducidad() != null) {
-            String mes = String.format("%02d", transaccion.getFechaCaducidad().getMonthValue());
-            String anio = String.valueOf(transaccion.getFechaCaducidad().getYear() % 100);
-            dto.setFechaExpiracion(mes + "/" + anio);
-        }
-        
-        dto.setSwift_banco(transaccion.getSwiftBanco());
-        dto.setCuenta_iban(transaccion.getCuentaIban());
-        
+            fechaExpiracion = PlantillaTransaccionSimple.formatearExpiracion(transaccion.getFechaCaducidad());
+        } else if (valoresPorDefecto) {
+            log.warn("La fecha de caducidad está vacía para la transacción {}, usando valor predeterminado", transaccion.getCodigo());
+            fechaExpiracion = EXPIRACION_POR_DEFECTO;
+        }
+
+        Integer cvv = null;
         if (transaccion.getCvv() != null && !transaccion.getCvv().isEmpty()) {
             try {
-                dto.setCvv(Integer.parseInt(transaccion.getCvv()));
+                cvv = Integer.parseInt(transaccion.getCvv());
             } catch (NumberFormatException e) {
-                dto.setCvv(123);
+                log.warn("El CVV no es un número válido para la transacción {}, usando valor predeterminado", transaccion.getCodigo());
+                cvv = CVV_POR_DEFECTO;
             }
+        } else if (valoresPorDefecto) {
+            log.warn("El CVV está vacío para la transacción {}, usando valor predeterminado", transaccion.getCodigo());
+            cvv = CVV_POR_DEFECTO;
+        }
+
+        Integer frecuenciaDias = transaccion.getFrecuenciaDias();
+        if (frecuenciaDias == null && valoresPorDefecto) {
+            log.warn("La frecuencia está vacía para la transacción {}, usando valor predeterminado de 30 minutos", transaccion.getCodigo());
+            frecuenciaDias = FRECUENCIA_POR_DEFECTO;
+        }
+
+        return new PlantillaTransaccionSimple(transaccion, tipo, estado, numeroTarjeta, fechaExpiracion, cvv, frecuenciaDias);
+    }
+
+    private static String hex(long valor, int longitud) {
+        char[] caracteres = new char[longitud];
+        for (int i = longitud - 1; i >= 0; i--) {
+            caracteres[i] = HEX[(int) (valor & 0xF)];
+            valor >>>= 4;
         }
-        
-        dto.setFrecuenciaDias(transaccion.getFrecuenciaDias());
-        dto.setDiferido(false);
-        
-        return dto;
+        return new String(caracteres);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Cachés de consulta por código y por cuenta, en memoria de cada nodo. Guardan copias desprendidas de las
+ * entidades y cada nodo descarta por clave solo lo que él mismo modifica; los demás nodos ven el cambio cuando la
+ * entrada expira ({@code spring.cache.caffeine.spec}), así que una transacción cancelada o finalizada puede
+ * seguir apareciendo como ACT en otro nodo hasta entonces. El despacho de cobros no lee de estas cachés.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String CACHE_POR_CODIGO = "transacciones-por-codigo";
+    public static final String CACHE_POR_CUENTA = "transacciones-por-cuenta";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties propiedades) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(CACHE_POR_CODIGO, CACHE_POR_CUENTA);
+        if (StringUtils.hasText(propiedades.getCaffeine().getSpec())) {
+            caffeine.setCacheSpecification(propiedades.getCaffeine().getSpec());
+        }
+        caffeine.setAllowNullValues(false);
+        // Las escrituras y descartes se aplican al confirmar la transacción, no antes
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
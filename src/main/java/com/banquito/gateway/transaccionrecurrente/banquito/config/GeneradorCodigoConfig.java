@@ -0,0 +1,45 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.ReservaCodigosRepository;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigo;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigoAleatorio;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigoTemporal;
+
+@Configuration
+public class GeneradorCodigoConfig {
+
+    private final Logger log = LoggerFactory.getLogger(GeneradorCodigoConfig.class);
+
+    /**
+     * Por defecto usa el generador aleatorio, que no necesita configuración. El temporal
+     * ({@code CODIGOS_GENERADOR=temporal}) exige además un {@code CODIGOS_NODO} distinto en cada réplica.
+     */
+    @Bean
+    public GeneradorCodigo generadorCodigo(
+            @Value("${transaccion.recurrente.codigos.generador:aleatorio}") String tipo,
+            @Value("${transaccion.recurrente.codigos.nodo:-1}") int nodo,
+            @Value("${transaccion.recurrente.nodo-id:${HOSTNAME:local}}") String nodoId,
+            ReservaCodigosRepository reserva) {
+        if ("aleatorio".equalsIgnoreCase(tipo)) {
+            return new GeneradorCodigoAleatorio();
+        }
+        if (!"temporal".equalsIgnoreCase(tipo)) {
+            throw new IllegalArgumentException("Generador de códigos no soportado: " + tipo);
+        }
+        if (nodo < 0) {
+            // Derivar el nodo de un hash del hostname hace que dos réplicas compartan nodo con facilidad y generen
+            // los mismos códigos, así que cada réplica debe tener el suyo configurado
+            throw new IllegalStateException("El generador de códigos temporal requiere transaccion.recurrente.codigos.nodo "
+                    + "entre 0 y " + (GeneradorCodigoTemporal.NODOS - 1) + ", distinto en cada réplica (nodo " + nodoId
+                    + "); use transaccion.recurrente.codigos.generador=aleatorio si no puede asignarlo");
+        }
+        log.info("Generador de códigos temporal con nodo {} en {}", nodo, nodoId);
+        return new GeneradorCodigoTemporal(nodo, reserva);
+    }
+}
@@ -0,0 +1,26 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.config;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+@Configuration
+public class TransporteHttpConfig {
+
+    public static final String POOL_TRANSACCION_SIMPLE = "transaccion-simple";
+
+    @Bean
+    public MeterBinder metricasPoolTransaccionSimple(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> {
+            // Solo existe cuando el transporte de Feign es Apache HttpClient 5
+            if (connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, POOL_TRANSACCION_SIMPLE).bindTo(registry);
+            }
+        };
+    }
+}
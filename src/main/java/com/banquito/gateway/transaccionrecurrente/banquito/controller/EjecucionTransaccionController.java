@@ -0,0 +1,104 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.EjecucionTransaccionDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper.EjecucionTransaccionMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.EjecucionTransaccionService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/v1/ejecuciones")
+@Tag(name = "Historial de Ejecuciones", description = "API para consultar el historial de envíos de transacciones recurrentes al servicio externo")
+public class EjecucionTransaccionController {
+
+    private final Logger log = LoggerFactory.getLogger(EjecucionTransaccionController.class);
+    private final EjecucionTransaccionService service;
+    private final EjecucionTransaccionMapper mapper;
+
+    public EjecucionTransaccionController(EjecucionTransaccionService service, EjecucionTransaccionMapper mapper) {
+        this.service = service;
+        this.mapper = mapper;
+    }
+
+    @GetMapping
+    @Operation(
+        summary = "Listar ejecuciones por rango de fechas",
+        description = "Obtiene las ejecuciones de todas las transacciones recurrentes dentro de un rango de fechas, ordenadas por fecha. " +
+                      "Cada página indica si hay una siguiente sin contar el total, y su tamaño se limita a 1000 ejecuciones"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Ejecuciones obtenidas exitosamente", 
+                    content = @Content(mediaType = "application/json", 
+                    schema = @Schema(implementation = EjecucionTransaccionDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Rango de fechas inválido"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<Slice<EjecucionTransaccionDTO>> obtenerPorRango(
+            @Parameter(description = "Fecha y hora inicial (ISO-8601)", example = "2025-03-01T00:00:00", required = true) 
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            
+            @Parameter(description = "Fecha y hora final (ISO-8601)", example = "2025-03-31T23:59:59", required = true) 
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            
+            @Parameter(description = "Número de página (comenzando desde 0)", example = "0") 
+            @RequestParam(defaultValue = "0") int page,
+            
+            @Parameter(description = "Tamaño de la página (máximo 1000)", example = "100") 
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("Obteniendo ejecuciones entre {} y {}: página={}, tamaño={}", desde, hasta, page, size);
+        return ResponseEntity.ok(
+            this.service.obtenerPorRango(desde, hasta, page, size)
+                .map(mapper::toDTO)
+        );
+    }
+
+    @GetMapping("/transaccion/{codigo}")
+    @Operation(
+        summary = "Listar ejecuciones de una transacción recurrente",
+        description = "Obtiene las ejecuciones de una transacción recurrente dentro de un rango de fechas, ordenadas por fecha"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Ejecuciones obtenidas exitosamente", 
+                    content = @Content(mediaType = "application/json", 
+                    schema = @Schema(implementation = EjecucionTransaccionDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Rango de fechas inválido"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<List<EjecucionTransaccionDTO>> obtenerPorTransaccion(
+            @Parameter(description = "Código único de la transacción recurrente", example = "ABC123XYZ", required = true) 
+            @PathVariable String codigo,
+            
+            @Parameter(description = "Fecha y hora inicial (ISO-8601)", example = "2025-03-01T00:00:00", required = true) 
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            
+            @Parameter(description = "Fecha y hora final (ISO-8601)", example = "2025-03-31T23:59:59", required = true) 
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        log.info("Obteniendo ejecuciones de la transacción {} entre {} y {}", codigo, desde, hasta);
+        return ResponseEntity.ok(
+            this.service.obtenerPorTransaccion(codigo, desde, hasta).stream()
+                .map(mapper::toDTO)
+                .collect(Collectors.toList())
+        );
+    }
+}
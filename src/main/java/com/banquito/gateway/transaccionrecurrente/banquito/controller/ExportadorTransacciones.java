@@ -0,0 +1,169 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.TransaccionExportadaDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper.TransaccionRecurrenteMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.CamposCsv;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.TransaccionRecurrenteRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+@Component
+public class ExportadorTransacciones {
+
+    public static final String FORMATO_NDJSON = "ndjson";
+    public static final String FORMATO_CSV = "csv";
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    static final String ENCABEZADO_CSV = "codigo,monto,marca,estado,fechaInicio,fechaFin,diaMesPago,swiftBanco,"
+            + "cuentaIban,moneda,pais,tarjeta,fechaCaducidad,frecuenciaDias\n";
+
+    private static final int TAMANIO_BUFFER = 16 * 1024;
+
+    private final Logger log = LoggerFactory.getLogger(ExportadorTransacciones.class);
+    private final ObjectWriter escritorJson;
+    private final TransaccionRecurrenteMapper mapper;
+
+    public ExportadorTransacciones(ObjectMapper objectMapper, TransaccionRecurrenteMapper mapper) {
+        // El exportador escribe el salto de línea y decide cuándo vaciar, no cada fila escrita
+        this.escritorJson = objectMapper.writerFor(TransaccionExportadaDTO.class)
+                .withRootValueSeparator((String) null)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.mapper = mapper;
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportar(String formato, String aceptaCodificacion, String nombre,
+            ToIntFunction<Consumer<TransaccionRecurrente>> recorrido) {
+        boolean csv = FORMATO_CSV.equalsIgnoreCase(formato);
+        if (!csv && !FORMATO_NDJSON.equalsIgnoreCase(formato)) {
+            throw new TransaccionRecurrenteInvalidaException("El formato de exportación debe ser ndjson o csv");
+        }
+        boolean gzip = aceptaGzip(aceptaCodificacion);
+        ContentDisposition adjunto = ContentDisposition.attachment()
+                .filename(nombre + (csv ? ".csv" : ".ndjson"))
+                .build();
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, adjunto.toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(salida -> escribir(salida, csv, gzip, recorrido));
+    }
+
+    void escribir(OutputStream salida, boolean csv, boolean gzip, ToIntFunction<Consumer<TransaccionRecurrente>> recorrido)
+            throws IOException {
+        // syncFlush para que cada vaciado llegue al cliente aunque la respuesta vaya comprimida
+        GZIPOutputStream comprimida = gzip ? new GZIPOutputStream(salida, TAMANIO_BUFFER, true) : null;
+        Writer escritor = new BufferedWriter(
+                new OutputStreamWriter(comprimida != null ? comprimida : salida, StandardCharsets.UTF_8), TAMANIO_BUFFER);
+        int filas;
+        try {
+            filas = csv ? escribirCsv(escritor, recorrido) : escribirNdjson(escritor, recorrido);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        escritor.flush();
+        if (comprimida != null) {
+            comprimida.finish();
+        }
+        log.info("Se exportaron {} transacciones recurrentes en formato {}", filas, csv ? FORMATO_CSV : FORMATO_NDJSON);
+    }
+
+    private int escribirNdjson(Writer escritor, ToIntFunction<Consumer<TransaccionRecurrente>> recorrido) throws IOException {
+        JsonGenerator generador = escritorJson.createGenerator(escritor);
+        int[] escritas = { 0 };
+        recorrido.applyAsInt(transaccion -> {
+            try {
+                escritorJson.writeValue(generador, mapper.toExportadaDTO(transaccion));
+                generador.writeRaw('\n');
+                if (debeVaciar(++escritas[0])) {
+                    generador.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generador.flush();
+        return escritas[0];
+    }
+
+    private int escribirCsv(Writer escritor, ToIntFunction<Consumer<TransaccionRecurrente>> recorrido) throws IOException {
+        escritor.write(ENCABEZADO_CSV);
+        escritor.flush();
+        StringBuilder fila = new StringBuilder(256);
+        int[] escritas = { 0 };
+        recorrido.applyAsInt(transaccion -> {
+            fila.setLength(0);
+            try {
+                escritor.append(aCsv(fila, mapper.toExportadaDTO(transaccion)));
+                if (debeVaciar(++escritas[0])) {
+                    escritor.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return escritas[0];
+    }
+
+    private static boolean debeVaciar(int escritas) {
+        // La primera fila sale de inmediato y luego una vez por bloque leído de la base
+        return escritas == 1 || escritas % TransaccionRecurrenteRepository.TAMANIO_LECTURA == 0;
+    }
+
+    static StringBuilder aCsv(StringBuilder csv, TransaccionExportadaDTO transaccion) {
+        CamposCsv.texto(csv, transaccion.getCodigo()).append(',');
+        CamposCsv.valor(csv, transaccion.getMonto() != null ? transaccion.getMonto().toPlainString() : null).append(',');
+        CamposCsv.texto(csv, transaccion.getMarca()).append(',');
+        CamposCsv.texto(csv, transaccion.getEstado()).append(',');
+        CamposCsv.valor(csv, transaccion.getFechaInicio()).append(',');
+        CamposCsv.valor(csv, transaccion.getFechaFin()).append(',');
+        CamposCsv.valor(csv, transaccion.getDiaMesPago()).append(',');
+        CamposCsv.texto(csv, transaccion.getSwiftBanco()).append(',');
+        CamposCsv.texto(csv, transaccion.getCuentaIban()).append(',');
+        CamposCsv.texto(csv, transaccion.getMoneda()).append(',');
+        CamposCsv.texto(csv, transaccion.getPais()).append(',');
+        CamposCsv.texto(csv, transaccion.getTarjeta()).append(',');
+        CamposCsv.valor(csv, transaccion.getFechaCaducidad()).append(',');
+        return CamposCsv.valor(csv, transaccion.getFrecuenciaDias()).append('\n');
+    }
+
+    static boolean aceptaGzip(String aceptaCodificacion) {
+        if (aceptaCodificacion == null) {
+            return false;
+        }
+        for (String codificacion : aceptaCodificacion.split(",")) {
+            String[] partes = codificacion.split(";");
+            if ("gzip".equalsIgnoreCase(partes[0].trim())) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
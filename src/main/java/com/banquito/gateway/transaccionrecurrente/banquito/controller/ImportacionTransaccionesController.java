@@ -0,0 +1,77 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.ImportacionTransaccionesDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper.ImportacionTransaccionesMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.ImportacionTransaccionesService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/v1/importaciones")
+@Tag(name = "Importación de Transacciones", description = "API para cargar masivamente transacciones recurrentes desde archivos csv")
+public class ImportacionTransaccionesController {
+
+    private final Logger log = LoggerFactory.getLogger(ImportacionTransaccionesController.class);
+    private final ImportacionTransaccionesService service;
+    private final ImportacionTransaccionesMapper mapper;
+
+    public ImportacionTransaccionesController(ImportacionTransaccionesService service, ImportacionTransaccionesMapper mapper) {
+        this.service = service;
+        this.mapper = mapper;
+    }
+
+    @PostMapping
+    @Operation(
+        summary = "Iniciar o retomar una importación",
+        description = "Importa en segundo plano un archivo csv del directorio de importaciones con el mismo encabezado que la exportación. " +
+                      "Las filas inválidas se escriben en un archivo de rechazos junto al original y una importación interrumpida " +
+                      "se retoma desde su último punto de control al volver a iniciarla"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Importación iniciada", 
+                    content = @Content(mediaType = "application/json", 
+                    schema = @Schema(implementation = ImportacionTransaccionesDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Archivo inexistente, ya importado, modificado o con una importación en curso"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ImportacionTransaccionesDTO> iniciar(
+            @Parameter(description = "Nombre del archivo dentro del directorio de importaciones", example = "transacciones.csv", required = true) 
+            @RequestParam String archivo) {
+        log.info("Iniciando la importación del archivo: {}", archivo);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(mapper.toDTO(this.service.iniciar(archivo)));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+        summary = "Consultar el progreso de una importación",
+        description = "Obtiene el punto de control de una importación: bytes procesados, líneas leídas, transacciones cargadas y rechazadas"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Importación encontrada", 
+                    content = @Content(mediaType = "application/json", 
+                    schema = @Schema(implementation = ImportacionTransaccionesDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Importación no encontrada")
+    })
+    public ResponseEntity<ImportacionTransaccionesDTO> obtenerPorId(
+            @Parameter(description = "Identificador de la importación", example = "1", required = true) 
+            @PathVariable Long id) {
+        return ResponseEntity.of(this.service.obtenerPorId(id).map(mapper::toDTO));
+    }
+}
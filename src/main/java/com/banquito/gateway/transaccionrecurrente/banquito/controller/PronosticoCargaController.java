@@ -0,0 +1,57 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.PronosticoCargaDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper.PronosticoCargaMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.PronosticoCargaService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/v1/pronosticos")
+@Tag(name = "Pronóstico de Carga", description = "API para proyectar las ejecuciones de las transacciones recurrentes activas")
+public class PronosticoCargaController {
+
+    private final Logger log = LoggerFactory.getLogger(PronosticoCargaController.class);
+    private final PronosticoCargaService service;
+    private final PronosticoCargaMapper mapper;
+
+    public PronosticoCargaController(PronosticoCargaService service, PronosticoCargaMapper mapper) {
+        this.service = service;
+        this.mapper = mapper;
+    }
+
+    @GetMapping
+    @Operation(
+        summary = "Pronosticar la carga de ejecuciones",
+        description = "Proyecta desde el inicio del día de hoy las ejecuciones de las transacciones activas según su día de pago, " +
+                      "frecuencia, fecha de inicio y fecha fin. Devuelve la cantidad y el monto por minuto y por día, " +
+                      "desglosados por moneda y por banco"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Pronóstico calculado", 
+                    content = @Content(mediaType = "application/json", 
+                    schema = @Schema(implementation = PronosticoCargaDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Número de días fuera de rango"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<PronosticoCargaDTO> pronosticar(
+            @Parameter(description = "Días a proyectar, entre 1 y 31", example = "7") 
+            @RequestParam(defaultValue = "7") int dias) {
+        log.info("Obteniendo el pronóstico de carga de los próximos {} días", dias);
+        return ResponseEntity.ok(mapper.toDTO(this.service.pronosticar(dias)));
+    }
+}
@@ -1,6 +1,8 @@
 package com.banquito.gateway.transaccionrecurrente.banquito.controller;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -8,18 +10,30 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.LoteTransaccionesDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.PaginaTransaccionesDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.ResultadoLoteDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.ResumenTransaccionesDTO;
 import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.TransaccionRecurrenteDTO;
 import com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper.TransaccionRecurrenteMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.CursorTransacciones;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.LoteTransaccionesService;
 import com.banquito.gateway.transaccionrecurrente.banquito.service.TransaccionRecurrenteService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,7 +43,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
 @RestController
 @RequestMapping("/v1/transacciones-recurrentes")
@@ -39,10 +55,17 @@ public class TransaccionRecurrenteController {
     private final Logger log = LoggerFactory.getLogger(TransaccionRecurrenteController.class);
     private final TransaccionRecurrenteService service;
     private final TransaccionRecurrenteMapper mapper;
+    private final ExportadorTransacciones exportador;
+    private final LoteTransaccionesService loteService;
+    private final Validator validator;
 
-    public TransaccionRecurrenteController(TransaccionRecurrenteService service, TransaccionRecurrenteMapper mapper) {
+    public TransaccionRecurrenteController(TransaccionRecurrenteService service, TransaccionRecurrenteMapper mapper,
+            ExportadorTransacciones exportador, LoteTransaccionesService loteService, Validator validator) {
         this.service = service;
         this.mapper = mapper;
+        this.exportador = exportador;
+        this.loteService = loteService;
+        this.validator = validator;
     }
 
     @GetMapping
@@ -99,6 +122,85 @@ public class TransaccionRecurrenteController {
         return ResponseEntity.ok(transaccionesDTO);
     }
 
+    @GetMapping("/cursor")
+    @Operation(
+        summary = "Listar transacciones recurrentes por cursor",
+        description = "Obtiene un listado de transacciones recurrentes paginado por cursor (keyset). Cada respuesta incluye un token " +
+                      "opaco para pedir la página siguiente; el costo de cada página es el mismo sin importar su profundidad y no se calcula el total"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de transacciones recurrentes obtenida exitosamente", 
+                    content = @Content(mediaType = "application/json", 
+                    schema = @Schema(implementation = PaginaTransaccionesDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Parámetros de consulta o token de página inválidos"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<PaginaTransaccionesDTO> obtenerPorCursor(
+            @Parameter(description = "Tamaño de la página (máximo 1000)", example = "100") 
+            @RequestParam(defaultValue = "100") int pageSize,
+            
+            @Parameter(description = "Token de continuación devuelto por la página anterior") 
+            @RequestParam(required = false) String pageToken,
+            
+            @Parameter(description = "Campo para ordenar (codigo, monto, fechaInicio, diaMesPago)", example = "monto") 
+            @RequestParam(defaultValue = "codigo") String sort,
+            
+            @Parameter(description = "Dirección del ordenamiento (ASC o DESC)", example = "ASC") 
+            @RequestParam(defaultValue = "ASC") String direction,
+            
+            @Parameter(description = "Filtrar por estado (ACT, CAN, FIN)", example = "ACT") 
+            @RequestParam(required = false) String estado,
+            
+            @Parameter(description = "Filtrar por día del mes de pago", example = "15") 
+            @RequestParam(required = false) Integer diaMesPago,
+            
+            @Parameter(description = "Filtrar por país de origen", example = "EC") 
+            @RequestParam(required = false) String pais,
+            
+            @Parameter(description = "Incluir transacciones eliminadas", example = "false") 
+            @RequestParam(defaultValue = "false") boolean incluirEliminadas) {
+        
+        log.info("Obteniendo transacciones recurrentes por cursor: tamaño={}, ordenamiento={}, dirección={}", pageSize, sort, direction);
+        
+        Sort.Direction sortDirection = "DESC".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Slice<TransaccionRecurrente> pagina = this.service.buscarTransaccionesPorCursor(estado, diaMesPago, pais, incluirEliminadas, 
+                sort, sortDirection, pageSize, pageToken);
+        
+        String siguienteToken = null;
+        if (pagina.hasNext()) {
+            TransaccionRecurrente ultima = pagina.getContent().get(pagina.getNumberOfElements() - 1);
+            siguienteToken = CursorTransacciones.despuesDe(ultima, sort, sortDirection).codificar();
+        }
+        List<TransaccionRecurrenteDTO> contenido = pagina.getContent().stream()
+                .map(mapper::toDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new PaginaTransaccionesDTO(contenido, contenido.size(), pagina.hasNext(), siguienteToken));
+    }
+
+    @GetMapping("/resumen")
+    @Operation(
+        summary = "Resumen de la cartera",
+        description = "Obtiene la cantidad de transacciones recurrentes y la suma de sus montos agrupadas por las dimensiones indicadas. " +
+                      "Se calcula sobre un resumen precalculado que se actualiza con cada alta o cambio de estado, sin recorrer las transacciones"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resumen obtenido exitosamente", 
+                    content = @Content(mediaType = "application/json", 
+                    schema = @Schema(implementation = ResumenTransaccionesDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Dimensión de agrupación inválida"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<List<ResumenTransaccionesDTO>> obtenerResumen(
+            @Parameter(description = "Dimensiones de agrupación: estado, pais, moneda o diaMesPago", example = "estado") 
+            @RequestParam(defaultValue = "estado") List<String> agrupacion) {
+        log.info("Obteniendo el resumen de la cartera agrupado por: {}", agrupacion);
+        return ResponseEntity.ok(
+            this.service.obtenerResumen(agrupacion).stream()
+                .map(mapper::toResumenDTO)
+                .collect(Collectors.toList())
+        );
+    }
+
     @GetMapping("/{codigo}")
     @Operation(
         summary = "Buscar transacción recurrente por código",
@@ -187,6 +289,83 @@ public class TransaccionRecurrenteController {
         );
     }
 
+    @GetMapping("/estado/{estado}/exportar")
+    @Operation(
+        summary = "Exportar transacciones por estado",
+        description = "Exporta todas las transacciones recurrentes en un estado específico como NDJSON o CSV. Las filas se leen con un cursor " +
+                      "de la base y se escriben a medida que llegan, comprimidas con gzip si el cliente lo acepta"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exportación iniciada", 
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+        @ApiResponse(responseCode = "400", description = "Estado o formato inválido"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<StreamingResponseBody> exportarPorEstado(
+            @Parameter(description = "Estado de la transacción (ACT: Activo, CAN: Cancelado, FIN: Finalizado)", example = "ACT", required = true) 
+            @PathVariable String estado,
+            
+            @Parameter(description = "Formato de exportación (ndjson o csv)", example = "csv") 
+            @RequestParam(defaultValue = ExportadorTransacciones.FORMATO_NDJSON) String formato,
+            
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion) {
+        log.info("Exportando transacciones recurrentes con estado {} en formato {}", estado, formato);
+        this.service.validarEstado(estado);
+        return exportador.exportar(formato, aceptaCodificacion, "transacciones-" + estado,
+                accion -> this.service.exportarPorEstado(estado, accion));
+    }
+
+    @GetMapping("/dia-mes/{diaMes}/exportar")
+    @Operation(
+        summary = "Exportar transacciones por día del mes",
+        description = "Exporta todas las transacciones recurrentes programadas para un día del mes como NDJSON o CSV, escritas a medida " +
+                      "que se leen de la base y comprimidas con gzip si el cliente lo acepta"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exportación iniciada", 
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+        @ApiResponse(responseCode = "400", description = "Día del mes o formato inválido"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<StreamingResponseBody> exportarPorDiaMes(
+            @Parameter(description = "Día del mes (1-31)", example = "15", required = true) 
+            @PathVariable Integer diaMes,
+            
+            @Parameter(description = "Formato de exportación (ndjson o csv)", example = "csv") 
+            @RequestParam(defaultValue = ExportadorTransacciones.FORMATO_NDJSON) String formato,
+            
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion) {
+        log.info("Exportando transacciones recurrentes del día {} en formato {}", diaMes, formato);
+        this.service.validarDiaMes(diaMes);
+        return exportador.exportar(formato, aceptaCodificacion, "transacciones-dia-" + diaMes,
+                accion -> this.service.exportarPorDiaMes(diaMes, accion));
+    }
+
+    @GetMapping("/cuenta/{cuentaIban}/exportar")
+    @Operation(
+        summary = "Exportar transacciones por cuenta IBAN",
+        description = "Exporta todas las transacciones recurrentes de una cuenta IBAN como NDJSON o CSV, escritas a medida " +
+                      "que se leen de la base y comprimidas con gzip si el cliente lo acepta"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exportación iniciada", 
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+        @ApiResponse(responseCode = "400", description = "Formato inválido"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<StreamingResponseBody> exportarPorCuentaIban(
+            @Parameter(description = "Número de cuenta en formato IBAN", example = "ES9121000418450200051332", required = true) 
+            @PathVariable String cuentaIban,
+            
+            @Parameter(description = "Formato de exportación (ndjson o csv)", example = "csv") 
+            @RequestParam(defaultValue = ExportadorTransacciones.FORMATO_NDJSON) String formato,
+            
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion) {
+        log.info("Exportando transacciones recurrentes de la cuenta IBAN {} en formato {}", cuentaIban, formato);
+        return exportador.exportar(formato, aceptaCodificacion, "transacciones-" + cuentaIban,
+                accion -> this.service.exportarPorCuentaIban(cuentaIban, accion));
+    }
+
     @PostMapping
     @Operation(
         summary = "Crear nueva transacción recurrente",
@@ -207,4 +386,67 @@ public class TransaccionRecurrenteController {
             mapper.toDTO(this.service.crear(mapper.toModel(transaccionDTO)))
         );
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/lotes")
+    @Operation(
+        summary = "Crear transacciones recurrentes en lote",
+        description = "Registra hasta 10000 transacciones recurrentes en una sola petición. Cada transacción se valida de forma independiente " +
+                      "y las válidas se insertan por bloques con inserciones JDBC en lote; la respuesta indica el resultado de cada posición"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Todas las transacciones del lote fueron creadas", 
+                    content = @Content(mediaType = "application/json", 
+                    schema = @Schema(implementation = LoteTransaccionesDTO.class))),
+        @ApiResponse(responseCode = "207", description = "Algunas transacciones del lote fueron rechazadas", 
+                    content = @Content(mediaType = "application/json", 
+                    schema = @Schema(implementation = LoteTransaccionesDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Lote vacío o mayor al tamaño máximo permitido"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<LoteTransaccionesDTO> crearLote(
+            @Parameter(description = "Transacciones recurrentes a crear", required = true) 
+            @RequestBody List<TransaccionRecurrenteDTO> transaccionesDTO) {
+        log.info("Creando lote de {} transacciones recurrentes", transaccionesDTO.size());
+        this.loteService.validarTamanio(transaccionesDTO.size());
+
+        ResultadoLoteDTO[] resultados = new ResultadoLoteDTO[transaccionesDTO.size()];
+        List<Integer> indices = new ArrayList<>(transaccionesDTO.size());
+        List<TransaccionRecurrente> validas = new ArrayList<>(transaccionesDTO.size());
+        for (int i = 0; i < transaccionesDTO.size(); i++) {
+            TransaccionRecurrenteDTO transaccionDTO = transaccionesDTO.get(i);
+            if (transaccionDTO == null) {
+                resultados[i] = new ResultadoLoteDTO(i, null, false, List.of("La transacción es requerida"));
+                continue;
+            }
+            Set<ConstraintViolation<TransaccionRecurrenteDTO>> violaciones = this.validator.validate(transaccionDTO);
+            if (!violaciones.isEmpty()) {
+                resultados[i] = new ResultadoLoteDTO(i, null, false, violaciones.stream()
+                        .map(violacion -> violacion.getPropertyPath() + ": " + violacion.getMessage())
+                        .sorted()
+                        .toList());
+            } else {
+                indices.add(i);
+                validas.add(mapper.toModel(transaccionDTO));
+            }
+        }
+
+        if (!validas.isEmpty()) {
+            List<String> errores = this.loteService.crear(validas);
+            for (int j = 0; j < validas.size(); j++) {
+                int indice = indices.get(j);
+                resultados[indice] = errores.get(j) == null
+                        ? new ResultadoLoteDTO(indice, validas.get(j).getCodigo(), true, List.of())
+                        : new ResultadoLoteDTO(indice, null, false, List.of(errores.get(j)));
+            }
+        }
+
+        int creadas = 0;
+        for (ResultadoLoteDTO resultado : resultados) {
+            if (resultado.isCreada()) {
+                creadas++;
+            }
+        }
+        LoteTransaccionesDTO lote = new LoteTransaccionesDTO(resultados.length, creadas, resultados.length - creadas, List.of(resultados));
+        return ResponseEntity.status(creadas == resultados.length ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(lote);
+    }
+}
@@ -0,0 +1,22 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class EjecucionTransaccionDTO {
+
+    private Long id;
+    private String codigoTransaccion;
+    private String codigoUnicoTransaccion;
+    private Integer intento;
+    private LocalDateTime fechaEjecucion;
+    private BigDecimal monto;
+    private String resultado;
+    private Integer codigoRespuesta;
+    private String detalle;
+}
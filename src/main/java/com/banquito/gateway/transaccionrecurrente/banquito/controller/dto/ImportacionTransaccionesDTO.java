@@ -0,0 +1,25 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ImportacionTransaccionesDTO {
+
+    private Long id;
+    private String archivo;
+    private String estado;
+    private Long tamanioArchivo;
+    private Long posicion;
+    private Integer porcentaje;
+    private Long lineas;
+    private Long cargadas;
+    private Long rechazadas;
+    private String archivoRechazos;
+    private String mensaje;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaActualizacion;
+}
@@ -0,0 +1,18 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntervaloCargaDTO {
+
+    private LocalDateTime inicio;
+    private long cantidad;
+    private BigDecimal monto;
+}
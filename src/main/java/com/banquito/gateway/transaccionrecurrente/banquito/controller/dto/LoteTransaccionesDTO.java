@@ -0,0 +1,18 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteTransaccionesDTO {
+
+    private int total;
+    private int creadas;
+    private int rechazadas;
+    private List<ResultadoLoteDTO> resultados;
+}
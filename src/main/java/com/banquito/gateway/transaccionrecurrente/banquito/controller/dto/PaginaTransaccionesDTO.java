@@ -0,0 +1,18 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaTransaccionesDTO {
+
+    private List<TransaccionRecurrenteDTO> contenido;
+    private int tamanio;
+    private boolean haySiguiente;
+    private String siguienteToken;
+}
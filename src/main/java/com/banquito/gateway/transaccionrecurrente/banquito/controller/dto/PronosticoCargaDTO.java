@@ -0,0 +1,25 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class PronosticoCargaDTO {
+
+    private LocalDateTime desde;
+    private int dias;
+    private long ejecuciones;
+    private BigDecimal montoTotal;
+    private IntervaloCargaDTO minutoPico;
+    private List<IntervaloCargaDTO> porDia;
+    // Solo los minutos con al menos una ejecución
+    private List<IntervaloCargaDTO> porMinuto;
+    private Map<String, List<IntervaloCargaDTO>> porMoneda;
+    private Map<String, List<IntervaloCargaDTO>> porBanco;
+}
@@ -0,0 +1,18 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+
+    private int indice;
+    private String codigo;
+    private boolean creada;
+    private List<String> errores;
+}
@@ -0,0 +1,18 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ResumenTransaccionesDTO {
+
+    private String estado;
+    private String pais;
+    private String moneda;
+    private Integer diaMesPago;
+    private Long cantidad;
+    private BigDecimal montoTotal;
+}
@@ -0,0 +1,31 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de las exportaciones masivas. No lleva el CVV y la tarjeta va enmascarada, con solo los
+ * últimos cuatro dígitos visibles.
+ */
+@Data
+@NoArgsConstructor
+public class TransaccionExportadaDTO {
+
+    private String codigo;
+    private BigDecimal monto;
+    private String marca;
+    private String estado;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private Integer diaMesPago;
+    private String swiftBanco;
+    private String cuentaIban;
+    private String moneda;
+    private String pais;
+    private String tarjeta;
+    private LocalDate fechaCaducidad;
+    private Integer frecuenciaDias;
+}
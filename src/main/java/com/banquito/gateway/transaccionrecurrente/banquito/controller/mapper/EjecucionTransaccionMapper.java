@@ -0,0 +1,29 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.EjecucionTransaccionDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.EjecucionTransaccion;
+
+@Component
+public class EjecucionTransaccionMapper {
+
+    public EjecucionTransaccionDTO toDTO(EjecucionTransaccion model) {
+        if (model == null) {
+            return null;
+        }
+
+        EjecucionTransaccionDTO dto = new EjecucionTransaccionDTO();
+        dto.setId(model.getId());
+        dto.setCodigoTransaccion(model.getCodigoTransaccion());
+        dto.setCodigoUnicoTransaccion(model.getCodigoUnicoTransaccion());
+        dto.setIntento(model.getIntento());
+        dto.setFechaEjecucion(model.getFechaEjecucion());
+        dto.setMonto(model.getMonto());
+        dto.setResultado(model.getResultado());
+        dto.setCodigoRespuesta(model.getCodigoRespuesta());
+        dto.setDetalle(model.getDetalle());
+
+        return dto;
+    }
+}
@@ -0,0 +1,34 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.ImportacionTransaccionesDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ImportacionTransacciones;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.ImportacionTransaccionesService;
+
+@Component
+public class ImportacionTransaccionesMapper {
+
+    public ImportacionTransaccionesDTO toDTO(ImportacionTransacciones model) {
+        if (model == null) {
+            return null;
+        }
+
+        ImportacionTransaccionesDTO dto = new ImportacionTransaccionesDTO();
+        dto.setId(model.getId());
+        dto.setArchivo(model.getArchivo());
+        dto.setEstado(model.getEstado());
+        dto.setTamanioArchivo(model.getTamanioArchivo());
+        dto.setPosicion(model.getPosicion());
+        dto.setPorcentaje(model.getTamanioArchivo() > 0 ? (int) (model.getPosicion() * 100 / model.getTamanioArchivo()) : 100);
+        dto.setLineas(model.getLineas());
+        dto.setCargadas(model.getCargadas());
+        dto.setRechazadas(model.getRechazadas());
+        dto.setArchivoRechazos(model.getArchivo() + ImportacionTransaccionesService.SUFIJO_RECHAZOS);
+        dto.setMensaje(model.getMensaje());
+        dto.setFechaInicio(model.getFechaInicio());
+        dto.setFechaActualizacion(model.getFechaActualizacion());
+
+        return dto;
+    }
+}
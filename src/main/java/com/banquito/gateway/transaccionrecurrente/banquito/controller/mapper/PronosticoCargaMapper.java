@@ -0,0 +1,73 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.IntervaloCargaDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.PronosticoCargaDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.PronosticoCarga;
+
+@Component
+public class PronosticoCargaMapper {
+
+    public PronosticoCargaDTO toDTO(PronosticoCarga model) {
+        if (model == null) {
+            return null;
+        }
+
+        long[] cantidadPorDia = new long[model.getDias()];
+        long[] centavosPorDia = new long[model.getDias()];
+        List<IntervaloCargaDTO> porMinuto = new ArrayList<>();
+        IntervaloCargaDTO minutoPico = null;
+        for (int minuto = 0; minuto < model.getMinutos(); minuto++) {
+            long cantidad = model.cantidadEnMinuto(minuto);
+            if (cantidad == 0) {
+                continue;
+            }
+            int dia = minuto / PronosticoCarga.MINUTOS_DIA;
+            cantidadPorDia[dia] += cantidad;
+            centavosPorDia[dia] += model.centavosEnMinuto(minuto);
+            IntervaloCargaDTO intervalo = new IntervaloCargaDTO(model.getDesde().plusMinutes(minuto), cantidad, monto(model.centavosEnMinuto(minuto)));
+            porMinuto.add(intervalo);
+            if (minutoPico == null || cantidad > minutoPico.getCantidad()) {
+                minutoPico = intervalo;
+            }
+        }
+
+        PronosticoCargaDTO dto = new PronosticoCargaDTO();
+        dto.setDesde(model.getDesde());
+        dto.setDias(model.getDias());
+        dto.setPorDia(porDia(model, new long[][] { cantidadPorDia, centavosPorDia }));
+        dto.setEjecuciones(dto.getPorDia().stream().mapToLong(IntervaloCargaDTO::getCantidad).sum());
+        dto.setMontoTotal(dto.getPorDia().stream().map(IntervaloCargaDTO::getMonto).reduce(BigDecimal.ZERO.setScale(2), BigDecimal::add));
+        dto.setMinutoPico(minutoPico);
+        dto.setPorMinuto(porMinuto);
+        dto.setPorMoneda(desglose(model, model.getPorMoneda()));
+        dto.setPorBanco(desglose(model, model.getPorBanco()));
+
+        return dto;
+    }
+
+    private static Map<String, List<IntervaloCargaDTO>> desglose(PronosticoCarga model, Map<String, long[][]> desglose) {
+        Map<String, List<IntervaloCargaDTO>> resultado = new LinkedHashMap<>();
+        desglose.forEach((clave, valores) -> resultado.put(clave, porDia(model, valores)));
+        return resultado;
+    }
+
+    private static List<IntervaloCargaDTO> porDia(PronosticoCarga model, long[][] valores) {
+        List<IntervaloCargaDTO> dias = new ArrayList<>(model.getDias());
+        for (int dia = 0; dia < model.getDias(); dia++) {
+            dias.add(new IntervaloCargaDTO(model.getDesde().plusDays(dia), valores[0][dia], monto(valores[1][dia])));
+        }
+        return dias;
+    }
+
+    private static BigDecimal monto(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
@@ -5,12 +5,17 @@ import java.util.ArrayList;
 
 import org.springframework.stereotype.Component;
 
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.ResumenTransaccionesDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.TransaccionExportadaDTO;
 import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.TransaccionRecurrenteDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ResumenTransacciones;
 import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
 
 @Component
 public class TransaccionRecurrenteMapper {
     
+    private static final int DIGITOS_VISIBLES_TARJETA = 4;
+    
     public TransaccionRecurrenteDTO toDTO(TransaccionRecurrente model) {
         if (model == null) {
             return null;
@@ -36,6 +41,39 @@ public class TransaccionRecurrenteMapper {
         return dto;
     }
     
+    public TransaccionExportadaDTO toExportadaDTO(TransaccionRecurrente model) {
+        if (model == null) {
+            return null;
+        }
+        
+        TransaccionExportadaDTO dto = new TransaccionExportadaDTO();
+        dto.setCodigo(model.getCodigo());
+        dto.setMonto(model.getMonto());
+        dto.setMarca(model.getMarca());
+        dto.setEstado(model.getEstado());
+        dto.setFechaInicio(model.getFechaInicio());
+        dto.setFechaFin(model.getFechaFin());
+        dto.setDiaMesPago(model.getDiaMesPago());
+        dto.setSwiftBanco(model.getSwiftBanco());
+        dto.setCuentaIban(model.getCuentaIban());
+        dto.setMoneda(model.getMoneda());
+        dto.setPais(model.getPais());
+        dto.setTarjeta(enmascararTarjeta(model.getTarjeta()));
+        dto.setFechaCaducidad(model.getFechaCaducidad());
+        dto.setFrecuenciaDias(model.getFrecuenciaDias());
+        
+        return dto;
+    }
+    
+    public static String enmascararTarjeta(Long tarjeta) {
+        if (tarjeta == null) {
+            return null;
+        }
+        String numero = tarjeta.toString();
+        int ocultos = Math.max(numero.length() - DIGITOS_VISIBLES_TARJETA, 0);
+        return "*".repeat(ocultos) + numero.substring(ocultos);
+    }
+    
     public TransaccionRecurrente toModel(TransaccionRecurrenteDTO dto) {
         if (dto == null) {
             return null;
@@ -61,6 +99,22 @@ public class TransaccionRecurrenteMapper {
         return model;
     }
     
+    public ResumenTransaccionesDTO toResumenDTO(ResumenTransacciones model) {
+        if (model == null) {
+            return null;
+        }
+        
+        ResumenTransaccionesDTO dto = new ResumenTransaccionesDTO();
+        dto.setEstado(model.getEstado());
+        dto.setPais(model.getPais());
+        dto.setMoneda(model.getMoneda());
+        dto.setDiaMesPago(model.getDiaMesPago());
+        dto.setCantidad(model.getCantidad());
+        dto.setMontoTotal(model.getMontoTotal());
+        
+        return dto;
+    }
+    
     public List<TransaccionRecurrenteDTO> toDTOList(List<TransaccionRecurrente> models) {
         if (models == null) {
             return null;
@@ -0,0 +1,24 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.exception;
+
+import java.time.Duration;
+
+public class ServicioNoDisponibleException extends RuntimeException {
+    
+    private final String servicio;
+    private final Duration esperaSugerida;
+
+    public ServicioNoDisponibleException(String servicio, Duration esperaSugerida) {
+        super();
+        this.servicio = servicio;
+        this.esperaSugerida = esperaSugerida;
+    }
+
+    public Duration getEsperaSugerida() {
+        return esperaSugerida;
+    }
+
+    @Override
+    public String getMessage() {
+        return "El servicio " + this.servicio + " no está disponible, reintentar en " + this.esperaSugerida.toSeconds() + " segundos";
+    }
+}
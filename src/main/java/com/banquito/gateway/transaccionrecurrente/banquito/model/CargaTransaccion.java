@@ -0,0 +1,28 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con los campos que el pronóstico de carga necesita para proyectar las ejecuciones
+ * futuras de una transacción recurrente y repartirlas por moneda y banco.
+ */
+public interface CargaTransaccion {
+
+    BigDecimal getMonto();
+
+    String getMoneda();
+
+    String getSwiftBanco();
+
+    Integer getDiaMesPago();
+
+    Integer getFrecuenciaDias();
+
+    LocalDate getFechaInicio();
+
+    LocalDate getFechaFin();
+
+    LocalDateTime getProximaEjecucion();
+}
@@ -0,0 +1,82 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Entity
+@Table(name = "GTW_EJECUCION_TRANSACCION")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class EjecucionTransaccion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID_EJECUCION", nullable = false)
+    private Long id;
+
+    @Column(name = "COD_TRANSACCION_RECURRENTE", length = 10, nullable = false)
+    private String codigoTransaccion;
+
+    @Column(name = "COD_UNICO_TRANSACCION", length = 64, nullable = false)
+    private String codigoUnicoTransaccion;
+
+    @Column(name = "INTENTO", nullable = false)
+    private Integer intento;
+
+    @Column(name = "FECHA_EJECUCION", nullable = false)
+    private LocalDateTime fechaEjecucion;
+
+    @Column(name = "MONTO", precision = 20, scale = 2)
+    private BigDecimal monto;
+
+    @Column(name = "RESULTADO", length = 3, nullable = false)
+    private String resultado;
+
+    @Column(name = "CODIGO_RESPUESTA")
+    private Integer codigoRespuesta;
+
+    @Column(name = "DETALLE", length = 200)
+    private String detalle;
+
+    public EjecucionTransaccion(Long id) {
+        this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        EjecucionTransaccion other = (EjecucionTransaccion) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        return true;
+    }
+}
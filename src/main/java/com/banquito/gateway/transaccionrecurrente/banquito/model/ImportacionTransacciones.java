@@ -0,0 +1,93 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Entity
+@Table(name = "GTW_IMPORTACION_TRANSACCION", uniqueConstraints = {
+    @UniqueConstraint(name = "UK_IMPORTACION_TRANSACCION_ARCHIVO", columnNames = "ARCHIVO")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class ImportacionTransacciones {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID_IMPORTACION", nullable = false)
+    private Long id;
+
+    @Column(name = "ARCHIVO", length = 255, nullable = false)
+    private String archivo;
+
+    @Column(name = "TAMANIO_ARCHIVO", nullable = false)
+    private Long tamanioArchivo;
+
+    @Column(name = "ESTADO", length = 3, nullable = false)
+    private String estado;
+
+    @Column(name = "POSICION", nullable = false)
+    private Long posicion;
+
+    @Column(name = "POSICION_RECHAZOS", nullable = false)
+    private Long posicionRechazos;
+
+    @Column(name = "LINEAS", nullable = false)
+    private Long lineas;
+
+    @Column(name = "CARGADAS", nullable = false)
+    private Long cargadas;
+
+    @Column(name = "RECHAZADAS", nullable = false)
+    private Long rechazadas;
+
+    @Column(name = "MENSAJE", length = 200)
+    private String mensaje;
+
+    @Column(name = "FECHA_INICIO", nullable = false)
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "FECHA_ACTUALIZACION", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    public ImportacionTransacciones(Long id) {
+        this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        ImportacionTransacciones other = (ImportacionTransacciones) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con los campos que el planificador necesita para decidir cuándo ejecutar una
+ * transacción recurrente. Los datos de pago (tarjeta, CVV, IBAN, SWIFT) se cargan solo para
+ * las transacciones que efectivamente se despachan.
+ */
+public interface ProgramacionTransaccion {
+
+    String getCodigo();
+
+    String getEstado();
+
+    Integer getFrecuenciaDias();
+
+    Integer getDiaMesPago();
+
+    LocalDate getFechaFin();
+
+    LocalDateTime getProximaEjecucion();
+}
@@ -0,0 +1,62 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Entity
+@Table(name = "GTW_REINTENTO_TRANSACCION")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class ReintentoTransaccion {
+
+    @EmbeddedId
+    private ReintentoTransaccionPK id;
+
+    @Column(name = "FECHA_REINTENTO", nullable = false)
+    private LocalDateTime fechaReintento;
+
+    @Column(name = "FECHA_RECHAZO", nullable = false)
+    private LocalDateTime fechaRechazo;
+
+    @Column(name = "MOTIVO", length = 200)
+    private String motivo;
+
+    public ReintentoTransaccion(ReintentoTransaccionPK id) {
+        this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        ReintentoTransaccion other = (ReintentoTransaccion) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        return true;
+    }
+}
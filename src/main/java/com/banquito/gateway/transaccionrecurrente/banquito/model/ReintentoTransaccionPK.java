@@ -0,0 +1,60 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class ReintentoTransaccionPK implements Serializable {
+
+    @Column(name = "COD_TRANSACCION_RECURRENTE", length = 10, nullable = false)
+    private String codigoTransaccion;
+
+    @Column(name = "INTENTO", nullable = false)
+    private Integer intento;
+
+    public ReintentoTransaccionPK(String codigoTransaccion, Integer intento) {
+        this.codigoTransaccion = codigoTransaccion;
+        this.intento = intento;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((codigoTransaccion == null) ? 0 : codigoTransaccion.hashCode());
+        result = prime * result + ((intento == null) ? 0 : intento.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        ReintentoTransaccionPK other = (ReintentoTransaccionPK) obj;
+        if (codigoTransaccion == null) {
+            if (other.codigoTransaccion != null)
+                return false;
+        } else if (!codigoTransaccion.equals(other.codigoTransaccion))
+            return false;
+        if (intento == null) {
+            if (other.intento != null)
+                return false;
+        } else if (!intento.equals(other.intento))
+            return false;
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fila del resumen precalculado de la cartera. Las dimensiones por las que no se agrupa quedan en
+ * {@code null}, igual que las transacciones que no tienen ese dato.
+ */
+public interface ResumenTransacciones {
+
+    String getEstado();
+
+    String getPais();
+
+    String getMoneda();
+
+    Integer getDiaMesPago();
+
+    Long getCantidad();
+
+    BigDecimal getMontoTotal();
+}
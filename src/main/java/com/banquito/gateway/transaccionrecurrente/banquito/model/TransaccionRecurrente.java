@@ -2,6 +2,7 @@ package com.banquito.gateway.transaccionrecurrente.banquito.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -66,10 +67,46 @@ public class TransaccionRecurrente {
     @Column(name = "FRECUENCIA_DIAS")
     private Integer frecuenciaDias;
 
+    @Column(name = "ULTIMA_EJECUCION")
+    private LocalDateTime ultimaEjecucion;
+
+    @Column(name = "PROXIMA_EJECUCION")
+    private LocalDateTime proximaEjecucion;
+
+    @Column(name = "LEASE_NODO", length = 64)
+    private String leaseNodo;
+
+    @Column(name = "LEASE_EXPIRA")
+    private LocalDateTime leaseExpira;
+
     public TransaccionRecurrente(String codigo) {
         this.codigo = codigo;
     }
 
+    /** Copia desprendida de cualquier contexto de persistencia, para guardarla en caché. */
+    public TransaccionRecurrente copia() {
+        TransaccionRecurrente copia = new TransaccionRecurrente(codigo);
+        copia.monto = monto;
+        copia.marca = marca;
+        copia.estado = estado;
+        copia.fechaInicio = fechaInicio;
+        copia.fechaFin = fechaFin;
+        copia.diaMesPago = diaMesPago;
+        copia.swiftBanco = swiftBanco;
+        copia.cuentaIban = cuentaIban;
+        copia.moneda = moneda;
+        copia.pais = pais;
+        copia.tarjeta = tarjeta;
+        copia.fechaCaducidad = fechaCaducidad;
+        copia.cvv = cvv;
+        copia.frecuenciaDias = frecuenciaDias;
+        copia.ultimaEjecucion = ultimaEjecucion;
+        copia.proximaEjecucion = proximaEjecucion;
+        copia.leaseNodo = leaseNodo;
+        copia.leaseExpira = leaseExpira;
+        return copia;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
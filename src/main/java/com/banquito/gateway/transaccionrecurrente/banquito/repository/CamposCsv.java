@@ -0,0 +1,22 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+/**
+ * Escritura de campos csv compartida por las cargas con COPY y por la exportación.
+ * Un campo nulo se escribe vacío y sin comillas, que COPY interpreta como NULL.
+ */
+public final class CamposCsv {
+
+    private CamposCsv() {
+    }
+
+    public static StringBuilder valor(StringBuilder csv, Object valor) {
+        return valor == null ? csv : csv.append(valor);
+    }
+
+    public static StringBuilder texto(StringBuilder csv, String valor) {
+        if (valor == null) {
+            return csv;
+        }
+        return csv.append('"').append(valor.replace("\"", "\"\"")).append('"');
+    }
+}
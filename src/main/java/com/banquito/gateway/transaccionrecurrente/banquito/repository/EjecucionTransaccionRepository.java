@@ -0,0 +1,21 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.EjecucionTransaccion;
+
+@Repository
+public interface EjecucionTransaccionRepository extends JpaRepository<EjecucionTransaccion, Long>, EjecucionTransaccionRepositoryCustom {
+
+    List<EjecucionTransaccion> findByCodigoTransaccionAndFechaEjecucionBetweenOrderByFechaEjecucion(
+            String codigoTransaccion, LocalDateTime desde, LocalDateTime hasta);
+
+    // Slice: Spring Data pide una fila de más en lugar de ejecutar COUNT(*) sobre el historial
+    Slice<EjecucionTransaccion> findByFechaEjecucionBetween(LocalDateTime desde, LocalDateTime hasta, Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import java.util.List;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.EjecucionTransaccion;
+
+public interface EjecucionTransaccionRepositoryCustom {
+
+    int insertarEnLote(List<EjecucionTransaccion> ejecuciones);
+}
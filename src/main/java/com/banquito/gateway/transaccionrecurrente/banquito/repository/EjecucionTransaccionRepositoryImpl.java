@@ -0,0 +1,87 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.EjecucionTransaccion;
+
+public class EjecucionTransaccionRepositoryImpl implements EjecucionTransaccionRepositoryCustom {
+
+    private static final String COLUMNAS = "COD_TRANSACCION_RECURRENTE, COD_UNICO_TRANSACCION, INTENTO, FECHA_EJECUCION, "
+            + "MONTO, RESULTADO, CODIGO_RESPUESTA, DETALLE";
+    private static final String COPY = "COPY GTW_EJECUCION_TRANSACCION (" + COLUMNAS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT = "INSERT INTO GTW_EJECUCION_TRANSACCION (" + COLUMNAS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+
+    public EjecucionTransaccionRepositoryImpl(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public int insertarEnLote(List<EjecucionTransaccion> ejecuciones) {
+        if (ejecuciones.isEmpty()) {
+            return 0;
+        }
+        Connection conexion = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (conexion.isWrapperFor(PGConnection.class)) {
+                return (int) conexion.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY, new StringReader(aCsv(ejecuciones)));
+            }
+            return insertarPorLotes(conexion, ejecuciones);
+        } catch (SQLException | IOException e) {
+            throw new DataAccessResourceFailureException("Error al registrar " + ejecuciones.size() + " ejecuciones", e);
+        } finally {
+            DataSourceUtils.releaseConnection(conexion, dataSource);
+        }
+    }
+
+    private int insertarPorLotes(Connection conexion, List<EjecucionTransaccion> ejecuciones) throws SQLException {
+        try (PreparedStatement sentencia = conexion.prepareStatement(INSERT)) {
+            for (EjecucionTransaccion ejecucion : ejecuciones) {
+                sentencia.setString(1, ejecucion.getCodigoTransaccion());
+                sentencia.setString(2, ejecucion.getCodigoUnicoTransaccion());
+                sentencia.setInt(3, ejecucion.getIntento());
+                sentencia.setTimestamp(4, Timestamp.valueOf(ejecucion.getFechaEjecucion()));
+                sentencia.setBigDecimal(5, ejecucion.getMonto());
+                sentencia.setString(6, ejecucion.getResultado());
+                if (ejecucion.getCodigoRespuesta() != null) {
+                    sentencia.setInt(7, ejecucion.getCodigoRespuesta());
+                } else {
+                    sentencia.setNull(7, Types.INTEGER);
+                }
+                sentencia.setString(8, ejecucion.getDetalle());
+                sentencia.addBatch();
+            }
+            return sentencia.executeBatch().length;
+        }
+    }
+
+    static String aCsv(List<EjecucionTransaccion> ejecuciones) {
+        StringBuilder csv = new StringBuilder(ejecuciones.size() * 128);
+        for (EjecucionTransaccion ejecucion : ejecuciones) {
+            CamposCsv.texto(csv, ejecucion.getCodigoTransaccion()).append(',');
+            CamposCsv.texto(csv, ejecucion.getCodigoUnicoTransaccion()).append(',');
+            CamposCsv.valor(csv, ejecucion.getIntento()).append(',');
+            CamposCsv.valor(csv, ejecucion.getFechaEjecucion()).append(',');
+            CamposCsv.valor(csv, ejecucion.getMonto() != null ? ejecucion.getMonto().toPlainString() : null).append(',');
+            CamposCsv.texto(csv, ejecucion.getResultado()).append(',');
+            CamposCsv.valor(csv, ejecucion.getCodigoRespuesta()).append(',');
+            CamposCsv.texto(csv, ejecucion.getDetalle()).append('\n');
+        }
+        return csv.toString();
+    }
+}
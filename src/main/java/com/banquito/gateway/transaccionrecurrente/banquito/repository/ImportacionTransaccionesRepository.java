@@ -0,0 +1,14 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ImportacionTransacciones;
+
+@Repository
+public interface ImportacionTransaccionesRepository extends JpaRepository<ImportacionTransacciones, Long> {
+
+    Optional<ImportacionTransacciones> findByArchivo(String archivo);
+}
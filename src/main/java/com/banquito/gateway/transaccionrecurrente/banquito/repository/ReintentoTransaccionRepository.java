@@ -0,0 +1,43 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ReintentoTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ReintentoTransaccionPK;
+
+@Repository
+public interface ReintentoTransaccionRepository extends JpaRepository<ReintentoTransaccion, ReintentoTransaccionPK> {
+
+    List<ReintentoTransaccion> findByIdCodigoTransaccion(String codigoTransaccion);
+
+    List<ReintentoTransaccion> findByIdCodigoTransaccionIn(Collection<String> codigosTransaccion);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ReintentoTransaccion r WHERE r.id.codigoTransaccion = :codigo")
+    int deleteByIdCodigoTransaccion(@Param("codigo") String codigoTransaccion);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ReintentoTransaccion r WHERE r.id.codigoTransaccion IN :codigos")
+    int deleteByIdCodigoTransaccionIn(@Param("codigos") Collection<String> codigosTransaccion);
+
+    @Query("SELECT DISTINCT r.id.codigoTransaccion FROM ReintentoTransaccion r")
+    Set<String> findCodigosTransaccion();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ReintentoTransaccion r WHERE NOT EXISTS " +
+           "(SELECT 1 FROM TransaccionRecurrente t WHERE t.codigo = r.id.codigoTransaccion AND t.estado = 'ACT')")
+    int eliminarSinTransaccionActiva();
+
+    @Query(value = "SELECT * FROM GTW_REINTENTO_TRANSACCION r WHERE r.FECHA_REINTENTO <= :ahora " +
+           "ORDER BY r.FECHA_REINTENTO LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ReintentoTransaccion> bloquearVencidos(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
+}
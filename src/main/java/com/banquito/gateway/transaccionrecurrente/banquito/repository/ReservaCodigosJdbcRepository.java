@@ -0,0 +1,43 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class ReservaCodigosJdbcRepository implements ReservaCodigosRepository {
+
+    private static final String RESERVAR = "INSERT INTO GTW_RESERVA_CODIGO (NODO, SEGUNDO_RESERVADO, FECHA_ACTUALIZACION) "
+            + "VALUES (?, ?, CURRENT_TIMESTAMP) ON CONFLICT (NODO) DO UPDATE SET "
+            + "SEGUNDO_RESERVADO = GREATEST(GTW_RESERVA_CODIGO.SEGUNDO_RESERVADO, EXCLUDED.SEGUNDO_RESERVADO), "
+            + "FECHA_ACTUALIZACION = CURRENT_TIMESTAMP RETURNING SEGUNDO_RESERVADO";
+
+    private final DataSource dataSource;
+
+    public ReservaCodigosJdbcRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public long reservar(int nodo, long hasta) {
+        // Conexión propia en autocommit: la reserva debe quedar confirmada aunque se revierta la transacción que pidió el código
+        try (Connection conexion = dataSource.getConnection();
+                PreparedStatement sentencia = conexion.prepareStatement(RESERVAR)) {
+            conexion.setAutoCommit(true);
+            sentencia.setInt(1, nodo);
+            sentencia.setLong(2, Math.max(hasta, -1));
+            try (ResultSet resultado = sentencia.executeQuery()) {
+                resultado.next();
+                return resultado.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Error al reservar segundos para el nodo " + nodo + " del generador de códigos", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+@FunctionalInterface
+public interface ReservaCodigosRepository {
+
+    /**
+     * Registra de forma duradera que el nodo reservó los segundos hasta {@code hasta}, contados desde la época
+     * del generador, y devuelve el mayor segundo reservado por ese nodo. Con {@code hasta} negativo solo lo
+     * consulta; devuelve -1 si el nodo nunca reservó.
+     */
+    long reservar(int nodo, long hasta);
+}
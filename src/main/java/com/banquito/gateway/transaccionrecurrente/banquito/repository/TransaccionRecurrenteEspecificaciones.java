@@ -0,0 +1,67 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+public final class TransaccionRecurrenteEspecificaciones {
+
+    public static final String CAMPO_CODIGO = "codigo";
+
+    private TransaccionRecurrenteEspecificaciones() {
+    }
+
+    public static Specification<TransaccionRecurrente> conFiltros(String estado, Integer diaMesPago, String pais, 
+            boolean incluirEliminadas) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (estado != null && !estado.isEmpty()) {
+                predicados.add(cb.equal(root.get("estado"), estado));
+            }
+            if (diaMesPago != null) {
+                predicados.add(cb.equal(root.get("diaMesPago"), diaMesPago));
+            }
+            if (pais != null && !pais.isEmpty()) {
+                predicados.add(cb.equal(root.get("pais"), pais));
+            }
+            if (!incluirEliminadas) {
+                predicados.add(cb.notEqual(root.get("estado"), "ELI"));
+            }
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Filas estrictamente posteriores a (valor, codigo) en el orden (campo, codigo). La condición redundante
+     * campo >= valor permite a PostgreSQL iniciar el recorrido del índice en la posición del cursor.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static Specification<TransaccionRecurrente> posteriorA(String campo, Sort.Direction direccion, 
+            Comparable<?> valor, String codigo) {
+        return (root, query, cb) -> {
+            Expression<String> codigoExpr = root.get(CAMPO_CODIGO);
+            if (CAMPO_CODIGO.equals(campo)) {
+                return despues(cb, direccion, codigoExpr, codigo);
+            }
+            Expression campoExpr = root.get(campo);
+            Comparable valorCampo = valor;
+            Predicate inicio = direccion.isAscending() 
+                    ? cb.greaterThanOrEqualTo(campoExpr, valorCampo) 
+                    : cb.lessThanOrEqualTo(campoExpr, valorCampo);
+            return cb.and(inicio, cb.or(despues(cb, direccion, campoExpr, valorCampo), despues(cb, direccion, codigoExpr, codigo)));
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate despues(CriteriaBuilder cb, Sort.Direction direccion, 
+            Expression<? extends T> expresion, T valor) {
+        return direccion.isAscending() ? cb.greaterThan(expresion, valor) : cb.lessThan(expresion, valor);
+    }
+}
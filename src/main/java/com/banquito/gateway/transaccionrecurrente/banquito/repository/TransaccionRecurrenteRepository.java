@@ -1,24 +1,44 @@
 package com.banquito.gateway.transaccionrecurrente.banquito.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.banquito.gateway.transaccionrecurrente.banquito.model.CargaTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ProgramacionTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ResumenTransacciones;
 import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface TransaccionRecurrenteRepository extends JpaRepository<TransaccionRecurrente, String> {
+public interface TransaccionRecurrenteRepository extends JpaRepository<TransaccionRecurrente, String>, 
+        JpaSpecificationExecutor<TransaccionRecurrente>, TransaccionRecurrenteRepositoryCustom {
+    
+    int TAMANIO_LECTURA = 500;
     
     List<TransaccionRecurrente> findByEstadoAndDiaMesPagoAndFechaFinGreaterThanEqual(String estado, Integer diaMesPago, LocalDate fechaFin);
     
     List<TransaccionRecurrente> findByEstadoAndFechaFinLessThanEqual(String estado, LocalDate fechaFin);
     
+    // El estado va como literal para que PostgreSQL use los índices parciales de la migración V6
+    @Query("SELECT t FROM TransaccionRecurrente t WHERE t.estado = 'ACT' AND t.diaMesPago = :diaMesPago AND t.fechaFin >= :fechaFin")
+    List<TransaccionRecurrente> buscarActivasPorDiaPago(@Param("diaMesPago") Integer diaMesPago, @Param("fechaFin") LocalDate fechaFin);
+    
     List<TransaccionRecurrente> findByCuentaIbanAndEstado(String cuentaIban, String estado);
     
     List<TransaccionRecurrente> findByCuentaIban(String cuentaIban);
@@ -27,6 +47,78 @@ public interface TransaccionRecurrenteRepository extends JpaRepository<Transacci
     
     List<TransaccionRecurrente> findByEstado(String estado);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANIO_LECTURA),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProgramacionTransaccion> streamByEstado(String estado);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANIO_LECTURA),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.codigo AS codigo, t.estado AS estado, t.frecuenciaDias AS frecuenciaDias, t.diaMesPago AS diaMesPago, " +
+           "t.fechaFin AS fechaFin, t.proximaEjecucion AS proximaEjecucion FROM TransaccionRecurrente t " +
+           "WHERE t.estado = 'ACT' AND t.proximaEjecucion <= :instante")
+    Stream<ProgramacionTransaccion> streamActivasVencidas(@Param("instante") LocalDateTime instante);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANIO_LECTURA),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TransaccionRecurrente> streamTransaccionesByEstado(String estado);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANIO_LECTURA),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CargaTransaccion> streamCargaByEstado(String estado);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANIO_LECTURA),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TransaccionRecurrente> streamTransaccionesByDiaMesPago(Integer diaMesPago);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANIO_LECTURA),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TransaccionRecurrente> streamTransaccionesByCuentaIban(String cuentaIban);
+    
+    @Query(value = "SELECT * FROM GTW_TRANSACCION_RECURRENTE t WHERE " +
+           "t.ESTADO = 'ACT' AND t.PROXIMA_EJECUCION <= :ahora AND " +
+           "(t.LEASE_EXPIRA IS NULL OR t.LEASE_EXPIRA < :ahora) AND " +
+           "NOT EXISTS (SELECT 1 FROM GTW_REINTENTO_TRANSACCION r WHERE r.COD_TRANSACCION_RECURRENTE = t.COD_TRANSACCION_RECURRENTE) " +
+           "ORDER BY t.PROXIMA_EJECUCION LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<TransaccionRecurrente> bloquearVencidasSinLease(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
+    
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE GTW_TRANSACCION_RECURRENTE SET ULTIMA_EJECUCION = :fecha, " +
+           "PROXIMA_EJECUCION = CAST(:fecha AS TIMESTAMP) + make_interval(mins => " +
+           "CASE WHEN FRECUENCIA_DIAS > 0 THEN FRECUENCIA_DIAS ELSE :frecuenciaPorDefecto END), " +
+           "LEASE_NODO = NULL, LEASE_EXPIRA = NULL " +
+           "WHERE COD_TRANSACCION_RECURRENTE IN (:codigos)", nativeQuery = true)
+    int registrarEjecuciones(@Param("codigos") Collection<String> codigos, @Param("fecha") LocalDateTime fecha, 
+                             @Param("frecuenciaPorDefecto") int frecuenciaPorDefecto);
+    
+    // GTW_RESUMEN_TRANSACCION la mantienen los triggers de la migración V4, aquí solo se agrega por las dimensiones pedidas
+    @Query(value = "SELECT CASE WHEN :porEstado THEN NULLIF(ESTADO, '') END AS estado, " +
+           "CASE WHEN :porPais THEN NULLIF(PAIS, '') END AS pais, " +
+           "CASE WHEN :porMoneda THEN NULLIF(MONEDA, '') END AS moneda, " +
+           "CASE WHEN :porDiaMesPago THEN NULLIF(DIA_MES_PAGO, 0) END AS \"diaMesPago\", " +
+           "CAST(SUM(CANTIDAD) AS BIGINT) AS cantidad, SUM(MONTO_TOTAL) AS \"montoTotal\" " +
+           "FROM GTW_RESUMEN_TRANSACCION GROUP BY 1, 2, 3, 4 HAVING SUM(CANTIDAD) <> 0 ORDER BY 1, 2, 3, 4", nativeQuery = true)
+    List<ResumenTransacciones> obtenerResumen(@Param("porEstado") boolean porEstado, @Param("porPais") boolean porPais,
+                                              @Param("porMoneda") boolean porMoneda, @Param("porDiaMesPago") boolean porDiaMesPago);
+    
+    @Query("SELECT DISTINCT t.cuentaIban FROM TransaccionRecurrente t WHERE t.codigo IN :codigos AND t.cuentaIban IS NOT NULL")
+    List<String> obtenerCuentasIban(@Param("codigos") Collection<String> codigos);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE TransaccionRecurrente t SET t.estado = :estado WHERE t.codigo IN :codigos")
+    int actualizarEstados(@Param("codigos") Collection<String> codigos, @Param("estado") String estado);
+    
     @Query("SELECT t FROM TransaccionRecurrente t WHERE " +
            "(:estado IS NULL OR t.estado = :estado) AND " +
            "(:diaMesPago IS NULL OR t.diaMesPago = :diaMesPago) AND " +
@@ -0,0 +1,18 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+public interface TransaccionRecurrenteRepositoryCustom {
+
+    int copiarEnLote(List<TransaccionRecurrente> transacciones);
+
+    /**
+     * Pasa a FIN hasta {@code limite} transacciones activas con fecha fin anterior a {@code fecha} en una sola
+     * sentencia, sin cargar las entidades, y devuelve sus códigos. Las filas bloqueadas por otra transacción se
+     * saltan y quedan para el siguiente bloque.
+     */
+    List<String> finalizarVencidas(LocalDate fecha, int limite);
+}
@@ -0,0 +1,140 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+public class TransaccionRecurrenteRepositoryImpl implements TransaccionRecurrenteRepositoryCustom {
+
+    private static final String COLUMNAS = "COD_TRANSACCION_RECURRENTE, MONTO, MARCA, ESTADO, FECHA_INICIO, FECHA_FIN, "
+            + "DIA_MES_PAGO, SWIFT_BANCO, CUENTA_IBAN, MONEDA, PAIS, TARJETA, FECHA_CADUCIDAD, CVV, FRECUENCIA_DIAS, "
+            + "PROXIMA_EJECUCION";
+    private static final String COPY = "COPY GTW_TRANSACCION_RECURRENTE (" + COLUMNAS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT = "INSERT INTO GTW_TRANSACCION_RECURRENTE (" + COLUMNAS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Con = ANY(ARRAY(...)) el bloque se actualiza por la clave primaria; con IN PostgreSQL puede resolverlo con
+    // un hash join que recorre la tabla completa en cada bloque
+    private static final String FINALIZAR = "UPDATE GTW_TRANSACCION_RECURRENTE SET ESTADO = 'FIN', LEASE_NODO = NULL, LEASE_EXPIRA = NULL "
+            + "WHERE COD_TRANSACCION_RECURRENTE = ANY(ARRAY(SELECT COD_TRANSACCION_RECURRENTE FROM GTW_TRANSACCION_RECURRENTE "
+            + "WHERE ESTADO = 'ACT' AND FECHA_FIN < ? LIMIT ? FOR UPDATE SKIP LOCKED)) "
+            + "RETURNING COD_TRANSACCION_RECURRENTE";
+
+    private final DataSource dataSource;
+
+    public TransaccionRecurrenteRepositoryImpl(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public int copiarEnLote(List<TransaccionRecurrente> transacciones) {
+        if (transacciones.isEmpty()) {
+            return 0;
+        }
+        Connection conexion = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (conexion.isWrapperFor(PGConnection.class)) {
+                return (int) conexion.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY, new StringReader(aCsv(transacciones)));
+            }
+            return insertarPorLotes(conexion, transacciones);
+        } catch (SQLException | IOException e) {
+            throw new DataAccessResourceFailureException("Error al copiar " + transacciones.size() + " transacciones recurrentes", e);
+        } finally {
+            DataSourceUtils.releaseConnection(conexion, dataSource);
+        }
+    }
+
+    @Override
+    public List<String> finalizarVencidas(LocalDate fecha, int limite) {
+        Connection conexion = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement sentencia = conexion.prepareStatement(FINALIZAR)) {
+            sentencia.setObject(1, fecha(fecha), Types.DATE);
+            sentencia.setInt(2, limite);
+            List<String> codigos = new ArrayList<>(limite);
+            try (ResultSet resultado = sentencia.executeQuery()) {
+                while (resultado.next()) {
+                    codigos.add(resultado.getString(1));
+                }
+            }
+            return codigos;
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Error al finalizar las transacciones recurrentes vencidas al " + fecha, e);
+        } finally {
+            DataSourceUtils.releaseConnection(conexion, dataSource);
+        }
+    }
+
+    private int insertarPorLotes(Connection conexion, List<TransaccionRecurrente> transacciones) throws SQLException {
+        try (PreparedStatement sentencia = conexion.prepareStatement(INSERT)) {
+            for (TransaccionRecurrente transaccion : transacciones) {
+                sentencia.setString(1, transaccion.getCodigo());
+                sentencia.setBigDecimal(2, transaccion.getMonto());
+                sentencia.setString(3, transaccion.getMarca());
+                sentencia.setString(4, transaccion.getEstado());
+                sentencia.setObject(5, fecha(transaccion.getFechaInicio()), Types.DATE);
+                sentencia.setObject(6, fecha(transaccion.getFechaFin()), Types.DATE);
+                sentencia.setObject(7, transaccion.getDiaMesPago(), Types.INTEGER);
+                sentencia.setString(8, transaccion.getSwiftBanco());
+                sentencia.setString(9, transaccion.getCuentaIban());
+                sentencia.setString(10, transaccion.getMoneda());
+                sentencia.setString(11, transaccion.getPais());
+                sentencia.setObject(12, transaccion.getTarjeta(), Types.BIGINT);
+                sentencia.setObject(13, fecha(transaccion.getFechaCaducidad()), Types.DATE);
+                sentencia.setString(14, transaccion.getCvv());
+                sentencia.setObject(15, transaccion.getFrecuenciaDias(), Types.INTEGER);
+                sentencia.setObject(16, instante(transaccion.getProximaEjecucion()), Types.TIMESTAMP);
+                sentencia.addBatch();
+            }
+            return sentencia.executeBatch().length;
+        }
+    }
+
+    static String aCsv(List<TransaccionRecurrente> transacciones) {
+        StringBuilder csv = new StringBuilder(transacciones.size() * 192);
+        for (TransaccionRecurrente transaccion : transacciones) {
+            CamposCsv.texto(csv, transaccion.getCodigo()).append(',');
+            CamposCsv.valor(csv, transaccion.getMonto() != null ? transaccion.getMonto().toPlainString() : null).append(',');
+            CamposCsv.texto(csv, transaccion.getMarca()).append(',');
+            CamposCsv.texto(csv, transaccion.getEstado()).append(',');
+            CamposCsv.valor(csv, transaccion.getFechaInicio()).append(',');
+            CamposCsv.valor(csv, transaccion.getFechaFin()).append(',');
+            CamposCsv.valor(csv, transaccion.getDiaMesPago()).append(',');
+            CamposCsv.texto(csv, transaccion.getSwiftBanco()).append(',');
+            CamposCsv.texto(csv, transaccion.getCuentaIban()).append(',');
+            CamposCsv.texto(csv, transaccion.getMoneda()).append(',');
+            CamposCsv.texto(csv, transaccion.getPais()).append(',');
+            CamposCsv.valor(csv, transaccion.getTarjeta()).append(',');
+            CamposCsv.valor(csv, transaccion.getFechaCaducidad()).append(',');
+            CamposCsv.texto(csv, transaccion.getCvv()).append(',');
+            CamposCsv.valor(csv, transaccion.getFrecuenciaDias()).append(',');
+            CamposCsv.valor(csv, transaccion.getProximaEjecucion()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static Date fecha(LocalDate fecha) {
+        return fecha != null ? Date.valueOf(fecha) : null;
+    }
+
+    private static Timestamp instante(LocalDateTime instante) {
+        return instante != null ? Timestamp.valueOf(instante) : null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.TransaccionRecurrenteEspecificaciones;
+
+/**
+ * Posición de continuación de un listado por cursor: el valor de la clave de orden y el código de la última
+ * fila entregada. Se transporta como un token opaco en base64 que también fija el campo y la dirección, de
+ * modo que un token no se pueda reutilizar con otro orden.
+ */
+public final class CursorTransacciones {
+
+    // Solo columnas obligatorias: la comparación por tuplas no contempla valores nulos
+    private static final Map<String, Function<String, Comparable<?>>> CAMPOS_ORDEN = Map.of(
+            TransaccionRecurrenteEspecificaciones.CAMPO_CODIGO, valor -> valor,
+            "monto", BigDecimal::new,
+            "fechaInicio", LocalDate::parse,
+            "diaMesPago", Integer::valueOf);
+
+    private static final String SEPARADOR = "|";
+
+    private final String campo;
+    private final Sort.Direction direccion;
+    private final Comparable<?> valor;
+    private final String codigo;
+
+    private CursorTransacciones(String campo, Sort.Direction direccion, Comparable<?> valor, String codigo) {
+        this.campo = campo;
+        this.direccion = direccion;
+        this.valor = valor;
+        this.codigo = codigo;
+    }
+
+    public static void validarCampo(String campo) {
+        if (!CAMPOS_ORDEN.containsKey(campo)) {
+            throw new TransaccionRecurrenteInvalidaException("El listado por cursor solo se puede ordenar por " + CAMPOS_ORDEN.keySet());
+        }
+    }
+
+    public static CursorTransacciones despuesDe(TransaccionRecurrente transaccion, String campo, Sort.Direction direccion) {
+        Comparable<?> valor = switch (campo) {
+            case "monto" -> transaccion.getMonto();
+            case "fechaInicio" -> transaccion.getFechaInicio();
+            case "diaMesPago" -> transaccion.getDiaMesPago();
+            default -> transaccion.getCodigo();
+        };
+        return new CursorTransacciones(campo, direccion, valor, transaccion.getCodigo());
+    }
+
+    public static CursorTransacciones decodificar(String token, String campo, Sort.Direction direccion) {
+        String[] partes;
+        try {
+            partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\" + SEPARADOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new TransaccionRecurrenteInvalidaException("El token de página no es válido");
+        }
+        if (partes.length != 4 || !partes[0].equals(campo) || !partes[1].equals(direccion.name())) {
+            throw new TransaccionRecurrenteInvalidaException("El token de página no corresponde al orden solicitado");
+        }
+        try {
+            return new CursorTransacciones(campo, direccion, CAMPOS_ORDEN.get(campo).apply(partes[2]), partes[3]);
+        } catch (RuntimeException e) {
+            throw new TransaccionRecurrenteInvalidaException("El token de página no es válido");
+        }
+    }
+
+    public String codificar() {
+        String contenido = campo + SEPARADOR + direccion.name() + SEPARADOR + valor + SEPARADOR + codigo;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getCampo() {
+        return campo;
+    }
+
+    public Sort.Direction getDireccion() {
+        return direccion;
+    }
+
+    public Comparable<?> getValor() {
+        return valor;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+}
@@ -0,0 +1,63 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.EjecucionTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.EjecucionTransaccionRepository;
+
+@Service
+public class EjecucionTransaccionService {
+
+    static final int TAMANIO_MAXIMO_PAGINA = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(EjecucionTransaccionService.class);
+    private final EjecucionTransaccionRepository repository;
+
+    public EjecucionTransaccionService(EjecucionTransaccionRepository repository) {
+        this.repository = repository;
+    }
+
+    @Transactional
+    public int registrar(List<EjecucionTransaccion> ejecuciones) {
+        int registradas = this.repository.insertarEnLote(ejecuciones);
+        log.debug("Se registraron {} ejecuciones en el historial", registradas);
+        return registradas;
+    }
+
+    public List<EjecucionTransaccion> obtenerPorTransaccion(String codigoTransaccion, LocalDateTime desde, LocalDateTime hasta) {
+        validarRango(desde, hasta);
+        return this.repository.findByCodigoTransaccionAndFechaEjecucionBetweenOrderByFechaEjecucion(codigoTransaccion, desde, hasta);
+    }
+
+    /**
+     * Página del historial ordenada por fecha. El tamaño se limita a {@code TAMANIO_MAXIMO_PAGINA} filas.
+     */
+    public Slice<EjecucionTransaccion> obtenerPorRango(LocalDateTime desde, LocalDateTime hasta, int pagina, int tamanio) {
+        validarRango(desde, hasta);
+        if (pagina < 0) {
+            throw new TransaccionRecurrenteInvalidaException("El número de página no puede ser negativo");
+        }
+        int tamanioLimitado = Math.min(Math.max(tamanio, 1), TAMANIO_MAXIMO_PAGINA);
+        return this.repository.findByFechaEjecucionBetween(desde, hasta,
+                PageRequest.of(pagina, tamanioLimitado, Sort.by("fechaEjecucion", "id")));
+    }
+
+    private void validarRango(LocalDateTime desde, LocalDateTime hasta) {
+        if (desde == null || hasta == null) {
+            throw new TransaccionRecurrenteInvalidaException("El rango de fechas es requerido");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new TransaccionRecurrenteInvalidaException("La fecha desde no puede ser posterior a la fecha hasta");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+public interface GeneradorCodigo {
+
+    int LONGITUD = 10;
+
+    String generar();
+}
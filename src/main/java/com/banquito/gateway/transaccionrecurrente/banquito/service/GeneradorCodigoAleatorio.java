@@ -0,0 +1,11 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.util.UUID;
+
+public class GeneradorCodigoAleatorio implements GeneradorCodigo {
+
+    @Override
+    public String generar() {
+        return UUID.randomUUID().toString().substring(0, LONGITUD);
+    }
+}
@@ -0,0 +1,124 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.ReservaCodigosRepository;
+
+/**
+ * Códigos de 10 caracteres ordenados por tiempo, al estilo Snowflake, codificados en base32 de Crockford.
+ * Los 50 bits se reparten en 31 bits de segundos desde 2025-01-01 (unos 68 años), 5 bits de nodo y
+ * 14 bits de secuencia (16384 códigos por segundo y nodo). Si la secuencia de un segundo se agota o el
+ * reloj retrocede, el generador toma prestado el siguiente segundo en lugar de bloquear, de modo que
+ * los códigos de un nodo son siempre crecientes.
+ * <p>
+ * Para no repetir códigos entre reinicios, el nodo solo emite códigos de segundos que ya reservó de forma
+ * duradera, en ventanas de {@code SEGUNDOS_RESERVA} segundos, y al arrancar continúa después del último
+ * segundo reservado. Así un reinicio en el mismo segundo, tras tomar prestados segundos futuros o con el
+ * reloj atrasado no vuelve a emitir un código ya entregado.
+ * <p>
+ * La reserva se renueva por adelantado con {@link #renovarReserva()}, que llama una tarea programada fuera de
+ * cualquier petición. {@link #generar()} solo reserva por su cuenta cuando la ventana ya se agotó (la tarea
+ * se atrasó o una ráfaga tomó prestados todos los segundos reservados); esa reserva usa una conexión propia
+ * además de la que tenga la transacción que pide el código, así que el pool necesita una conexión libre de
+ * margen para ese caso.
+ */
+public class GeneradorCodigoTemporal implements GeneradorCodigo {
+
+    public static final int BITS_NODO = 5;
+    public static final int NODOS = 1 << BITS_NODO;
+
+    static final long EPOCA_SEGUNDOS = 1_735_689_600L;
+
+    private static final int BITS_SECUENCIA = 14;
+    private static final long MAXIMO_SEGUNDOS = (1L << 31) - 1;
+    static final long SEGUNDOS_RESERVA = 60;
+
+    private static final char[] ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final AtomicLong ultimo = new AtomicLong();
+    private final long nodo;
+    private final LongSupplier segundos;
+    private final ReservaCodigosRepository reserva;
+    private volatile boolean inicializado;
+    private volatile long reservado = -1;
+
+    public GeneradorCodigoTemporal(int nodo, ReservaCodigosRepository reserva) {
+        this(nodo, () -> System.currentTimeMillis() / 1000, reserva);
+    }
+
+    GeneradorCodigoTemporal(int nodo, LongSupplier segundos, ReservaCodigosRepository reserva) {
+        if (nodo < 0 || nodo >= NODOS) {
+            throw new IllegalArgumentException("El nodo del generador de códigos debe estar entre 0 y " + (NODOS - 1));
+        }
+        this.nodo = nodo;
+        this.segundos = segundos;
+        this.reserva = reserva;
+    }
+
+    @Override
+    public String generar() {
+        if (!inicializado) {
+            inicializar();
+        }
+        long transcurridos = segundos.getAsLong() - EPOCA_SEGUNDOS;
+        if (transcurridos < 0 || transcurridos > MAXIMO_SEGUNDOS) {
+            throw new IllegalStateException("El reloj está fuera del rango del generador de códigos");
+        }
+        long minimo = transcurridos << BITS_SECUENCIA;
+        long anterior;
+        long siguiente;
+        do {
+            anterior = ultimo.get();
+            siguiente = Math.max(anterior + 1, minimo);
+        } while (!ultimo.compareAndSet(anterior, siguiente));
+        // El código no se entrega hasta que su segundo esté reservado
+        if ((siguiente >>> BITS_SECUENCIA) > reservado) {
+            reservarHasta((siguiente >>> BITS_SECUENCIA) + SEGUNDOS_RESERVA);
+        }
+        return codificar(nodo, siguiente);
+    }
+
+    /**
+     * Amplía la reserva una ventana completa cuando queda menos de media por delante del segundo actual.
+     */
+    public void renovarReserva() {
+        if (!inicializado) {
+            inicializar();
+        }
+        long actual = Math.max(segundos.getAsLong() - EPOCA_SEGUNDOS, ultimo.get() >>> BITS_SECUENCIA);
+        if (reservado - actual < SEGUNDOS_RESERVA / 2) {
+            reservarHasta(actual + SEGUNDOS_RESERVA);
+        }
+    }
+
+    private synchronized void inicializar() {
+        if (inicializado) {
+            return;
+        }
+        long previo = reserva.reservar((int) nodo, -1);
+        if (previo >= 0) {
+            ultimo.accumulateAndGet(((previo + 1) << BITS_SECUENCIA) - 1, Math::max);
+            reservado = previo;
+        }
+        inicializado = true;
+    }
+
+    private synchronized void reservarHasta(long hasta) {
+        if (hasta > reservado) {
+            reservado = reserva.reservar((int) nodo, hasta);
+        }
+    }
+
+    static String codificar(long nodo, long instanteYSecuencia) {
+        long segundo = instanteYSecuencia >>> BITS_SECUENCIA;
+        long secuencia = instanteYSecuencia & ((1L << BITS_SECUENCIA) - 1);
+        long valor = (segundo << (BITS_NODO + BITS_SECUENCIA)) | (nodo << BITS_SECUENCIA) | secuencia;
+        char[] caracteres = new char[LONGITUD];
+        for (int i = LONGITUD - 1; i >= 0; i--) {
+            caracteres[i] = ALFABETO[(int) (valor & 0x1F)];
+            valor >>>= 5;
+        }
+        return new String(caracteres);
+    }
+}
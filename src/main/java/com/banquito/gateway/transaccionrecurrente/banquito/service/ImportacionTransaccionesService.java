@@ -0,0 +1,441 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.config.CacheConfig;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.TransaccionRecurrenteDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper.TransaccionRecurrenteMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ImportacionTransacciones;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.CamposCsv;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.ImportacionTransaccionesRepository;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.TransaccionRecurrenteRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Importa transacciones recurrentes desde un archivo csv con el mismo encabezado que la exportación.
+ * Un hilo lee el archivo en bloques de {@code tamanioBloque} líneas, un grupo de {@code paralelismo} hilos
+ * convierte y valida cada bloque y el mismo hilo lector carga los bloques en orden con COPY. Como mucho hay
+ * {@code bloquesEnVuelo} bloques leídos y sin cargar, así que la memoria no depende del tamaño del archivo.
+ * Cada bloque se carga en la misma transacción que actualiza el punto de control, de modo que una importación
+ * interrumpida se retoma desde el último bloque confirmado sin duplicar ni perder filas.
+ */
+@Service
+public class ImportacionTransaccionesService {
+
+    public static final String ESTADO_EN_PROCESO = "PRO";
+    public static final String ESTADO_FINALIZADA = "FIN";
+    public static final String ESTADO_ERROR = "ERR";
+
+    public static final String SUFIJO_RECHAZOS = ".rechazos.csv";
+    static final String ENCABEZADO_RECHAZOS = "linea,motivo,registro\n";
+
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+    private static final int LONGITUD_MAXIMA_LINEA = 64 * 1024;
+    private static final int LONGITUD_MENSAJE = 200;
+    private static final Set<String> COLUMNAS = Set.of("codigo", "monto", "marca", "estado", "fechaInicio", "fechaFin",
+            "diaMesPago", "swiftBanco", "cuentaIban", "moneda", "pais", "tarjeta", "fechaCaducidad", "cvv", "frecuenciaDias");
+
+    private final Logger log = LoggerFactory.getLogger(ImportacionTransaccionesService.class);
+    private final TransaccionRecurrenteService transaccionService;
+    private final TransaccionRecurrenteRepository transaccionRepository;
+    private final ImportacionTransaccionesRepository importacionRepository;
+    private final ApplicationEventPublisher eventos;
+    private final TransaccionRecurrenteMapper mapper;
+    private final Validator validator;
+    private final TransactionTemplate transacciones;
+    private final CacheManager cacheManager;
+    private final Path directorio;
+    private final int tamanioBloque;
+    private final int bloquesEnVuelo;
+    private final ExecutorService lectura = Executors.newSingleThreadExecutor();
+    private final ExecutorService conversion;
+    private final Set<String> enCurso = ConcurrentHashMap.newKeySet();
+
+    public ImportacionTransaccionesService(TransaccionRecurrenteService transaccionService,
+            TransaccionRecurrenteRepository transaccionRepository, ImportacionTransaccionesRepository importacionRepository,
+            ApplicationEventPublisher eventos, TransaccionRecurrenteMapper mapper, Validator validator,
+            PlatformTransactionManager transactionManager, CacheManager cacheManager,
+            @Value("${transaccion.recurrente.importacion.directorio:importaciones}") String directorio,
+            @Value("${transaccion.recurrente.importacion.tamanio-bloque:5000}") int tamanioBloque,
+            @Value("${transaccion.recurrente.importacion.paralelismo:4}") int paralelismo,
+            @Value("${transaccion.recurrente.importacion.bloques-en-vuelo:4}") int bloquesEnVuelo) {
+        this.transaccionService = transaccionService;
+        this.transaccionRepository = transaccionRepository;
+        this.importacionRepository = importacionRepository;
+        this.eventos = eventos;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.transacciones = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.directorio = Paths.get(directorio).toAbsolutePath().normalize();
+        this.tamanioBloque = tamanioBloque;
+        this.bloquesEnVuelo = bloquesEnVuelo;
+        this.conversion = Executors.newFixedThreadPool(paralelismo);
+    }
+
+    /**
+     * Inicia o retoma en segundo plano la importación de un archivo del directorio de importaciones y
+     * devuelve su punto de control. Un archivo ya importado por completo no se vuelve a importar.
+     */
+    public ImportacionTransacciones iniciar(String archivo) {
+        Path ruta = resolver(archivo);
+        String nombre = this.directorio.relativize(ruta).toString();
+        long tamanio;
+        try {
+            tamanio = Files.size(ruta);
+        } catch (IOException e) {
+            throw new TransaccionRecurrenteInvalidaException("No se puede leer el archivo " + nombre);
+        }
+        if (!this.enCurso.add(nombre)) {
+            throw new TransaccionRecurrenteInvalidaException("La importación del archivo " + nombre + " ya está en curso");
+        }
+        try {
+            ImportacionTransacciones importacion = this.transacciones.execute(estado -> prepararPuntoControl(nombre, tamanio));
+            // El hilo lector trabaja sobre su propia copia del punto de control, no sobre la que se devuelve
+            Long id = importacion.getId();
+            this.lectura.execute(() -> {
+                try {
+                    ejecutar(ruta, this.importacionRepository.findById(id).orElseThrow());
+                } finally {
+                    this.enCurso.remove(nombre);
+                }
+            });
+            return importacion;
+        } catch (RuntimeException e) {
+            this.enCurso.remove(nombre);
+            throw e;
+        }
+    }
+
+    public Optional<ImportacionTransacciones> obtenerPorId(Long id) {
+        return this.importacionRepository.findById(id);
+    }
+
+    @PreDestroy
+    public void detener() {
+        this.lectura.shutdownNow();
+        this.conversion.shutdownNow();
+    }
+
+    ImportacionTransacciones ejecutar(Path ruta, ImportacionTransacciones importacion) {
+        Path rutaRechazos = ruta.resolveSibling(ruta.getFileName() + SUFIJO_RECHAZOS);
+        Deque<Future<Bloque>> pendientes = new ArrayDeque<>();
+        log.info("Importando transacciones recurrentes desde {} a partir del byte {}", ruta, importacion.getPosicion());
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ);
+                FileChannel canalRechazos = FileChannel.open(rutaRechazos, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Lo escrito en rechazos después del último punto de control se vuelve a escribir al retomar
+            canalRechazos.truncate(importacion.getPosicionRechazos()).position(importacion.getPosicionRechazos());
+            Writer rechazos = new BufferedWriter(
+                    new OutputStreamWriter(Channels.newOutputStream(canalRechazos), StandardCharsets.UTF_8), TAMANIO_BUFFER);
+            if (importacion.getPosicionRechazos() == 0) {
+                rechazos.write(ENCABEZADO_RECHAZOS);
+            }
+
+            LectorLineas lector = new LectorLineas(canal, 0, TAMANIO_BUFFER, LONGITUD_MAXIMA_LINEA);
+            String[] columnas = columnas(lector.siguiente());
+            if (importacion.getPosicion() > lector.posicion()) {
+                lector = new LectorLineas(canal, importacion.getPosicion(), TAMANIO_BUFFER, LONGITUD_MAXIMA_LINEA);
+            }
+
+            // Las líneas se numeran como en un editor: el encabezado es la línea 1
+            long numeroLinea = importacion.getLineas() + 2;
+            List<String> lineas = new ArrayList<>(tamanioBloque);
+            String linea;
+            while ((linea = lector.siguiente()) != null) {
+                lineas.add(linea);
+                if (lineas.size() == tamanioBloque) {
+                    enviar(pendientes, lineas, numeroLinea, lector.posicion(), columnas);
+                    numeroLinea += lineas.size();
+                    lineas = new ArrayList<>(tamanioBloque);
+                    if (pendientes.size() >= bloquesEnVuelo) {
+                        cargar(pendientes.poll().get(), importacion, rechazos, canalRechazos);
+                    }
+                }
+            }
+            if (!lineas.isEmpty()) {
+                enviar(pendientes, lineas, numeroLinea, lector.posicion(), columnas);
+            }
+            while (!pendientes.isEmpty()) {
+                cargar(pendientes.poll().get(), importacion, rechazos, canalRechazos);
+            }
+
+            rechazos.flush();
+            importacion.setPosicionRechazos(canalRechazos.position());
+            importacion.setEstado(ESTADO_FINALIZADA);
+            importacion.setFechaActualizacion(LocalDateTime.now());
+            this.transacciones.executeWithoutResult(estado -> this.importacionRepository.save(importacion));
+            log.info("Importación de {} finalizada: {} líneas, {} transacciones cargadas, {} rechazadas", ruta,
+                    importacion.getLineas(), importacion.getCargadas(), importacion.getRechazadas());
+            return importacion;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallar(importacion, pendientes, "La importación se interrumpió", e);
+        } catch (ExecutionException e) {
+            return fallar(importacion, pendientes, e.getCause().getMessage(), e.getCause());
+        } catch (IOException | RuntimeException e) {
+            return fallar(importacion, pendientes, e.getMessage(), e);
+        }
+    }
+
+    private ImportacionTransacciones prepararPuntoControl(String nombre, long tamanio) {
+        LocalDateTime ahora = LocalDateTime.now();
+        ImportacionTransacciones importacion = this.importacionRepository.findByArchivo(nombre).orElse(null);
+        if (importacion == null) {
+            importacion = new ImportacionTransacciones();
+            importacion.setArchivo(nombre);
+            importacion.setTamanioArchivo(tamanio);
+            importacion.setPosicion(0L);
+            importacion.setPosicionRechazos(0L);
+            importacion.setLineas(0L);
+            importacion.setCargadas(0L);
+            importacion.setRechazadas(0L);
+            importacion.setFechaInicio(ahora);
+        } else if (ESTADO_FINALIZADA.equals(importacion.getEstado())) {
+            throw new TransaccionRecurrenteInvalidaException("El archivo " + nombre + " ya fue importado");
+        } else if (importacion.getTamanioArchivo() != tamanio) {
+            // Los puntos de control son posiciones en bytes: solo valen para el mismo archivo
+            throw new TransaccionRecurrenteInvalidaException("El archivo " + nombre + " cambió desde la importación anterior");
+        } else {
+            log.info("Retomando la importación de {} desde el byte {} de {}", nombre, importacion.getPosicion(), tamanio);
+        }
+        importacion.setEstado(ESTADO_EN_PROCESO);
+        importacion.setMensaje(null);
+        importacion.setFechaActualizacion(ahora);
+        return this.importacionRepository.save(importacion);
+    }
+
+    private Path resolver(String archivo) {
+        if (archivo == null || archivo.isBlank()) {
+            throw new TransaccionRecurrenteInvalidaException("El nombre del archivo es requerido");
+        }
+        Path ruta = this.directorio.resolve(archivo).normalize();
+        if (!ruta.startsWith(this.directorio) || ruta.equals(this.directorio)) {
+            throw new TransaccionRecurrenteInvalidaException("El archivo debe estar dentro del directorio de importaciones");
+        }
+        if (ruta.getFileName().toString().endsWith(SUFIJO_RECHAZOS) || !Files.isRegularFile(ruta)) {
+            throw new TransaccionRecurrenteInvalidaException("No existe el archivo " + archivo + " en el directorio de importaciones");
+        }
+        return ruta;
+    }
+
+    private void enviar(Deque<Future<Bloque>> pendientes, List<String> lineas, long primeraLinea, long posicion, String[] columnas) {
+        pendientes.add(this.conversion.submit(() -> convertir(lineas, primeraLinea, posicion, columnas)));
+    }
+
+    private Bloque convertir(List<String> lineas, long primeraLinea, long posicion, String[] columnas) {
+        Bloque bloque = new Bloque(lineas.size(), posicion);
+        StringBuilder rechazo = new StringBuilder();
+        for (int i = 0; i < lineas.size(); i++) {
+            String linea = lineas.get(i);
+            if (linea.isBlank()) {
+                continue;
+            }
+            try {
+                bloque.validas.add(this.transaccionService.prepararNueva(convertir(linea, columnas)));
+            } catch (TransaccionRecurrenteInvalidaException e) {
+                rechazo.append(primeraLinea + i).append(',');
+                CamposCsv.texto(rechazo, e.getMessage()).append(',');
+                CamposCsv.texto(rechazo, linea).append('\n');
+                bloque.rechazadas++;
+            }
+        }
+        bloque.rechazos = rechazo.toString();
+        return bloque;
+    }
+
+    private TransaccionRecurrente convertir(String linea, String[] columnas) {
+        List<String> campos = campos(linea);
+        if (campos.size() != columnas.length) {
+            throw new TransaccionRecurrenteInvalidaException(
+                    "La línea tiene " + campos.size() + " campos y el encabezado " + columnas.length);
+        }
+        TransaccionRecurrenteDTO dto = new TransaccionRecurrenteDTO();
+        for (int i = 0; i < columnas.length; i++) {
+            String valor = campos.get(i).isEmpty() ? null : campos.get(i);
+            try {
+                asignar(dto, columnas[i], valor);
+            } catch (RuntimeException e) {
+                throw new TransaccionRecurrenteInvalidaException("Valor inválido en la columna " + columnas[i]);
+            }
+        }
+        Set<ConstraintViolation<TransaccionRecurrenteDTO>> violaciones = this.validator.validate(dto);
+        if (!violaciones.isEmpty()) {
+            throw new TransaccionRecurrenteInvalidaException(violaciones.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return this.mapper.toModel(dto);
+    }
+
+    private static void asignar(TransaccionRecurrenteDTO dto, String columna, String valor) {
+        switch (columna) {
+            case "monto" -> dto.setMonto(valor != null ? new BigDecimal(valor) : null);
+            case "marca" -> dto.setMarca(valor);
+            case "fechaInicio" -> dto.setFechaInicio(valor != null ? LocalDate.parse(valor) : null);
+            case "fechaFin" -> dto.setFechaFin(valor != null ? LocalDate.parse(valor) : null);
+            case "diaMesPago" -> dto.setDiaMesPago(valor != null ? Integer.valueOf(valor) : null);
+            case "swiftBanco" -> dto.setSwiftBanco(valor);
+            case "cuentaIban" -> dto.setCuentaIban(valor);
+            case "moneda" -> dto.setMoneda(valor);
+            case "pais" -> dto.setPais(valor);
+            case "tarjeta" -> dto.setTarjeta(valor != null ? Long.valueOf(valor) : null);
+            case "fechaCaducidad" -> dto.setFechaCaducidad(valor != null ? LocalDate.parse(valor) : null);
+            case "cvv" -> dto.setCvv(valor);
+            case "frecuenciaDias" -> dto.setFrecuenciaDias(valor != null ? Integer.valueOf(valor) : null);
+            default -> {
+                // El código y el estado se asignan al crear la transacción, como en el alta individual
+            }
+        }
+    }
+
+    private void cargar(Bloque bloque, ImportacionTransacciones importacion, Writer rechazos, FileChannel canalRechazos)
+            throws IOException {
+        // Los rechazos quedan en disco antes de confirmar el punto de control que los cuenta
+        rechazos.write(bloque.rechazos);
+        rechazos.flush();
+        canalRechazos.force(false);
+        importacion.setPosicion(bloque.posicion);
+        importacion.setPosicionRechazos(canalRechazos.position());
+        importacion.setLineas(importacion.getLineas() + bloque.lineas);
+        importacion.setCargadas(importacion.getCargadas() + bloque.validas.size());
+        importacion.setRechazadas(importacion.getRechazadas() + bloque.rechazadas);
+        importacion.setFechaActualizacion(LocalDateTime.now());
+        this.transacciones.executeWithoutResult(estado -> {
+            this.transaccionRepository.copiarEnLote(bloque.validas);
+            this.importacionRepository.save(importacion);
+        });
+
+        Cache cache = this.cacheManager.getCache(CacheConfig.CACHE_POR_CUENTA);
+        if (cache != null) {
+            bloque.validas.stream()
+                    .map(TransaccionRecurrente::getCuentaIban)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .forEach(cache::evict);
+        }
+        if (!bloque.validas.isEmpty()) {
+            this.eventos.publishEvent(new TransaccionesActivadasEvent(bloque.validas, LocalDateTime.now()));
+        }
+        log.info("Importación de {}: {}% ({} líneas, {} cargadas, {} rechazadas)", importacion.getArchivo(),
+                importacion.getTamanioArchivo() > 0 ? importacion.getPosicion() * 100 / importacion.getTamanioArchivo() : 100,
+                importacion.getLineas(), importacion.getCargadas(), importacion.getRechazadas());
+    }
+
+    private ImportacionTransacciones fallar(ImportacionTransacciones importacion, Deque<Future<Bloque>> pendientes,
+            String mensaje, Throwable causa) {
+        log.error("Error en la importación de {}, se podrá retomar desde el byte {}", importacion.getArchivo(),
+                importacion.getPosicion(), causa);
+        pendientes.forEach(pendiente -> pendiente.cancel(true));
+        // El punto de control en memoria puede ir por delante del confirmado si falló la carga de un bloque
+        ImportacionTransacciones confirmada = this.importacionRepository.findById(importacion.getId()).orElse(importacion);
+        confirmada.setEstado(ESTADO_ERROR);
+        String texto = mensaje != null ? mensaje : causa.getClass().getSimpleName();
+        confirmada.setMensaje(texto.length() > LONGITUD_MENSAJE ? texto.substring(0, LONGITUD_MENSAJE) : texto);
+        confirmada.setFechaActualizacion(LocalDateTime.now());
+        return this.transacciones.execute(estado -> this.importacionRepository.save(confirmada));
+    }
+
+    static String[] columnas(String encabezado) {
+        if (encabezado == null) {
+            throw new TransaccionRecurrenteInvalidaException("El archivo de importación está vacío");
+        }
+        // Un BOM al inicio del archivo no forma parte del primer nombre de columna
+        List<String> nombres = campos(encabezado.startsWith("\uFEFF") ? encabezado.substring(1) : encabezado);
+        for (String nombre : nombres) {
+            if (!COLUMNAS.contains(nombre)) {
+                throw new TransaccionRecurrenteInvalidaException("Columna desconocida en el encabezado: " + nombre);
+            }
+        }
+        if (nombres.stream().distinct().count() != nombres.size()) {
+            throw new TransaccionRecurrenteInvalidaException("El encabezado tiene columnas repetidas");
+        }
+        return nombres.toArray(new String[0]);
+    }
+
+    static List<String> campos(String linea) {
+        List<String> campos = new ArrayList<>(COLUMNAS.size());
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char actual = linea.charAt(i);
+            if (entreComillas) {
+                if (actual != '"') {
+                    campo.append(actual);
+                } else if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (actual == '"') {
+                entreComillas = true;
+            } else if (actual == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(actual);
+            }
+        }
+        if (entreComillas) {
+            throw new TransaccionRecurrenteInvalidaException("Hay comillas sin cerrar en la línea");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private static final class Bloque {
+
+        private final List<TransaccionRecurrente> validas = new ArrayList<>();
+        private final int lineas;
+        private final long posicion;
+        private int rechazadas;
+        private String rechazos;
+
+        private Bloque(int lineas, long posicion) {
+            this.lineas = lineas;
+            this.posicion = posicion;
+        }
+    }
+}
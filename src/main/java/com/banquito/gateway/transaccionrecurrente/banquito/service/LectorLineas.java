@@ -0,0 +1,75 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lee un archivo de texto UTF-8 línea a línea sobre un {@link FileChannel} con un buffer fijo y lleva la
+ * posición en bytes del final de la última línea entregada, que es la que se guarda como punto de control
+ * para retomar la lectura. La memoria usada no depende del tamaño del archivo, solo del de la línea más larga,
+ * que está acotada por {@code longitudMaxima}.
+ */
+public class LectorLineas {
+
+    private static final byte FIN_LINEA = '\n';
+    private static final byte RETORNO = '\r';
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private final int longitudMaxima;
+    private byte[] linea = new byte[256];
+    private long posicion;
+
+    public LectorLineas(FileChannel canal, long posicion, int tamanioBuffer, int longitudMaxima) throws IOException {
+        this.canal = canal.position(posicion);
+        this.buffer = ByteBuffer.allocate(tamanioBuffer).flip();
+        this.longitudMaxima = longitudMaxima;
+        this.posicion = posicion;
+    }
+
+    /**
+     * Devuelve la siguiente línea sin el terminador ({@code \n} o {@code \r\n}) o {@code null} al final del
+     * archivo. La última línea se entrega aunque no termine en salto de línea.
+     */
+    public String siguiente() throws IOException {
+        int longitud = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int leidos = canal.read(buffer);
+                buffer.flip();
+                if (leidos < 0) {
+                    return longitud == 0 ? null : decodificar(longitud);
+                }
+            }
+            while (buffer.hasRemaining()) {
+                byte actual = buffer.get();
+                posicion++;
+                if (actual == FIN_LINEA) {
+                    return decodificar(longitud);
+                }
+                if (longitud == linea.length) {
+                    if (longitud >= longitudMaxima) {
+                        throw new IOException("La línea en el byte " + posicion + " supera la longitud máxima de " + longitudMaxima + " bytes");
+                    }
+                    linea = Arrays.copyOf(linea, Math.min(longitud * 2, longitudMaxima));
+                }
+                linea[longitud++] = actual;
+            }
+        }
+    }
+
+    public long posicion() {
+        return posicion;
+    }
+
+    private String decodificar(int longitud) {
+        if (longitud > 0 && linea[longitud - 1] == RETORNO) {
+            longitud--;
+        }
+        return new String(linea, 0, longitud, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,127 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.config.CacheConfig;
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+@Service
+public class LoteTransaccionesService {
+
+    private final Logger log = LoggerFactory.getLogger(LoteTransaccionesService.class);
+    private final TransaccionRecurrenteService transaccionService;
+    private final ApplicationEventPublisher eventos;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transacciones;
+    private final CacheManager cacheManager;
+    private final int tamanioMaximo;
+    private final int tamanioBloque;
+    private final int tamanioBatch;
+
+    public LoteTransaccionesService(TransaccionRecurrenteService transaccionService, ApplicationEventPublisher eventos,
+            EntityManager entityManager, PlatformTransactionManager transactionManager, CacheManager cacheManager,
+            @Value("${transaccion.recurrente.lotes.tamanio-maximo:10000}") int tamanioMaximo,
+            @Value("${transaccion.recurrente.lotes.tamanio-bloque:1000}") int tamanioBloque,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int tamanioBatch) {
+        this.transaccionService = transaccionService;
+        this.eventos = eventos;
+        this.entityManager = entityManager;
+        this.transacciones = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.tamanioMaximo = tamanioMaximo;
+        this.tamanioBloque = tamanioBloque;
+        this.tamanioBatch = tamanioBatch;
+    }
+
+    public void validarTamanio(int tamanio) {
+        if (tamanio < 1 || tamanio > tamanioMaximo) {
+            throw new TransaccionRecurrenteInvalidaException("El lote debe tener entre 1 y " + tamanioMaximo + " transacciones");
+        }
+    }
+
+    /**
+     * Crea las transacciones en bloques de {@code tamanioBloque}, cada uno en su propia transacción.
+     * Devuelve, en el mismo orden de entrada, el motivo de rechazo de cada transacción o {@code null}
+     * si se creó; las creadas quedan con su código asignado.
+     */
+    public List<String> crear(List<TransaccionRecurrente> lote) {
+        validarTamanio(lote.size());
+        String[] errores = new String[lote.size()];
+        List<Integer> pendientes = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            try {
+                this.transaccionService.prepararNueva(lote.get(i));
+                pendientes.add(i);
+            } catch (TransaccionRecurrenteInvalidaException e) {
+                errores[i] = e.getMessage();
+            }
+        }
+
+        int creadas = 0;
+        for (int desde = 0; desde < pendientes.size(); desde += tamanioBloque) {
+            List<Integer> indices = pendientes.subList(desde, Math.min(desde + tamanioBloque, pendientes.size()));
+            List<TransaccionRecurrente> bloque = new ArrayList<>(indices.size());
+            indices.forEach(indice -> bloque.add(lote.get(indice)));
+            try {
+                this.transacciones.executeWithoutResult(estado -> insertar(bloque));
+                descartarCuentasDeCache(bloque);
+                this.eventos.publishEvent(new TransaccionesActivadasEvent(bloque, LocalDateTime.now()));
+                creadas += bloque.size();
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                // El bloque completo se revierte, sus transacciones se informan como rechazadas
+                log.error("Error al insertar un bloque de {} transacciones recurrentes", bloque.size(), e);
+                for (Integer indice : indices) {
+                    lote.get(indice).setCodigo(null);
+                    errores[indice] = "No se pudo guardar el bloque de transacciones que incluía esta transacción";
+                }
+            }
+        }
+        log.info("Lote de {} transacciones recurrentes: {} creadas, {} rechazadas", lote.size(), creadas, lote.size() - creadas);
+        return Arrays.asList(errores);
+    }
+
+    private void insertar(List<TransaccionRecurrente> bloque) {
+        // persist en lugar de save: con el código asignado save haría un merge con un SELECT por fila
+        for (int i = 0; i < bloque.size(); i++) {
+            this.entityManager.persist(bloque.get(i));
+            if ((i + 1) % tamanioBatch == 0) {
+                this.entityManager.flush();
+                this.entityManager.clear();
+            }
+        }
+        this.entityManager.flush();
+        this.entityManager.clear();
+    }
+
+    private void descartarCuentasDeCache(List<TransaccionRecurrente> bloque) {
+        // Tras el commit: descartar antes dejaría que una lectura concurrente volviera a cachear la cuenta sin el bloque
+        Cache cache = this.cacheManager.getCache(CacheConfig.CACHE_POR_CUENTA);
+        if (cache != null) {
+            bloque.stream()
+                    .map(TransaccionRecurrente::getCuentaIban)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .forEach(cache::evict);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PoliticaReintento {
+
+    private final int maximoReintentos;
+    private final long esperaBaseMilis;
+    private final double multiplicador;
+    private final long esperaMaximaMilis;
+    private final double jitter;
+
+    public PoliticaReintento(
+            @Value("${transaccion.recurrente.reintentos.maximo:3}") int maximoReintentos,
+            @Value("${transaccion.recurrente.reintentos.espera-base-segundos:60}") long esperaBaseSegundos,
+            @Value("${transaccion.recurrente.reintentos.multiplicador:2.0}") double multiplicador,
+            @Value("${transaccion.recurrente.reintentos.espera-maxima-segundos:3600}") long esperaMaximaSegundos,
+            @Value("${transaccion.recurrente.reintentos.jitter:0.5}") double jitter) {
+        if (multiplicador < 1.0) {
+            throw new IllegalArgumentException("El multiplicador de reintentos debe ser mayor o igual a 1");
+        }
+        if (jitter < 0.0 || jitter > 1.0) {
+            throw new IllegalArgumentException("El jitter de reintentos debe estar entre 0 y 1");
+        }
+        this.maximoReintentos = maximoReintentos;
+        this.esperaBaseMilis = esperaBaseSegundos * 1000;
+        this.multiplicador = multiplicador;
+        this.esperaMaximaMilis = esperaMaximaSegundos * 1000;
+        this.jitter = jitter;
+    }
+
+    public boolean permiteReintento(int intento) {
+        return intento <= maximoReintentos;
+    }
+
+    public Duration calcularEspera(int intento) {
+        double exponencial = esperaBaseMilis * Math.pow(multiplicador, Math.max(intento - 1, 0));
+        double acotada = Math.min(exponencial, esperaMaximaMilis);
+        // Se resta una fracción aleatoria para que los rechazos simultáneos no reintenten en el mismo instante
+        double conJitter = acotada * (1.0 - jitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(Math.round(conJitter));
+    }
+
+    public int getMaximoReintentos() {
+        return maximoReintentos;
+    }
+}
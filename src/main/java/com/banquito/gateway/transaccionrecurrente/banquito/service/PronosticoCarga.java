@@ -0,0 +1,169 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Histogramas de ejecuciones y montos proyectados para un horizonte de días, por minuto y, desglosados por
+ * moneda y por banco, por día. Los montos se acumulan en centavos.
+ * <p>
+ * Las ejecuciones de una transacción forman una progresión aritmética de minutos. Las progresiones cortas se
+ * recorren directamente. Las largas suman su alta y su baja en un arreglo de diferencias propio de su paso y, al
+ * cerrar el pronóstico, una suma acumulada con ese mismo paso reconstruye las ejecuciones de cada minuto; así el
+ * costo de una transacción frecuente depende de los días del horizonte y no de cuántas veces se ejecute. Cada
+ * arreglo ocupa dos {@code long} por minuto del horizonte, por eso solo se crean hasta
+ * {@value #MAXIMO_PASOS_CON_DIFERENCIAS}; las progresiones de otros pasos se recorren.
+ */
+public final class PronosticoCarga {
+
+    public static final int MINUTOS_DIA = 24 * 60;
+
+    private static final int CANTIDAD = 0;
+    private static final int CENTAVOS = 1;
+    private static final String DESCONOCIDO = "desconocido";
+    private static final int EJECUCIONES_RECORRIDO_DIRECTO = 64;
+    static final int MAXIMO_PASOS_CON_DIFERENCIAS = 16;
+
+    private final LocalDateTime desde;
+    private final int dias;
+    private final int minutos;
+    private final long[][] porMinuto;
+    private final Map<Integer, long[][]> diferenciasPorPaso = new HashMap<>();
+    private final Map<String, long[][]> porMoneda = new TreeMap<>();
+    private final Map<String, long[][]> porBanco = new TreeMap<>();
+    private boolean cerrado;
+
+    public PronosticoCarga(LocalDateTime desde, int dias) {
+        this.desde = desde;
+        this.dias = dias;
+        this.minutos = dias * MINUTOS_DIA;
+        this.porMinuto = new long[2][minutos];
+    }
+
+    /**
+     * Suma una transacción que se ejecuta en los minutos {@code primera}, {@code primera + paso}, ... anteriores
+     * a {@code limite}, contados desde el inicio del horizonte.
+     */
+    public void agregar(int primera, int paso, int limite, long centavos, String moneda, String banco) {
+        if (cerrado) {
+            throw new IllegalStateException("El pronóstico ya está cerrado");
+        }
+        int hasta = Math.min(limite, minutos);
+        if (primera < 0 || primera >= hasta) {
+            return;
+        }
+        long[][] enMoneda = desglose(porMoneda, moneda);
+        long[][] enBanco = desglose(porBanco, banco);
+        int ejecuciones = ocurrencias(primera, paso, primera, hasta);
+        long[][] diferencias = ejecuciones > EJECUCIONES_RECORRIDO_DIRECTO ? diferencias(paso) : null;
+        if (diferencias == null) {
+            int minuto = primera;
+            for (int i = 0; i < ejecuciones; i++, minuto += paso) {
+                porMinuto[CANTIDAD][minuto]++;
+                porMinuto[CENTAVOS][minuto] += centavos;
+                sumar(enMoneda, minuto / MINUTOS_DIA, 1, centavos);
+                sumar(enBanco, minuto / MINUTOS_DIA, 1, centavos);
+            }
+            return;
+        }
+        diferencias[CANTIDAD][primera]++;
+        diferencias[CENTAVOS][primera] += centavos;
+        long siguienteALaUltima = primera + (long) ejecuciones * paso;
+        if (siguienteALaUltima < minutos) {
+            diferencias[CANTIDAD][(int) siguienteALaUltima]--;
+            diferencias[CENTAVOS][(int) siguienteALaUltima] -= centavos;
+        }
+        for (int dia = primera / MINUTOS_DIA; dia <= (hasta - 1) / MINUTOS_DIA; dia++) {
+            int enElDia = ocurrencias(primera, paso, Math.max(dia * MINUTOS_DIA, primera), Math.min((dia + 1) * MINUTOS_DIA, hasta));
+            sumar(enMoneda, dia, enElDia, centavos);
+            sumar(enBanco, dia, enElDia, centavos);
+        }
+    }
+
+    /**
+     * Resuelve los arreglos de diferencias en el histograma por minuto. Después de cerrar ya no se pueden
+     * agregar transacciones.
+     */
+    public PronosticoCarga cerrar() {
+        if (cerrado) {
+            return this;
+        }
+        for (Map.Entry<Integer, long[][]> entrada : diferenciasPorPaso.entrySet()) {
+            int paso = entrada.getKey();
+            long[][] diferencias = entrada.getValue();
+            for (int i = 0; i < minutos; i++) {
+                if (i >= paso) {
+                    diferencias[CANTIDAD][i] += diferencias[CANTIDAD][i - paso];
+                    diferencias[CENTAVOS][i] += diferencias[CENTAVOS][i - paso];
+                }
+                porMinuto[CANTIDAD][i] += diferencias[CANTIDAD][i];
+                porMinuto[CENTAVOS][i] += diferencias[CENTAVOS][i];
+            }
+        }
+        diferenciasPorPaso.clear();
+        cerrado = true;
+        return this;
+    }
+
+    public LocalDateTime getDesde() {
+        return desde;
+    }
+
+    public int getDias() {
+        return dias;
+    }
+
+    public int getMinutos() {
+        return minutos;
+    }
+
+    public long cantidadEnMinuto(int minuto) {
+        return porMinuto[CANTIDAD][minuto];
+    }
+
+    public long centavosEnMinuto(int minuto) {
+        return porMinuto[CENTAVOS][minuto];
+    }
+
+    /** Desglose diario por moneda: para cada moneda, {cantidades por día, centavos por día}. */
+    public Map<String, long[][]> getPorMoneda() {
+        return Collections.unmodifiableMap(porMoneda);
+    }
+
+    /** Desglose diario por SWIFT del banco: para cada banco, {cantidades por día, centavos por día}. */
+    public Map<String, long[][]> getPorBanco() {
+        return Collections.unmodifiableMap(porBanco);
+    }
+
+    int pasosConDiferencias() {
+        return diferenciasPorPaso.size();
+    }
+
+    static int ocurrencias(int primera, int paso, int desde, int hasta) {
+        if (hasta <= desde) {
+            return 0;
+        }
+        return Math.ceilDiv(hasta - primera, paso) - Math.ceilDiv(desde - primera, paso);
+    }
+
+    private static void sumar(long[][] desglose, int dia, int ejecuciones, long centavos) {
+        desglose[CANTIDAD][dia] += ejecuciones;
+        desglose[CENTAVOS][dia] += ejecuciones * centavos;
+    }
+
+    private long[][] diferencias(int paso) {
+        long[][] diferencias = diferenciasPorPaso.get(paso);
+        if (diferencias == null && diferenciasPorPaso.size() < MAXIMO_PASOS_CON_DIFERENCIAS) {
+            diferencias = new long[2][minutos];
+            diferenciasPorPaso.put(paso, diferencias);
+        }
+        return diferencias;
+    }
+
+    private long[][] desglose(Map<String, long[][]> desgloses, String clave) {
+        return desgloses.computeIfAbsent(clave == null || clave.isBlank() ? DESCONOCIDO : clave, c -> new long[2][dias]);
+    }
+}
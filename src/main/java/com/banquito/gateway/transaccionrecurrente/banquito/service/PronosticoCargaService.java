@@ -0,0 +1,125 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.CargaTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.TransaccionRecurrenteRepository;
+
+/**
+ * Proyecta las ejecuciones de las transacciones activas en los próximos días con una sola lectura de la base.
+ * En modo prueba cada transacción se ejecuta cada {@code frecuenciaDias} minutos desde su próxima ejecución,
+ * como lo hace el planificador; fuera de él se ejecuta una vez al mes en su día de pago, o el último día del
+ * mes si este es más corto. En ambos casos solo dentro del rango entre la fecha de inicio y la fecha fin.
+ */
+@Service
+public class PronosticoCargaService {
+
+    public static final int DIAS_MAXIMOS = 31;
+
+    private final Logger log = LoggerFactory.getLogger(PronosticoCargaService.class);
+    private final TransaccionRecurrenteRepository repository;
+    private final boolean modoPrueba;
+
+    public PronosticoCargaService(TransaccionRecurrenteRepository repository,
+            @Value("${transaccion.recurrente.modo.prueba:true}") boolean modoPrueba) {
+        this.repository = repository;
+        this.modoPrueba = modoPrueba;
+    }
+
+    @Transactional(readOnly = true)
+    public PronosticoCarga pronosticar(int dias) {
+        return pronosticar(dias, LocalDateTime.now());
+    }
+
+    PronosticoCarga pronosticar(int dias, LocalDateTime ahora) {
+        if (dias < 1 || dias > DIAS_MAXIMOS) {
+            throw new TransaccionRecurrenteInvalidaException("El pronóstico debe cubrir entre 1 y " + DIAS_MAXIMOS + " días");
+        }
+        log.info("Pronosticando la carga de los próximos {} días en modo {}", dias, modoPrueba ? "prueba" : "mensual");
+        // El horizonte empieza a medianoche para que los histogramas diarios coincidan con días de calendario
+        PronosticoCarga pronostico = new PronosticoCarga(ahora.toLocalDate().atStartOfDay(), dias);
+        int leidas = 0;
+        try (Stream<CargaTransaccion> transacciones = this.repository.streamCargaByEstado("ACT")) {
+            for (CargaTransaccion transaccion : (Iterable<CargaTransaccion>) transacciones::iterator) {
+                if (modoPrueba) {
+                    agregarPorFrecuencia(pronostico, transaccion, ahora);
+                } else {
+                    agregarMensual(pronostico, transaccion);
+                }
+                leidas++;
+            }
+        }
+        log.info("Pronóstico calculado sobre {} transacciones activas", leidas);
+        return pronostico.cerrar();
+    }
+
+    private static void agregarPorFrecuencia(PronosticoCarga pronostico, CargaTransaccion transaccion, LocalDateTime ahora) {
+        int frecuencia = TransaccionRecurrenteService.frecuenciaMinutos(transaccion.getFrecuenciaDias());
+        LocalDateTime proxima = transaccion.getProximaEjecucion() != null
+                ? transaccion.getProximaEjecucion()
+                : ahora.plusMinutes(frecuencia);
+        // Una ejecución vencida sale en el siguiente tick del planificador
+        int primera = minuto(pronostico, proxima.isBefore(ahora) ? ahora : proxima);
+        if (transaccion.getFechaInicio() != null) {
+            int inicio = minuto(pronostico, transaccion.getFechaInicio().atStartOfDay());
+            if (inicio > primera) {
+                primera += Math.ceilDiv(inicio - primera, frecuencia) * frecuencia;
+            }
+        }
+        pronostico.agregar(primera, frecuencia, limite(pronostico, transaccion.getFechaFin()), centavos(transaccion.getMonto()),
+                transaccion.getMoneda(), transaccion.getSwiftBanco());
+    }
+
+    private static void agregarMensual(PronosticoCarga pronostico, CargaTransaccion transaccion) {
+        if (transaccion.getDiaMesPago() == null) {
+            return;
+        }
+        LocalDate primerDia = pronostico.getDesde().toLocalDate();
+        LocalDate ultimoDia = primerDia.plusDays(pronostico.getDias() - 1L);
+        for (YearMonth mes = YearMonth.from(primerDia); !mes.isAfter(YearMonth.from(ultimoDia)); mes = mes.plusMonths(1)) {
+            LocalDate pago = mes.atDay(Math.min(transaccion.getDiaMesPago(), mes.lengthOfMonth()));
+            if (pago.isBefore(primerDia) || pago.isAfter(ultimoDia)
+                    || (transaccion.getFechaInicio() != null && pago.isBefore(transaccion.getFechaInicio()))
+                    || (transaccion.getFechaFin() != null && pago.isAfter(transaccion.getFechaFin()))) {
+                continue;
+            }
+            int minuto = minuto(pronostico, pago.atStartOfDay());
+            pronostico.agregar(minuto, PronosticoCarga.MINUTOS_DIA, minuto + 1, centavos(transaccion.getMonto()),
+                    transaccion.getMoneda(), transaccion.getSwiftBanco());
+        }
+    }
+
+    private static int limite(PronosticoCarga pronostico, LocalDate fechaFin) {
+        if (fechaFin == null) {
+            return pronostico.getMinutos();
+        }
+        // La fecha fin es inclusiva: la transacción sigue activa durante todo ese día
+        return (int) Math.max(-1, Math.min(pronostico.getMinutos(), minutos(pronostico, fechaFin.plusDays(1).atStartOfDay())));
+    }
+
+    private static int minuto(PronosticoCarga pronostico, LocalDateTime instante) {
+        return (int) Math.max(0, Math.min(pronostico.getMinutos(), minutos(pronostico, instante)));
+    }
+
+    private static long minutos(PronosticoCarga pronostico, LocalDateTime instante) {
+        return Duration.between(pronostico.getDesde(), instante.truncatedTo(ChronoUnit.MINUTES)).toMinutes();
+    }
+
+    private static long centavos(BigDecimal monto) {
+        return monto == null ? 0 : monto.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,117 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ReintentoTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ReintentoTransaccionPK;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.ReintentoTransaccionRepository;
+
+@Service
+public class ReintentoTransaccionService {
+
+    private static final int LONGITUD_MOTIVO = 200;
+
+    private final Logger log = LoggerFactory.getLogger(ReintentoTransaccionService.class);
+    private final ReintentoTransaccionRepository repository;
+    private final PoliticaReintento politica;
+
+    public ReintentoTransaccionService(ReintentoTransaccionRepository repository, PoliticaReintento politica) {
+        this.repository = repository;
+        this.politica = politica;
+    }
+
+    @Transactional
+    public ReintentoTransaccion registrarRechazo(String codigo, int intentoFallido, String motivo, LocalDateTime ahora) {
+        this.repository.deleteByIdCodigoTransaccion(codigo);
+        int siguienteIntento = intentoFallido + 1;
+        if (!this.politica.permiteReintento(siguienteIntento)) {
+            log.info("La transacción {} agotó sus {} reintentos", codigo, this.politica.getMaximoReintentos());
+            return null;
+        }
+        ReintentoTransaccion reintento = new ReintentoTransaccion(new ReintentoTransaccionPK(codigo, siguienteIntento));
+        reintento.setFechaRechazo(ahora);
+        reintento.setFechaReintento(ahora.plus(this.politica.calcularEspera(siguienteIntento)));
+        reintento.setMotivo(truncarMotivo(motivo));
+        log.info("Programando reintento {} para la transacción {} en {}", siguienteIntento, codigo, reintento.getFechaReintento());
+        return this.repository.save(reintento);
+    }
+
+    @Transactional
+    public ReintentoTransaccion aplazar(String codigo, int intento, String motivo, LocalDateTime ahora, Duration espera) {
+        // El intento no se consume: la transacción no llegó a enviarse al servicio externo
+        ReintentoTransaccionPK id = new ReintentoTransaccionPK(codigo, intento);
+        this.repository.findByIdCodigoTransaccion(codigo).stream()
+                .filter(anterior -> !anterior.getId().equals(id))
+                .forEach(this.repository::delete);
+        ReintentoTransaccion reintento = this.repository.findById(id).orElseGet(() -> new ReintentoTransaccion(id));
+        reintento.setFechaRechazo(ahora);
+        reintento.setFechaReintento(ahora.plus(espera));
+        reintento.setMotivo(truncarMotivo(motivo));
+        log.info("Transacción {} aplazada hasta {}: {}", codigo, reintento.getFechaReintento(), motivo);
+        return this.repository.save(reintento);
+    }
+
+    @Transactional
+    public List<ReintentoTransaccion> reclamarVencidos(LocalDateTime ahora, int limite, Duration duracionLease) {
+        List<ReintentoTransaccion> reclamados = this.repository.bloquearVencidos(ahora, limite);
+        // Si el nodo cae antes de resolver el reintento, vuelve a quedar disponible al vencer el lease
+        LocalDateTime expiracion = ahora.plus(duracionLease);
+        for (ReintentoTransaccion reintento : reclamados) {
+            reintento.setFechaReintento(expiracion);
+        }
+        return this.repository.saveAll(reclamados);
+    }
+
+    @Transactional
+    public void resolver(String codigo) {
+        this.repository.deleteByIdCodigoTransaccion(codigo);
+    }
+
+    @Transactional
+    public void resolver(Collection<String> codigos) {
+        if (!codigos.isEmpty()) {
+            this.repository.deleteByIdCodigoTransaccionIn(codigos);
+        }
+    }
+
+    public Set<String> codigosConReintentoPendiente(Collection<String> codigos) {
+        return this.repository.findByIdCodigoTransaccionIn(codigos).stream()
+                .map(reintento -> reintento.getId().getCodigoTransaccion())
+                .collect(Collectors.toSet());
+    }
+
+    @Transactional
+    public Set<String> codigosConReintentoPendiente() {
+        eliminarHuerfanos();
+        return this.repository.findCodigosTransaccion();
+    }
+
+    /**
+     * Elimina los reintentos cuya transacción ya no existe o dejó de estar activa, que nunca se despacharían.
+     */
+    @Transactional
+    public int eliminarHuerfanos() {
+        int eliminados = this.repository.eliminarSinTransaccionActiva();
+        if (eliminados > 0) {
+            log.info("Se eliminaron {} reintentos de transacciones que ya no existen o no están activas", eliminados);
+        }
+        return eliminados;
+    }
+
+    private static String truncarMotivo(String motivo) {
+        if (motivo != null && motivo.length() > LONGITUD_MOTIVO) {
+            return motivo.substring(0, LONGITUD_MOTIVO);
+        }
+        return motivo;
+    }
+}
@@ -1,29 +1,68 @@
 package com.banquito.gateway.transaccionrecurrente.banquito.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.banquito.gateway.transaccionrecurrente.banquito.config.CacheConfig;
 import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
 import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteNotFoundException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ProgramacionTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ResumenTransacciones;
 import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.TransaccionRecurrenteEspecificaciones;
 import com.banquito.gateway.transaccionrecurrente.banquito.repository.TransaccionRecurrenteRepository;
 
+import jakarta.persistence.EntityManager;
+
 @Service
 public class TransaccionRecurrenteService {
     
+    public static final int FRECUENCIA_POR_DEFECTO = 30;
+
+    private static final int TAMANIO_BLOQUE_ACTUALIZACION = 1000;
+    private static final int TAMANIO_MAXIMO_PAGINA_CURSOR = 1000;
+    private static final Set<String> DIMENSIONES_RESUMEN = Set.of("estado", "pais", "moneda", "diaMesPago");
+
     private final Logger log = LoggerFactory.getLogger(TransaccionRecurrenteService.class);
     private final TransaccionRecurrenteRepository repository;
+    private final ApplicationEventPublisher eventos;
+    private final EntityManager entityManager;
+    private final GeneradorCodigo generadorCodigo;
+    private final CacheManager cacheManager;
 
-    public TransaccionRecurrenteService(TransaccionRecurrenteRepository repository) {
+    public TransaccionRecurrenteService(TransaccionRecurrenteRepository repository, ApplicationEventPublisher eventos,
+            EntityManager entityManager, GeneradorCodigo generadorCodigo, CacheManager cacheManager) {
         this.repository = repository;
+        this.eventos = eventos;
+        this.entityManager = entityManager;
+        this.generadorCodigo = generadorCodigo;
+        this.cacheManager = cacheManager;
     }
 
     public List<TransaccionRecurrente> obtenerTodas() {
@@ -40,64 +79,283 @@ public class TransaccionRecurrenteService {
         return this.repository.buscarConFiltros(estado, diaMesPago, pais, incluirEliminadas, pageable);
     }
 
+    public Slice<TransaccionRecurrente> buscarTransaccionesPorCursor(String estado, Integer diaMesPago, String pais, 
+            boolean incluirEliminadas, String campoOrden, Sort.Direction direccion, int tamanio, String token) {
+        log.info("Buscando transacciones por cursor: estado={}, diaMesPago={}, pais={}, orden={} {}, tamaño={}", 
+                estado, diaMesPago, pais, campoOrden, direccion, tamanio);
+        validarParametrosFiltro(estado);
+        CursorTransacciones.validarCampo(campoOrden);
+        if (tamanio < 1 || tamanio > TAMANIO_MAXIMO_PAGINA_CURSOR) {
+            throw new TransaccionRecurrenteInvalidaException("El tamaño de página debe estar entre 1 y " + TAMANIO_MAXIMO_PAGINA_CURSOR);
+        }
+
+        Specification<TransaccionRecurrente> especificacion = 
+                TransaccionRecurrenteEspecificaciones.conFiltros(estado, diaMesPago, pais, incluirEliminadas);
+        if (token != null && !token.isEmpty()) {
+            CursorTransacciones cursor = CursorTransacciones.decodificar(token, campoOrden, direccion);
+            especificacion = especificacion.and(TransaccionRecurrenteEspecificaciones.posteriorA(
+                    cursor.getCampo(), cursor.getDireccion(), cursor.getValor(), cursor.getCodigo()));
+        }
+        Sort orden = TransaccionRecurrenteEspecificaciones.CAMPO_CODIGO.equals(campoOrden)
+                ? Sort.by(direccion, campoOrden)
+                : Sort.by(direccion, campoOrden, TransaccionRecurrenteEspecificaciones.CAMPO_CODIGO);
+
+        // Se pide una fila de más para saber si hay página siguiente sin ejecutar COUNT(*)
+        List<TransaccionRecurrente> filas = this.repository.findBy(especificacion, 
+                consulta -> consulta.sortBy(orden).limit(tamanio + 1).all());
+        boolean haySiguiente = filas.size() > tamanio;
+        return new SliceImpl<>(haySiguiente ? filas.subList(0, tamanio) : filas, PageRequest.ofSize(tamanio).withSort(orden), haySiguiente);
+    }
+
+    /**
+     * Lectura para consulta: devuelve la copia desprendida que queda en la caché local del nodo, que no debe
+     * modificarse. Para cambiar la transacción se lee del repositorio.
+     */
+    @Cacheable(cacheNames = CacheConfig.CACHE_POR_CODIGO, sync = true)
     public TransaccionRecurrente obtenerPorCodigo(String codigo) {
         log.info("Buscando transacción recurrente con código: {}", codigo);
-        return this.repository.findById(codigo)
-                .orElseThrow(() -> new TransaccionRecurrenteNotFoundException(codigo));
+        return buscarPorCodigo(codigo).copia();
+    }
+
+    public List<TransaccionRecurrente> obtenerPorCodigos(Collection<String> codigos) {
+        log.debug("Buscando {} transacciones recurrentes por código", codigos.size());
+        return this.repository.findAllById(codigos);
     }
 
+    @Cacheable(cacheNames = CacheConfig.CACHE_POR_CUENTA, sync = true)
     public List<TransaccionRecurrente> obtenerPorCuentaIban(String cuentaIban) {
         log.info("Buscando transacciones recurrentes para la cuenta IBAN: {}", cuentaIban);
-        return this.repository.findByCuentaIban(cuentaIban);
+        return this.repository.findByCuentaIban(cuentaIban).stream().map(TransaccionRecurrente::copia).toList();
     }
 
     @Transactional
+    @Caching(
+        put = @CachePut(cacheNames = CacheConfig.CACHE_POR_CODIGO, key = "#result.codigo"),
+        evict = @CacheEvict(cacheNames = CacheConfig.CACHE_POR_CUENTA, key = "#result.cuentaIban", condition = "#result.cuentaIban != null")
+    )
     public TransaccionRecurrente crear(TransaccionRecurrente transaccion) {
         log.info("Se ha creado la transacción");
+        TransaccionRecurrente creada = this.repository.save(prepararNueva(transaccion));
+        this.eventos.publishEvent(new TransaccionesActivadasEvent(List.of(creada), LocalDateTime.now()));
+        return creada.copia();
+    }
+
+    public TransaccionRecurrente prepararNueva(TransaccionRecurrente transaccion) {
         validarTransaccion(transaccion);
-        transaccion.setCodigo(UUID.randomUUID().toString().substring(0, 10));
+        transaccion.setCodigo(this.generadorCodigo.generar());
         transaccion.setEstado("ACT");
-        return this.repository.save(transaccion);
+        transaccion.setProximaEjecucion(LocalDateTime.now().plusMinutes(frecuenciaMinutos(transaccion.getFrecuenciaDias())));
+        return transaccion;
     }
 
     @Transactional
     public List<TransaccionRecurrente> obtenerTransaccionesParaEjecutar(Integer diaPago) {
         log.info("Buscando transacciones recurrentes para ejecutar en el día: {}", diaPago);
-        return this.repository.findByEstadoAndDiaMesPagoAndFechaFinGreaterThanEqual("ACT", diaPago, LocalDate.now());
+        return this.repository.buscarActivasPorDiaPago(diaPago, LocalDate.now());
+    }
+
+    @Transactional(readOnly = true)
+    public int recorrerPorEstado(String estado, Consumer<ProgramacionTransaccion> accion) {
+        try (Stream<ProgramacionTransaccion> transacciones = this.repository.streamByEstado(estado)) {
+            return recorrer(transacciones, accion);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public int recorrerVencidas(LocalDateTime instante, Consumer<ProgramacionTransaccion> accion) {
+        log.debug("Recorriendo transacciones recurrentes activas con ejecución pendiente hasta: {}", instante);
+        try (Stream<ProgramacionTransaccion> transacciones = this.repository.streamActivasVencidas(instante)) {
+            return recorrer(transacciones, accion);
+        }
     }
 
     @Transactional
-    public TransaccionRecurrente actualizarDespuesDeEjecucion(String codigo) {
-        log.info("Actualizando transacción recurrente después de la ejecución: {}", codigo);
-        TransaccionRecurrente transaccion = obtenerPorCodigo(codigo);
-        return transaccion;
+    public List<TransaccionRecurrente> reclamarVencidas(String nodo, LocalDateTime ahora, int limite, Duration duracionLease) {
+        List<TransaccionRecurrente> reclamadas = this.repository.bloquearVencidasSinLease(ahora, limite);
+        LocalDateTime expiracion = ahora.plus(duracionLease);
+        for (TransaccionRecurrente transaccion : reclamadas) {
+            transaccion.setLeaseNodo(nodo);
+            transaccion.setLeaseExpira(expiracion);
+        }
+        if (!reclamadas.isEmpty()) {
+            log.info("El nodo {} reclamó {} transacciones vencidas hasta {}", nodo, reclamadas.size(), expiracion);
+        }
+        return this.repository.saveAll(reclamadas);
+    }
+
+    @Transactional
+    public int registrarEjecuciones(Collection<String> codigos, LocalDateTime fechaEjecucion) {
+        int actualizadas = 0;
+        for (List<String> bloque : particionar(codigos)) {
+            // Las cuentas cacheadas incluyen la última y la próxima ejecución de cada transacción
+            descartarCuentasDeCache(this.repository.obtenerCuentasIban(bloque));
+            actualizadas += this.repository.registrarEjecuciones(bloque, fechaEjecucion, FRECUENCIA_POR_DEFECTO);
+        }
+        descartarDeCache(codigos);
+        log.info("Se registró la ejecución de {} transacciones recurrentes", actualizadas);
+        return actualizadas;
+    }
+
+    @Transactional
+    public int actualizarEstados(Collection<String> codigos, String estado) {
+        int actualizadas = 0;
+        for (List<String> bloque : particionar(codigos)) {
+            descartarCuentasDeCache(this.repository.obtenerCuentasIban(bloque));
+            actualizadas += this.repository.actualizarEstados(bloque, estado);
+        }
+        descartarDeCache(codigos);
+        if (!"ACT".equals(estado)) {
+            this.eventos.publishEvent(new TransaccionesRetiradasEvent(List.copyOf(codigos)));
+        }
+        log.info("Se actualizaron {} transacciones recurrentes al estado {}", actualizadas, estado);
+        return actualizadas;
     }
     
     public List<TransaccionRecurrente> obtenerPorDiaMes(Integer diaMes) {
         log.info("Buscando transacciones recurrentes para el día del mes: {}", diaMes);
-        if (diaMes < 1 || diaMes > 31) {
-            throw new TransaccionRecurrenteInvalidaException("El día del mes debe estar entre 1 y 31");
-        }
+        validarDiaMes(diaMes);
         return this.repository.findByDiaMesPago(diaMes);
     }
     
     public List<TransaccionRecurrente> obtenerPorEstado(String estado) {
         log.info("Buscando transacciones recurrentes con estado: {}", estado);
+        validarEstado(estado);
+        return this.repository.findByEstado(estado);
+    }
+
+    @Transactional(readOnly = true)
+    public int exportarPorEstado(String estado, Consumer<TransaccionRecurrente> accion) {
+        log.info("Exportando transacciones recurrentes con estado: {}", estado);
+        validarEstado(estado);
+        try (Stream<TransaccionRecurrente> transacciones = this.repository.streamTransaccionesByEstado(estado)) {
+            return recorrer(transacciones, accion);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public int exportarPorDiaMes(Integer diaMes, Consumer<TransaccionRecurrente> accion) {
+        log.info("Exportando transacciones recurrentes para el día del mes: {}", diaMes);
+        validarDiaMes(diaMes);
+        try (Stream<TransaccionRecurrente> transacciones = this.repository.streamTransaccionesByDiaMesPago(diaMes)) {
+            return recorrer(transacciones, accion);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public int exportarPorCuentaIban(String cuentaIban, Consumer<TransaccionRecurrente> accion) {
+        log.info("Exportando transacciones recurrentes para la cuenta IBAN: {}", cuentaIban);
+        try (Stream<TransaccionRecurrente> transacciones = this.repository.streamTransaccionesByCuentaIban(cuentaIban)) {
+            return recorrer(transacciones, accion);
+        }
+    }
+
+    public List<ResumenTransacciones> obtenerResumen(Collection<String> agrupacion) {
+        log.info("Obteniendo el resumen de la cartera agrupado por: {}", agrupacion);
+        for (String dimension : agrupacion) {
+            if (!DIMENSIONES_RESUMEN.contains(dimension)) {
+                throw new TransaccionRecurrenteInvalidaException("El resumen solo se puede agrupar por " + DIMENSIONES_RESUMEN);
+            }
+        }
+        return this.repository.obtenerResumen(agrupacion.contains("estado"), agrupacion.contains("pais"),
+                agrupacion.contains("moneda"), agrupacion.contains("diaMesPago"));
+    }
+
+    public void validarDiaMes(Integer diaMes) {
+        if (diaMes == null || diaMes < 1 || diaMes > 31) {
+            throw new TransaccionRecurrenteInvalidaException("El día del mes debe estar entre 1 y 31");
+        }
+    }
+
+    public void validarEstado(String estado) {
         if (estado == null || estado.isEmpty()) {
             throw new TransaccionRecurrenteInvalidaException("El estado no puede estar vacío");
         }
         if (!estado.equals("ACT") && !estado.equals("CAN") && !estado.equals("FIN")) {
             throw new TransaccionRecurrenteInvalidaException("El estado debe ser ACT, CAN o FIN");
         }
-        return this.repository.findByEstado(estado);
+    }
+
+    /**
+     * Finaliza un bloque de transacciones cuya fecha fin ya pasó y las retira del planificador. Cada llamada es
+     * una transacción propia para que los bloques se confirmen y liberen sus bloqueos uno a uno.
+     */
+    @Transactional
+    public List<String> finalizarVencidas(LocalDate hoy, int limite) {
+        List<String> finalizadas = this.repository.finalizarVencidas(hoy, limite);
+        if (finalizadas.isEmpty()) {
+            return finalizadas;
+        }
+        descartarDeCache(finalizadas);
+        descartarCuentasDeCache(this.repository.obtenerCuentasIban(finalizadas));
+        this.eventos.publishEvent(new TransaccionesRetiradasEvent(finalizadas));
+        return finalizadas;
     }
 
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CACHE_POR_CODIGO, key = "#codigo"),
+        @CacheEvict(cacheNames = CacheConfig.CACHE_POR_CUENTA, key = "#result.cuentaIban", condition = "#result.cuentaIban != null")
+    })
     public TransaccionRecurrente actualizarEstado(String codigo, String estado) {
         log.info("Actualizando estado de la transacción {} a {}", codigo, estado);
-        TransaccionRecurrente transaccion = obtenerPorCodigo(codigo);
+        TransaccionRecurrente transaccion = buscarPorCodigo(codigo);
         transaccion.setEstado(estado);
-        return this.repository.save(transaccion);
+        TransaccionRecurrente actualizada = this.repository.save(transaccion);
+        if ("ACT".equals(estado)) {
+            this.eventos.publishEvent(new TransaccionesActivadasEvent(List.of(actualizada), LocalDateTime.now()));
+        } else {
+            this.eventos.publishEvent(new TransaccionesRetiradasEvent(List.of(codigo)));
+        }
+        return actualizada;
+    }
+
+    public static int frecuenciaMinutos(Integer frecuencia) {
+        if (frecuencia == null || frecuencia <= 0) {
+            return FRECUENCIA_POR_DEFECTO;
+        }
+        return frecuencia;
+    }
+
+    private <T> int recorrer(Stream<T> transacciones, Consumer<T> accion) {
+        int recorridas = 0;
+        for (T transaccion : (Iterable<T>) transacciones::iterator) {
+            accion.accept(transaccion);
+            // Se libera el contexto de persistencia para que la memoria no crezca con el número de filas
+            if (++recorridas % TransaccionRecurrenteRepository.TAMANIO_LECTURA == 0) {
+                this.entityManager.clear();
+            }
+        }
+        this.entityManager.clear();
+        return recorridas;
+    }
+
+    private TransaccionRecurrente buscarPorCodigo(String codigo) {
+        return this.repository.findById(codigo)
+                .orElseThrow(() -> new TransaccionRecurrenteNotFoundException(codigo));
+    }
+
+    private void descartarCuentasDeCache(Collection<String> cuentas) {
+        Cache cache = this.cacheManager.getCache(CacheConfig.CACHE_POR_CUENTA);
+        if (cache != null) {
+            cuentas.forEach(cache::evict);
+        }
+    }
+
+    private void descartarDeCache(Collection<String> codigos) {
+        // Las actualizaciones masivas no pasan por las anotaciones de caché, se descartan los códigos afectados
+        Cache cache = this.cacheManager.getCache(CacheConfig.CACHE_POR_CODIGO);
+        if (cache != null) {
+            codigos.forEach(cache::evict);
+        }
+    }
+
+    private static List<List<String>> particionar(Collection<String> codigos) {
+        List<String> lista = new ArrayList<>(codigos);
+        List<List<String>> bloques = new ArrayList<>();
+        for (int inicio = 0; inicio < lista.size(); inicio += TAMANIO_BLOQUE_ACTUALIZACION) {
+            bloques.add(lista.subList(inicio, Math.min(inicio + TAMANIO_BLOQUE_ACTUALIZACION, lista.size())));
+        }
+        return bloques;
     }
 
     private void validarTransaccion(TransaccionRecurrente transaccion) {
@@ -0,0 +1,29 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+/**
+ * Transacciones que quedaron activas al crearse o reactivarse y que deben incorporarse a la planificación
+ * del nodo desde {@code desde}.
+ */
+public class TransaccionesActivadasEvent {
+
+    private final List<TransaccionRecurrente> transacciones;
+    private final LocalDateTime desde;
+
+    public TransaccionesActivadasEvent(List<TransaccionRecurrente> transacciones, LocalDateTime desde) {
+        this.transacciones = List.copyOf(transacciones);
+        this.desde = desde;
+    }
+
+    public List<TransaccionRecurrente> getTransacciones() {
+        return transacciones;
+    }
+
+    public LocalDateTime getDesde() {
+        return desde;
+    }
+}
@@ -0,0 +1,19 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import java.util.List;
+
+/**
+ * Transacciones que dejaron de estar activas (canceladas, finalizadas) y deben retirarse de la planificación.
+ */
+public class TransaccionesRetiradasEvent {
+
+    private final List<String> codigos;
+
+    public TransaccionesRetiradasEvent(List<String> codigos) {
+        this.codigos = List.copyOf(codigos);
+    }
+
+    public List<String> getCodigos() {
+        return codigos;
+    }
+}
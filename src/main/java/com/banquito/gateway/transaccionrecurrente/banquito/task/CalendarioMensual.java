@@ -0,0 +1,77 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice en memoria de las transacciones activas por día de pago, con una cubeta por cada día del mes.
+ * El último día de un mes corto también vence las cubetas de los días que ese mes no tiene, así una
+ * transacción del 31 se cobra el 30 de abril o el 28 de febrero.
+ */
+public class CalendarioMensual<K> {
+
+    public static final int DIAS = 31;
+
+    private final List<Set<K>> cubetas = new ArrayList<>(DIAS);
+    private final Map<K, Integer> diaPorClave = new HashMap<>();
+
+    public CalendarioMensual() {
+        for (int dia = 1; dia <= DIAS; dia++) {
+            this.cubetas.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Ubica la clave en la cubeta de su día de pago, retirándola de la anterior si cambió. Un día nulo o
+     * fuera de rango la deja fuera del calendario.
+     */
+    public synchronized void agregar(K clave, Integer diaMesPago) {
+        retirar(clave);
+        if (diaMesPago == null || diaMesPago < 1 || diaMesPago > DIAS) {
+            return;
+        }
+        this.cubetas.get(diaMesPago - 1).add(clave);
+        this.diaPorClave.put(clave, diaMesPago);
+    }
+
+    public synchronized boolean retirar(K clave) {
+        Integer dia = this.diaPorClave.remove(clave);
+        if (dia == null) {
+            return false;
+        }
+        this.cubetas.get(dia - 1).remove(clave);
+        return true;
+    }
+
+    public synchronized boolean contiene(K clave) {
+        return this.diaPorClave.containsKey(clave);
+    }
+
+    /** Copia de las claves que vencen en la fecha indicada. */
+    public synchronized List<K> vencenEn(LocalDate fecha) {
+        int primero = fecha.getDayOfMonth();
+        int ultimo = ultimoDiaQueVence(fecha);
+        int total = 0;
+        for (int dia = primero; dia <= ultimo; dia++) {
+            total += this.cubetas.get(dia - 1).size();
+        }
+        List<K> claves = new ArrayList<>(total);
+        for (int dia = primero; dia <= ultimo; dia++) {
+            claves.addAll(this.cubetas.get(dia - 1));
+        }
+        return claves;
+    }
+
+    public synchronized int tamanio() {
+        return this.diaPorClave.size();
+    }
+
+    static int ultimoDiaQueVence(LocalDate fecha) {
+        return fecha.getDayOfMonth() == fecha.lengthOfMonth() ? DIAS : fecha.getDayOfMonth();
+    }
+}
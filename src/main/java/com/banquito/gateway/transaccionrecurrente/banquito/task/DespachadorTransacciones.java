@@ -0,0 +1,113 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class DespachadorTransacciones {
+
+    private final Logger log = LoggerFactory.getLogger(DespachadorTransacciones.class);
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> enVuelo = ConcurrentHashMap.newKeySet();
+    private final Semaphore permisos;
+    private final int concurrenciaMaxima;
+
+    public DespachadorTransacciones(@Value("${transaccion.recurrente.despacho.concurrencia-maxima:50}") int concurrenciaMaxima) {
+        if (concurrenciaMaxima < 1) {
+            throw new IllegalArgumentException("La concurrencia máxima de despacho debe ser al menos 1");
+        }
+        this.concurrenciaMaxima = concurrenciaMaxima;
+        this.permisos = new Semaphore(concurrenciaMaxima, true);
+    }
+
+    public CompletableFuture<Void> despachar(List<TransaccionRecurrente> transacciones, Consumer<TransaccionRecurrente> accion) {
+        List<TransaccionRecurrente> admitidas = admitir(transacciones);
+        List<CompletableFuture<Void>> envios = new ArrayList<>(admitidas.size());
+        for (TransaccionRecurrente transaccion : admitidas) {
+            envios.add(CompletableFuture.runAsync(() -> ejecutar(List.of(transaccion), () -> accion.accept(transaccion)), ejecutor));
+        }
+        return CompletableFuture.allOf(envios.toArray(new CompletableFuture[0]));
+    }
+
+    public CompletableFuture<Void> despacharLotes(List<TransaccionRecurrente> transacciones, int tamanioLote, 
+            Consumer<List<TransaccionRecurrente>> accion) {
+        List<TransaccionRecurrente> admitidas = admitir(transacciones);
+        List<CompletableFuture<Void>> envios = new ArrayList<>(admitidas.size() / tamanioLote + 1);
+        for (int inicio = 0; inicio < admitidas.size(); inicio += tamanioLote) {
+            List<TransaccionRecurrente> lote = admitidas.subList(inicio, Math.min(inicio + tamanioLote, admitidas.size()));
+            envios.add(CompletableFuture.runAsync(() -> ejecutar(lote, () -> accion.accept(lote)), ejecutor));
+        }
+        return CompletableFuture.allOf(envios.toArray(new CompletableFuture[0]));
+    }
+
+    public boolean estaEnVuelo(String codigo) {
+        return enVuelo.contains(codigo);
+    }
+
+    public int enVuelo() {
+        return enVuelo.size();
+    }
+
+    public int getConcurrenciaMaxima() {
+        return concurrenciaMaxima;
+    }
+
+    public int permisosDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    private List<TransaccionRecurrente> admitir(List<TransaccionRecurrente> transacciones) {
+        List<TransaccionRecurrente> admitidas = new ArrayList<>(transacciones.size());
+        for (TransaccionRecurrente transaccion : transacciones) {
+            if (!enVuelo.add(transaccion.getCodigo())) {
+                log.info("La transacción {} ya se está despachando, se omite en este ciclo", transaccion.getCodigo());
+                continue;
+            }
+            admitidas.add(transaccion);
+        }
+        return admitidas;
+    }
+
+    private void ejecutar(List<TransaccionRecurrente> transacciones, Runnable accion) {
+        boolean adquirido = false;
+        try {
+            permisos.acquire();
+            adquirido = true;
+            accion.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Despacho de {} transacciones interrumpido, primera {}", transacciones.size(), transacciones.get(0).getCodigo());
+        } catch (Exception e) {
+            log.error("Error no controlado al despachar {} transacciones, primera {}: {}", 
+                    transacciones.size(), transacciones.get(0).getCodigo(), e.getMessage());
+        } finally {
+            if (adquirido) {
+                permisos.release();
+            }
+            for (TransaccionRecurrente transaccion : transacciones) {
+                enVuelo.remove(transaccion.getCodigo());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdown();
+    }
+}
@@ -0,0 +1,63 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.client.mapper.TransaccionSimpleMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.TransaccionRecurrenteService;
+
+/**
+ * Pasa a FIN cada noche las transacciones activas cuya fecha fin ya pasó, por bloques de
+ * {@code tamanioBloque} filas, para que dejen de entrar en el planificador y en las lecturas de activas.
+ */
+@Component
+public class FinalizacionTransaccionesTask {
+
+    private final Logger log = LoggerFactory.getLogger(FinalizacionTransaccionesTask.class);
+    private final TransaccionRecurrenteService service;
+    private final TransaccionSimpleMapper transaccionSimpleMapper;
+    private final int tamanioBloque;
+
+    public FinalizacionTransaccionesTask(TransaccionRecurrenteService service, TransaccionSimpleMapper transaccionSimpleMapper,
+            @Value("${transaccion.recurrente.finalizacion.tamanio-bloque:1000}") int tamanioBloque) {
+        if (tamanioBloque < 1) {
+            throw new IllegalArgumentException("El tamaño del bloque de finalización debe ser al menos 1");
+        }
+        this.service = service;
+        this.transaccionSimpleMapper = transaccionSimpleMapper;
+        this.tamanioBloque = tamanioBloque;
+    }
+
+    @Scheduled(cron = "${transaccion.recurrente.finalizacion.cron:0 15 0 * * *}")
+    public void finalizarVencidas() {
+        finalizarVencidas(LocalDate.now());
+    }
+
+    int finalizarVencidas(LocalDate hoy) {
+        log.info("Iniciando la finalización de transacciones recurrentes con fecha fin anterior a {}", hoy);
+        int total = 0;
+        int bloques = 0;
+        List<String> finalizadas;
+        do {
+            try {
+                finalizadas = service.finalizarVencidas(hoy, tamanioBloque);
+            } catch (Exception e) {
+                // Las que queden activas se finalizan en la siguiente ejecución
+                log.error("Error al finalizar el bloque {} de transacciones recurrentes vencidas: {}", bloques + 1, e.getMessage());
+                break;
+            }
+            bloques++;
+            total += finalizadas.size();
+            finalizadas.forEach(transaccionSimpleMapper::descartarPlantilla);
+            log.info("Bloque {} de finalización: {} transacciones pasaron a FIN", bloques, finalizadas.size());
+        } while (finalizadas.size() == tamanioBloque);
+        log.info("Finalización terminada: {} transacciones recurrentes pasaron a FIN en {} bloques", total, bloques);
+        return total;
+    }
+}
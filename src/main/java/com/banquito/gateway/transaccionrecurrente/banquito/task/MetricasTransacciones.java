@@ -0,0 +1,105 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Component
+public class MetricasTransacciones {
+
+    public static final String ORIGEN_PLANIFICADOR = "planificador";
+    public static final String ORIGEN_LEASE = "lease";
+    public static final String ORIGEN_REINTENTO = "reintento";
+    public static final String ORIGEN_RECONCILIACION = "reconciliacion";
+    public static final String RESULTADO_APLAZADO = "APL";
+
+    private static final String DESCONOCIDO = "desconocido";
+
+    private final Meter.MeterProvider<Timer> ciclos;
+    private final Meter.MeterProvider<Counter> leidas;
+    private final Meter.MeterProvider<Counter> vencidas;
+    private final Meter.MeterProvider<Timer> envios;
+    private final Meter.MeterProvider<Counter> reintentos;
+    private final Counter cancelaciones;
+    private final DistributionSummary tamanioLote;
+    private final Timer retrasoProgramacion;
+
+    public MetricasTransacciones(MeterRegistry registry) {
+        this.ciclos = Timer.builder("transaccion.recurrente.ciclo")
+                .description("Duración de un ciclo de despacho, desde la lectura hasta el registro de resultados")
+                .publishPercentileHistogram()
+                .withRegistry(registry);
+        this.leidas = Counter.builder("transaccion.recurrente.filas.leidas")
+                .description("Filas leídas de la base de datos para despachar")
+                .withRegistry(registry);
+        this.vencidas = Counter.builder("transaccion.recurrente.filas.vencidas")
+                .description("Filas leídas que estaban activas y vencidas y pasaron al despachador")
+                .withRegistry(registry);
+        this.envios = Timer.builder("transaccion.recurrente.envio")
+                .description("Latencia del envío de un cobro al servicio de transacción simple")
+                .publishPercentileHistogram()
+                .withRegistry(registry);
+        this.reintentos = Counter.builder("transaccion.recurrente.reintentos")
+                .description("Cobros enviados a la cola de reintentos")
+                .withRegistry(registry);
+        this.cancelaciones = Counter.builder("transaccion.recurrente.cancelaciones")
+                .description("Transacciones canceladas al agotar los reintentos")
+                .register(registry);
+        this.tamanioLote = DistributionSummary.builder("transaccion.recurrente.envio.lote")
+                .description("Cobros por lote enviado al servicio de transacción simple")
+                .register(registry);
+        this.retrasoProgramacion = Timer.builder("transaccion.recurrente.retraso.programacion")
+                .description("Diferencia entre el envío real de un cobro y su próxima ejecución programada")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(registry);
+    }
+
+    public void registrarCiclo(String origen, LocalDateTime inicio) {
+        ciclos.withTags("origen", origen).record(Duration.between(inicio, LocalDateTime.now()));
+    }
+
+    public void registrarLectura(String origen, int filasLeidas, int filasVencidas) {
+        leidas.withTags("origen", origen).increment(filasLeidas);
+        vencidas.withTags("origen", origen).increment(filasVencidas);
+    }
+
+    public void registrarEnvio(TransaccionRecurrente transaccion, String resultado, long nanos) {
+        envios.withTags("resultado", resultado, "marca", etiqueta(transaccion.getMarca()), "banco", etiqueta(transaccion.getSwiftBanco()))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registrarLote(int cobros) {
+        tamanioLote.record(cobros);
+    }
+
+    public void registrarRetraso(TransaccionRecurrente transaccion, LocalDateTime envio) {
+        if (transaccion.getProximaEjecucion() == null) {
+            return;
+        }
+        Duration retraso = Duration.between(transaccion.getProximaEjecucion(), envio);
+        retrasoProgramacion.record(retraso.isNegative() ? Duration.ZERO : retraso);
+    }
+
+    public void registrarReintento(String motivo) {
+        reintentos.withTags("motivo", motivo).increment();
+    }
+
+    public void registrarCancelacion() {
+        cancelaciones.increment();
+    }
+
+    private static String etiqueta(String valor) {
+        return valor == null || valor.isBlank() ? DESCONOCIDO : valor;
+    }
+}
@@ -0,0 +1,119 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ProgramacionTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.TransaccionRecurrenteService;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.TransaccionesActivadasEvent;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.TransaccionesRetiradasEvent;
+
+@Component
+public class PlanificadorEjecuciones {
+
+    private final Logger log = LoggerFactory.getLogger(PlanificadorEjecuciones.class);
+    private final RuedaTemporal<String> rueda;
+    private final CalendarioMensual<String> calendario = new CalendarioMensual<>();
+    private final ZoneId zona = ZoneId.systemDefault();
+    private final boolean modoPrueba;
+
+    public PlanificadorEjecuciones(@Value("${transaccion.recurrente.planificador.tick-ms:1000}") long milisPorTick,
+            @Value("${transaccion.recurrente.modo.prueba:true}") boolean modoPrueba) {
+        this.rueda = new RuedaTemporal<>(milisPorTick, System.currentTimeMillis());
+        this.modoPrueba = modoPrueba;
+    }
+
+    /**
+     * Incorpora una transacción activa: siempre al calendario por día de pago y, en modo prueba, a la rueda
+     * desde su próxima ejecución si aún no estaba programada.
+     */
+    public void incorporar(TransaccionRecurrente transaccion, LocalDateTime ahora) {
+        agendar(transaccion.getCodigo(), transaccion.getDiaMesPago());
+        if (modoPrueba && !estaProgramada(transaccion.getCodigo())) {
+            programarPendiente(transaccion.getCodigo(), transaccion.getProximaEjecucion(), transaccion.getFrecuenciaDias(), ahora);
+        }
+    }
+
+    public void incorporar(ProgramacionTransaccion programacion, LocalDateTime ahora) {
+        agendar(programacion.getCodigo(), programacion.getDiaMesPago());
+        if (modoPrueba && !estaProgramada(programacion.getCodigo())) {
+            programarPendiente(programacion.getCodigo(), programacion.getProximaEjecucion(), programacion.getFrecuenciaDias(), ahora);
+        }
+    }
+
+    // Se aplican tras confirmar la transacción que las publicó, así una creación revertida no llega a programarse
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alActivar(TransaccionesActivadasEvent evento) {
+        evento.getTransacciones().forEach(transaccion -> incorporar(transaccion, evento.getDesde()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alRetirar(TransaccionesRetiradasEvent evento) {
+        evento.getCodigos().forEach(this::cancelar);
+    }
+
+    public void agendar(String codigo, Integer diaMesPago) {
+        this.calendario.agregar(codigo, diaMesPago);
+    }
+
+    public void programar(String codigo, LocalDateTime instante) {
+        this.rueda.programar(codigo, instante.atZone(zona).toInstant().toEpochMilli());
+    }
+
+    public void programarSiguiente(TransaccionRecurrente transaccion, LocalDateTime desde) {
+        if (!modoPrueba) {
+            // Fuera del modo prueba la siguiente ejecución la da el calendario, el próximo mes
+            return;
+        }
+        programar(transaccion.getCodigo(), desde.plusMinutes(TransaccionRecurrenteService.frecuenciaMinutos(transaccion.getFrecuenciaDias())));
+    }
+
+    public void cancelar(String codigo) {
+        boolean enRueda = this.rueda.cancelar(codigo);
+        if (this.calendario.retirar(codigo) || enRueda) {
+            log.info("Transacción {} retirada del planificador", codigo);
+        }
+    }
+
+    public boolean estaProgramada(String codigo) {
+        return this.rueda.contiene(codigo);
+    }
+
+    public List<String> extraerVencidas(LocalDateTime ahora) {
+        return this.rueda.avanzar(ahora.atZone(zona).toInstant().toEpochMilli());
+    }
+
+    public int programadas() {
+        return this.rueda.tamanio();
+    }
+
+    /** Códigos de las transacciones cuyo día de pago cae en la fecha, incluidos los días 29 a 31 al cierre de un mes corto. */
+    public List<String> vencenEn(LocalDate fecha) {
+        return this.calendario.vencenEn(fecha);
+    }
+
+    public int agendadas() {
+        return this.calendario.tamanio();
+    }
+
+    public boolean isModoPrueba() {
+        return modoPrueba;
+    }
+
+    private void programarPendiente(String codigo, LocalDateTime proximaEjecucion, Integer frecuencia, LocalDateTime ahora) {
+        if (proximaEjecucion != null) {
+            programar(codigo, proximaEjecucion);
+        } else {
+            programar(codigo, ahora.plusMinutes(TransaccionRecurrenteService.frecuenciaMinutos(frecuencia)));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.EjecucionTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.EjecucionTransaccionService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Acumula en memoria los resultados de los envíos al servicio externo y los escribe en el
+ * historial de ejecuciones por lotes, fuera del hilo que despacha la transacción. Si la base
+ * de datos no está disponible los registros vuelven a la cola hasta su capacidad máxima.
+ */
+@Component
+public class RegistroEjecuciones {
+
+    public static final String RESULTADO_EXITOSO = "EXI";
+    public static final String RESULTADO_RECHAZADO = "REC";
+    public static final String RESULTADO_ERROR = "ERR";
+
+    private static final int LONGITUD_DETALLE = 200;
+
+    private final Logger log = LoggerFactory.getLogger(RegistroEjecuciones.class);
+    private final Queue<EjecucionTransaccion> pendientes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tamanio = new AtomicInteger();
+    private final EjecucionTransaccionService service;
+    private final int tamanioLote;
+    private final int capacidadMaxima;
+
+    public RegistroEjecuciones(EjecucionTransaccionService service,
+            @Value("${transaccion.recurrente.historial.tamanio-lote:1000}") int tamanioLote,
+            @Value("${transaccion.recurrente.historial.capacidad-maxima:100000}") int capacidadMaxima) {
+        if (tamanioLote < 1 || capacidadMaxima < tamanioLote) {
+            throw new IllegalArgumentException("El tamaño de lote del historial debe ser al menos 1 y no superar la capacidad máxima");
+        }
+        this.service = service;
+        this.tamanioLote = tamanioLote;
+        this.capacidadMaxima = capacidadMaxima;
+    }
+
+    public void registrar(TransaccionRecurrente transaccion, String codigoUnicoTransaccion, int intento, LocalDateTime fecha,
+            String resultado, Integer codigoRespuesta, String detalle) {
+        EjecucionTransaccion ejecucion = new EjecucionTransaccion();
+        ejecucion.setCodigoTransaccion(transaccion.getCodigo());
+        ejecucion.setCodigoUnicoTransaccion(codigoUnicoTransaccion);
+        ejecucion.setIntento(intento);
+        ejecucion.setFechaEjecucion(fecha);
+        ejecucion.setMonto(transaccion.getMonto());
+        ejecucion.setResultado(resultado);
+        ejecucion.setCodigoRespuesta(codigoRespuesta);
+        if (detalle != null && detalle.length() > LONGITUD_DETALLE) {
+            detalle = detalle.substring(0, LONGITUD_DETALLE);
+        }
+        ejecucion.setDetalle(detalle);
+        encolar(ejecucion);
+    }
+
+    public int pendientes() {
+        return tamanio.get();
+    }
+
+    @Scheduled(fixedDelayString = "${transaccion.recurrente.historial.intervalo-ms:1000}")
+    public synchronized void volcar() {
+        int lotes = tamanio.get() / tamanioLote + 1;
+        for (int i = 0; i < lotes; i++) {
+            List<EjecucionTransaccion> lote = extraerLote();
+            if (lote.isEmpty()) {
+                return;
+            }
+            try {
+                service.registrar(lote);
+            } catch (Exception e) {
+                log.error("Error al escribir {} ejecuciones en el historial, se reintentará: {}", lote.size(), e.getMessage());
+                lote.forEach(this::encolar);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        volcar();
+        if (tamanio.get() > 0) {
+            log.warn("Se descartan {} ejecuciones que no pudieron escribirse en el historial", tamanio.get());
+        }
+    }
+
+    private void encolar(EjecucionTransaccion ejecucion) {
+        if (tamanio.incrementAndGet() > capacidadMaxima) {
+            tamanio.decrementAndGet();
+            log.warn("Historial de ejecuciones lleno, se descarta la ejecución {} de la transacción {}", 
+                    ejecucion.getCodigoUnicoTransaccion(), ejecucion.getCodigoTransaccion());
+            return;
+        }
+        pendientes.add(ejecucion);
+    }
+
+    private List<EjecucionTransaccion> extraerLote() {
+        List<EjecucionTransaccion> lote = new ArrayList<>(Math.min(tamanioLote, tamanio.get()));
+        EjecucionTransaccion ejecucion;
+        while (lote.size() < tamanioLote && (ejecucion = pendientes.poll()) != null) {
+            tamanio.decrementAndGet();
+            lote.add(ejecucion);
+        }
+        return lote;
+    }
+}
@@ -0,0 +1,38 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigo;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigoTemporal;
+
+/**
+ * Renueva en segundo plano la reserva de segundos del generador de códigos temporal, para que las
+ * peticiones que crean transacciones no abran una segunda conexión mientras tienen la suya en uso.
+ * La primera ejecución ocurre al arrancar, antes de que llegue la primera petición.
+ */
+@Component
+public class ReservaCodigosTask {
+
+    private final Logger log = LoggerFactory.getLogger(ReservaCodigosTask.class);
+    private final GeneradorCodigo generadorCodigo;
+
+    public ReservaCodigosTask(GeneradorCodigo generadorCodigo) {
+        this.generadorCodigo = generadorCodigo;
+    }
+
+    @Scheduled(fixedDelayString = "${transaccion.recurrente.codigos.renovacion-ms:10000}")
+    public void renovarReserva() {
+        if (!(generadorCodigo instanceof GeneradorCodigoTemporal temporal)) {
+            return;
+        }
+        try {
+            temporal.renovarReserva();
+        } catch (Exception e) {
+            // Se reintenta en la siguiente ejecución; mientras tanto generar() reserva por su cuenta si lo necesita
+            log.warn("Error al renovar la reserva de segundos del generador de códigos: {}", e.getMessage());
+        }
+    }
+}
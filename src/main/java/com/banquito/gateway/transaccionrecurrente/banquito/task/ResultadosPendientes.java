@@ -0,0 +1,107 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resultados de despacho del nodo que todavía no se registraron en la base de datos. Se vuelcan por bloques
+ * mientras el ciclo sigue en curso y un resultado solo se retira después de registrarlo, de modo que si el
+ * volcado falla se conserva para el siguiente intento. Registrar de nuevo un bloque es idempotente.
+ */
+public class ResultadosPendientes {
+
+    private final Map<String, LocalDateTime> ejecutadas = new ConcurrentHashMap<>();
+    private final Set<String> reintentosResueltos = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> cambiosEstado = new ConcurrentHashMap<>();
+
+    public void registrarEjecucion(String codigo, LocalDateTime fechaEjecucion) {
+        ejecutadas.put(codigo, fechaEjecucion);
+    }
+
+    public void registrarReintentoResuelto(String codigo) {
+        reintentosResueltos.add(codigo);
+    }
+
+    public void registrarCambioEstado(String codigo, String estado) {
+        cambiosEstado.put(codigo, estado);
+    }
+
+    /** Indica si la transacción tiene algún resultado sin registrar; mientras tanto no debe despacharse otra vez. */
+    public boolean contiene(String codigo) {
+        return ejecutadas.containsKey(codigo) || reintentosResueltos.contains(codigo) || cambiosEstado.containsKey(codigo);
+    }
+
+    public boolean estaVacio() {
+        return ejecutadas.isEmpty() && reintentosResueltos.isEmpty() && cambiosEstado.isEmpty();
+    }
+
+    public int tamanio() {
+        return ejecutadas.size() + reintentosResueltos.size() + cambiosEstado.size();
+    }
+
+    /** Toma hasta {@code maximo} resultados de cada tipo sin retirarlos. */
+    public Bloque tomar(int maximo) {
+        Bloque bloque = new Bloque();
+        for (Map.Entry<String, LocalDateTime> ejecucion : ejecutadas.entrySet()) {
+            if (bloque.ejecutadas.size() >= maximo) {
+                break;
+            }
+            bloque.ejecutadas.put(ejecucion.getKey(), ejecucion.getValue());
+        }
+        for (String codigo : reintentosResueltos) {
+            if (bloque.reintentosResueltos.size() >= maximo) {
+                break;
+            }
+            bloque.reintentosResueltos.add(codigo);
+        }
+        for (Map.Entry<String, String> cambio : cambiosEstado.entrySet()) {
+            if (bloque.cambiosEstado.size() >= maximo) {
+                break;
+            }
+            bloque.cambiosEstado.put(cambio.getKey(), cambio.getValue());
+        }
+        return bloque;
+    }
+
+    /** Retira los resultados del bloque ya registrados, salvo los que se reemplazaron mientras tanto. */
+    public void confirmar(Bloque bloque) {
+        bloque.ejecutadas.forEach(ejecutadas::remove);
+        reintentosResueltos.removeAll(bloque.reintentosResueltos);
+        bloque.cambiosEstado.forEach(cambiosEstado::remove);
+    }
+
+    public static final class Bloque {
+
+        private final Map<String, LocalDateTime> ejecutadas = new HashMap<>();
+        private final Set<String> reintentosResueltos = new HashSet<>();
+        private final Map<String, String> cambiosEstado = new HashMap<>();
+
+        public Map<LocalDateTime, List<String>> ejecutadasPorFecha() {
+            return agrupar(ejecutadas);
+        }
+
+        public Set<String> getReintentosResueltos() {
+            return reintentosResueltos;
+        }
+
+        public Map<String, List<String>> cambiosPorEstado() {
+            return agrupar(cambiosEstado);
+        }
+
+        public int tamanio() {
+            return ejecutadas.size() + reintentosResueltos.size() + cambiosEstado.size();
+        }
+
+        private static <V> Map<V, List<String>> agrupar(Map<String, V> valores) {
+            Map<V, List<String>> grupos = new HashMap<>();
+            valores.forEach((codigo, valor) -> grupos.computeIfAbsent(valor, clave -> new ArrayList<>()).add(codigo));
+            return grupos;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda temporal jerárquica: cada nivel tiene {@code RANURAS} ranuras y cada ranura
+ * del nivel n cubre {@code RANURAS^n} ticks. Las entradas lejanas se ubican en niveles
+ * altos y bajan de nivel (cascada) a medida que avanza el tiempo, de modo que avanzar
+ * la rueda solo toca las entradas vencidas y las que cambian de nivel.
+ */
+public class RuedaTemporal<K> {
+
+    private static final int BITS_NIVEL = 6;
+    private static final int RANURAS = 1 << BITS_NIVEL;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4;
+    private static final long RANGO_MAXIMO = 1L << (BITS_NIVEL * NIVELES);
+
+    private final long milisPorTick;
+    private final long origen;
+    private final Nodo<K>[][] ranuras;
+    private final Map<K, Nodo<K>> indice = new HashMap<>();
+    private final LinkedHashSet<K> vencidasPendientes = new LinkedHashSet<>();
+    private long tickActual;
+
+    @SuppressWarnings("unchecked")
+    public RuedaTemporal(long milisPorTick, long origenMilis) {
+        if (milisPorTick <= 0) {
+            throw new IllegalArgumentException("El tamaño del tick debe ser mayor a 0");
+        }
+        this.milisPorTick = milisPorTick;
+        this.origen = origenMilis;
+        this.ranuras = new Nodo[NIVELES][RANURAS];
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            for (int ranura = 0; ranura < RANURAS; ranura++) {
+                Nodo<K> centinela = new Nodo<>(null, 0);
+                centinela.anterior = centinela;
+                centinela.siguiente = centinela;
+                this.ranuras[nivel][ranura] = centinela;
+            }
+        }
+    }
+
+    public synchronized void programar(K clave, long vencimientoMilis) {
+        cancelar(clave);
+        long tickVencimiento = Math.floorDiv(vencimientoMilis - origen + milisPorTick - 1, milisPorTick);
+        Nodo<K> nodo = new Nodo<>(clave, tickVencimiento);
+        indice.put(clave, nodo);
+        ubicar(nodo);
+    }
+
+    public synchronized boolean cancelar(K clave) {
+        Nodo<K> nodo = indice.remove(clave);
+        if (nodo == null) {
+            return vencidasPendientes.remove(clave);
+        }
+        desenlazar(nodo);
+        return true;
+    }
+
+    public synchronized boolean contiene(K clave) {
+        return indice.containsKey(clave) || vencidasPendientes.contains(clave);
+    }
+
+    public synchronized int tamanio() {
+        return indice.size() + vencidasPendientes.size();
+    }
+
+    public synchronized List<K> avanzar(long ahoraMilis) {
+        long tickObjetivo = Math.floorDiv(ahoraMilis - origen, milisPorTick);
+        if (indice.isEmpty()) {
+            tickActual = Math.max(tickActual, tickObjetivo);
+        }
+        while (tickActual < tickObjetivo) {
+            tickActual++;
+            for (int nivel = NIVELES - 1; nivel > 0; nivel--) {
+                if ((tickActual & ((1L << (BITS_NIVEL * nivel)) - 1)) == 0) {
+                    cascada(nivel, (int) ((tickActual >>> (BITS_NIVEL * nivel)) & MASCARA));
+                }
+            }
+            expirar(ranuras[0][(int) (tickActual & MASCARA)]);
+            if (indice.isEmpty()) {
+                tickActual = tickObjetivo;
+            }
+        }
+        List<K> vencidas = new ArrayList<>(vencidasPendientes);
+        vencidasPendientes.clear();
+        return vencidas;
+    }
+
+    private void ubicar(Nodo<K> nodo) {
+        long delta = nodo.tickVencimiento - tickActual;
+        if (delta <= 0) {
+            indice.remove(nodo.clave);
+            vencidasPendientes.add(nodo.clave);
+            return;
+        }
+        long tickUbicacion = delta < RANGO_MAXIMO ? nodo.tickVencimiento : tickActual + RANGO_MAXIMO - 1;
+        int nivel = 0;
+        while (nivel < NIVELES - 1 && (tickUbicacion - tickActual) >= (1L << (BITS_NIVEL * (nivel + 1)))) {
+            nivel++;
+        }
+        int ranura = (int) ((tickUbicacion >>> (BITS_NIVEL * nivel)) & MASCARA);
+        enlazar(ranuras[nivel][ranura], nodo);
+    }
+
+    private void cascada(int nivel, int ranura) {
+        Nodo<K> centinela = ranuras[nivel][ranura];
+        Nodo<K> nodo = centinela.siguiente;
+        centinela.anterior = centinela;
+        centinela.siguiente = centinela;
+        while (nodo != centinela) {
+            Nodo<K> siguiente = nodo.siguiente;
+            ubicar(nodo);
+            nodo = siguiente;
+        }
+    }
+
+    private void expirar(Nodo<K> centinela) {
+        Nodo<K> nodo = centinela.siguiente;
+        centinela.anterior = centinela;
+        centinela.siguiente = centinela;
+        while (nodo != centinela) {
+            Nodo<K> siguiente = nodo.siguiente;
+            indice.remove(nodo.clave);
+            vencidasPendientes.add(nodo.clave);
+            nodo = siguiente;
+        }
+    }
+
+    private void enlazar(Nodo<K> centinela, Nodo<K> nodo) {
+        nodo.siguiente = centinela;
+        nodo.anterior = centinela.anterior;
+        centinela.anterior.siguiente = nodo;
+        centinela.anterior = nodo;
+    }
+
+    private void desenlazar(Nodo<K> nodo) {
+        nodo.anterior.siguiente = nodo.siguiente;
+        nodo.siguiente.anterior = nodo.anterior;
+        nodo.anterior = null;
+        nodo.siguiente = null;
+    }
+
+    private static final class Nodo<K> {
+        private final K clave;
+        private final long tickVencimiento;
+        private Nodo<K> anterior;
+        private Nodo<K> siguiente;
+
+        private Nodo(K clave, long tickVencimiento) {
+            this.clave = clave;
+            this.tickVencimiento = tickVencimiento;
+        }
+    }
+}
@@ -1,218 +1,563 @@
 package com.banquito.gateway.transaccionrecurrente.banquito.task;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import com.banquito.gateway.transaccionrecurrente.banquito.client.TransaccionSimpleClient;
+import com.banquito.gateway.transaccionrecurrente.banquito.client.EnvioTransaccionSimple;
+import com.banquito.gateway.transaccionrecurrente.banquito.client.dto.ResultadoLoteTransaccionDTO;
 import com.banquito.gateway.transaccionrecurrente.banquito.client.dto.TransaccionSimpleDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.client.mapper.TransaccionSimpleMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.ServicioNoDisponibleException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ReintentoTransaccion;
 import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.ReintentoTransaccionService;
 import com.banquito.gateway.transaccionrecurrente.banquito.service.TransaccionRecurrenteService;
 
+import jakarta.annotation.PreDestroy;
+
 @Component
 public class TransaccionRecurrenteTask {
 
+    private static final int EJECUCION_REGULAR = 0;
+    private static final int TAMANIO_BLOQUE_CALENDARIO = 1000;
+
     private final Logger log = LoggerFactory.getLogger(TransaccionRecurrenteTask.class);
     private final TransaccionRecurrenteService service;
-    private final TransaccionSimpleClient transaccionSimpleClient;
-    
-    private final Map<String, LocalDateTime> ultimaEjecucion = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> ultimoRechazo = new ConcurrentHashMap<>();
-    private final Map<String, Integer> contadorReintentos = new ConcurrentHashMap<>();
-    private static final int MAX_REINTENTOS = 3;
-    private static final int MINUTOS_ESPERA_REINTENTO = 1;
-
-    public TransaccionRecurrenteTask(TransaccionRecurrenteService service, TransaccionSimpleClient transaccionSimpleClient) {
+    private final ReintentoTransaccionService reintentoService;
+    private final EnvioTransaccionSimple envioTransaccionSimple;
+    private final TransaccionSimpleMapper transaccionSimpleMapper;
+    private final PlanificadorEjecuciones planificador;
+    private final DespachadorTransacciones despachador;
+    private final RegistroEjecuciones registroEjecuciones;
+    private final MetricasTransacciones metricas;
+    private final ResultadosPendientes resultadosPendientes = new ResultadosPendientes();
+    private final ReentrantLock volcado = new ReentrantLock();
+    private final boolean leaseHabilitado;
+    private final String nodo;
+    private final int tamanioLoteLease;
+    private final Duration duracionLease;
+    private final boolean loteHabilitado;
+    private final int tamanioLote;
+    private final int tamanioVolcado;
+
+    public TransaccionRecurrenteTask(TransaccionRecurrenteService service, ReintentoTransaccionService reintentoService,
+            EnvioTransaccionSimple envioTransaccionSimple, TransaccionSimpleMapper transaccionSimpleMapper, 
+            PlanificadorEjecuciones planificador, DespachadorTransacciones despachador, RegistroEjecuciones registroEjecuciones,
+            MetricasTransacciones metricas,
+            @Value("${transaccion.recurrente.lease.habilitado:false}") boolean leaseHabilitado,
+            @Value("${transaccion.recurrente.nodo-id:${HOSTNAME:local}}") String nodo,
+            @Value("${transaccion.recurrente.lease.tamanio-lote:100}") int tamanioLoteLease,
+            @Value("${transaccion.recurrente.lease.duracion-segundos:120}") long segundosLease,
+            @Value("${transaccion.recurrente.despacho.lote.habilitado:false}") boolean loteHabilitado,
+            @Value("${transaccion.recurrente.despacho.lote.tamanio:500}") int tamanioLote,
+            @Value("${transaccion.recurrente.resultados.tamanio-volcado:500}") int tamanioVolcado) {
         this.service = service;
-        this.transaccionSimpleClient = transaccionSimpleClient;
+        this.reintentoService = reintentoService;
+        this.envioTransaccionSimple = envioTransaccionSimple;
+        this.transaccionSimpleMapper = transaccionSimpleMapper;
+        this.planificador = planificador;
+        this.despachador = despachador;
+        this.registroEjecuciones = registroEjecuciones;
+        this.metricas = metricas;
+        this.leaseHabilitado = leaseHabilitado;
+        this.nodo = nodo;
+        this.tamanioLoteLease = tamanioLoteLease;
+        this.duracionLease = Duration.ofSeconds(segundosLease);
+        if (tamanioLote < 1) {
+            throw new IllegalArgumentException("El tamaño del lote de despacho debe ser al menos 1");
+        }
+        this.loteHabilitado = loteHabilitado;
+        this.tamanioLote = tamanioLote;
+        if (tamanioVolcado < 1) {
+            throw new IllegalArgumentException("El tamaño del bloque de volcado de resultados debe ser al menos 1");
+        }
+        this.tamanioVolcado = tamanioVolcado;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarPlanificacion() {
+        if (leaseHabilitado) {
+            log.info("Modo lease habilitado para el nodo {}: las transacciones vencidas se reclaman en la base de datos", nodo);
+            return;
+        }
+        Set<String> conReintentoPendiente = reintentoService.codigosConReintentoPendiente();
+        LocalDateTime ahora = LocalDateTime.now();
+        service.recorrerPorEstado("ACT", transaccion -> {
+            if (conReintentoPendiente.contains(transaccion.getCodigo())) {
+                // El reintento se despacha por su cuenta, pero la transacción sigue en el calendario de los próximos meses
+                planificador.agendar(transaccion.getCodigo(), transaccion.getDiaMesPago());
+                return;
+            }
+            if (planificador.isModoPrueba() && transaccion.getProximaEjecucion() == null) {
+                log.info("Primera detección de la transacción {} con frecuencia {} minutos", 
+                        transaccion.getCodigo(), TransaccionRecurrenteService.frecuenciaMinutos(transaccion.getFrecuenciaDias()));
+            }
+            planificador.incorporar(transaccion, ahora);
+        });
+        log.info("Planificador cargado con {} transacciones recurrentes activas en la rueda, {} en el calendario mensual y {} con reintento pendiente", 
+                planificador.programadas(), planificador.agendadas(), conReintentoPendiente.size());
+    }
+
+    @Scheduled(initialDelayString = "${transaccion.recurrente.planificador.reconciliacion-ms:60000}", 
+               fixedRateString = "${transaccion.recurrente.planificador.reconciliacion-ms:60000}")
+    public void reconciliarPlanificacion() {
+        if (leaseHabilitado || !planificador.isModoPrueba()) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        List<String> noProgramadas = new ArrayList<>();
+        int leidas = service.recorrerVencidas(ahora, transaccion -> {
+            if (!planificador.estaProgramada(transaccion.getCodigo()) && !despachador.estaEnVuelo(transaccion.getCodigo())) {
+                noProgramadas.add(transaccion.getCodigo());
+            }
+        });
+        int incorporadas = incorporarNoProgramadas(noProgramadas, ahora);
+        metricas.registrarLectura(MetricasTransacciones.ORIGEN_RECONCILIACION, leidas, incorporadas);
+        if (incorporadas > 0) {
+            log.info("Se incorporaron {} transacciones vencidas que no estaban en el planificador", incorporadas);
+        }
+    }
+
+    private int incorporarNoProgramadas(List<String> noProgramadas, LocalDateTime ahora) {
+        if (noProgramadas.isEmpty()) {
+            return 0;
+        }
+        Set<String> conReintentoPendiente = reintentoService.codigosConReintentoPendiente(noProgramadas);
+        int incorporadas = 0;
+        for (String codigo : noProgramadas) {
+            if (!conReintentoPendiente.contains(codigo)) {
+                planificador.programar(codigo, ahora);
+                incorporadas++;
+            }
+        }
+        return incorporadas;
     }
 
-    @Scheduled(fixedRate = 10000)
+    @Scheduled(fixedRateString = "${transaccion.recurrente.planificador.tick-ms:1000}")
     public void procesarTransaccionesRecurrentes() {
-        log.info("Iniciando verificación de transacciones recurrentes: {}", LocalDateTime.now());
-        
-        List<TransaccionRecurrente> transaccionesActivas = service.obtenerPorEstado("ACT");
-        
-        log.info("Se encontraron {} transacciones recurrentes activas", transaccionesActivas.size());
-        
-        int transaccionesEnviadas = 0;
-
-        for (TransaccionRecurrente transaccion : transaccionesActivas) {
-            try {                
-                if (debeEjecutarse(transaccion) || debeReintentarse(transaccion)) {
-                    TransaccionSimpleDTO transaccionSimpleDTO = mapearATransaccionSimple(transaccion);
-
-                    boolean esReintento = ultimoRechazo.containsKey(transaccion.getCodigo());
-                    if (esReintento) {
-                        log.info("Reintentando transacción {} (intento {})", 
-                                transaccion.getCodigo(), 
-                                contadorReintentos.get(transaccion.getCodigo()));
-                    } else {
-                        log.info("Enviando transacción {} al servicio externo", transaccion.getCodigo());
-                    }
+        LocalDateTime inicio = LocalDateTime.now();
+        List<TransaccionRecurrente> transaccionesVencidas = leaseHabilitado 
+                ? reclamarVencidas(inicio) 
+                : obtenerVencidasPlanificadas(inicio);
+        if (transaccionesVencidas.isEmpty()) {
+            return;
+        }
+        log.info("Iniciando verificación de transacciones recurrentes: {}. Se encontraron {} transacciones recurrentes vencidas", 
+                inicio, transaccionesVencidas.size());
+        despacharActivas(transaccionesVencidas, Map.of(), inicio);
+    }
 
-                    ResponseEntity<TransaccionSimpleDTO> respuesta = transaccionSimpleClient.ejecutarTransaccion(transaccionSimpleDTO);
-
-                    if (respuesta.getStatusCode().is2xxSuccessful()) {
-                        log.info("Transacción {} enviada exitosamente", transaccion.getCodigo());                                
-                        service.actualizarDespuesDeEjecucion(transaccion.getCodigo());
-                        transaccionesEnviadas++;
-                        ultimaEjecucion.put(transaccion.getCodigo(), LocalDateTime.now());
-                        // Limpiar datos de reintento si fue exitoso
-                        ultimoRechazo.remove(transaccion.getCodigo());
-                        contadorReintentos.remove(transaccion.getCodigo());
-                    } else {
-                        manejarTransaccionRechazada(transaccion);
-                        log.error("Error al enviar transacción {}: Código de respuesta {}", 
-                                 transaccion.getCodigo(), respuesta.getStatusCode().value());
+    /**
+     * Ejecución diaria fuera del modo prueba: solo lee las transacciones de la cubeta del día en el calendario
+     * mensual. Las que ya se ejecutaron hoy se omiten, así que volver a correrla el mismo día no cobra dos veces.
+     */
+    @Scheduled(cron = "${transaccion.recurrente.calendario.cron:0 0 8 * * *}")
+    public void procesarDiaDePago() {
+        if (leaseHabilitado || planificador.isModoPrueba()) {
+            return;
+        }
+        LocalDateTime inicio = LocalDateTime.now();
+        LocalDate hoy = inicio.toLocalDate();
+        List<String> codigos = planificador.vencenEn(hoy);
+        log.info("Iniciando la ejecución del día de pago {}: {} transacciones en el calendario", hoy, codigos.size());
+        for (int desde = 0; desde < codigos.size(); desde += TAMANIO_BLOQUE_CALENDARIO) {
+            List<String> bloque = codigos.subList(desde, Math.min(desde + TAMANIO_BLOQUE_CALENDARIO, codigos.size()));
+            List<TransaccionRecurrente> pendientes = new ArrayList<>(bloque.size());
+            try {
+                for (TransaccionRecurrente transaccion : service.obtenerPorCodigos(bloque)) {
+                    if (correspondeAlDia(transaccion, hoy)) {
+                        pendientes.add(transaccion);
                     }
                 }
             } catch (Exception e) {
-                manejarTransaccionRechazada(transaccion);
-                log.error("Error al procesar transacción {}: {}", transaccion.getCodigo(), e.getMessage());
+                log.error("Error al obtener un bloque de {} transacciones del día de pago {}: {}", bloque.size(), hoy, e.getMessage());
+                continue;
+            }
+            if (!pendientes.isEmpty()) {
+                despacharActivas(pendientes, Map.of(), inicio);
             }
         }
-        
-        if (transaccionesEnviadas > 0) {
-            log.info("Finalizada verificación de transacciones recurrentes: {}. Se enviaron {} transacciones al microservicio externo", 
-                     LocalDateTime.now(), transaccionesEnviadas);
-        } else {
-            log.info("Finalizada verificación de transacciones recurrentes: {}. No se enviaron transacciones al microservicio externo", 
-                     LocalDateTime.now());
+    }
+
+    private static boolean correspondeAlDia(TransaccionRecurrente transaccion, LocalDate dia) {
+        return (transaccion.getFechaInicio() == null || !transaccion.getFechaInicio().isAfter(dia))
+                && (transaccion.getFechaFin() == null || !transaccion.getFechaFin().isBefore(dia))
+                && (transaccion.getUltimaEjecucion() == null || !transaccion.getUltimaEjecucion().toLocalDate().equals(dia));
+    }
+
+    @Scheduled(fixedRateString = "${transaccion.recurrente.reintentos.intervalo-ms:5000}")
+    public void procesarReintentos() {
+        int capacidad = capacidadDisponible();
+        if (capacidad <= 0) {
+            return;
+        }
+        LocalDateTime inicio = LocalDateTime.now();
+        Map<String, Integer> intentos = new HashMap<>();
+        try {
+            for (ReintentoTransaccion reintento : reintentoService.reclamarVencidos(inicio, capacidad, duracionLease)) {
+                intentos.put(reintento.getId().getCodigoTransaccion(), reintento.getId().getIntento());
+            }
+            if (intentos.isEmpty()) {
+                return;
+            }
+            log.info("Se encontraron {} reintentos vencidos", intentos.size());
+            List<TransaccionRecurrente> transacciones = service.obtenerPorCodigos(intentos.keySet());
+            if (transacciones.size() < intentos.size()
+                    || transacciones.stream().anyMatch(transaccion -> !"ACT".equals(transaccion.getEstado()))) {
+                eliminarReintentosHuerfanos();
+            }
+            despacharActivas(transacciones, intentos, inicio);
+        } catch (Exception e) {
+            log.error("Error al procesar los reintentos vencidos: {}", e.getMessage());
         }
     }
 
-    private void manejarTransaccionRechazada(TransaccionRecurrente transaccion) {
-        String codigo = transaccion.getCodigo();
-        LocalDateTime ahora = LocalDateTime.now();
-        
-        // Inicializar o incrementar contador de reintentos
-        int reintentos = contadorReintentos.getOrDefault(codigo, 0) + 1;
-        contadorReintentos.put(codigo, reintentos);
-        
-        if (reintentos <= MAX_REINTENTOS) {
-            ultimoRechazo.put(codigo, ahora);
-            log.info("Programando reintento {} para la transacción {} en {} minuto(s)", 
-                    reintentos, codigo, MINUTOS_ESPERA_REINTENTO);
+    private void eliminarReintentosHuerfanos() {
+        // Misma sentencia que al arrancar; si falla, los reintentos vuelven a reclamarse al vencer el lease
+        try {
+            reintentoService.eliminarHuerfanos();
+        } catch (Exception e) {
+            log.error("Error al eliminar los reintentos sin transacción activa: {}", e.getMessage());
+        }
+    }
+
+    private void despacharActivas(List<TransaccionRecurrente> transacciones, Map<String, Integer> intentos, LocalDateTime inicio) {
+        String origen = intentos.isEmpty() 
+                ? (leaseHabilitado ? MetricasTransacciones.ORIGEN_LEASE : MetricasTransacciones.ORIGEN_PLANIFICADOR) 
+                : MetricasTransacciones.ORIGEN_REINTENTO;
+        List<TransaccionRecurrente> transaccionesActivas = new ArrayList<>(transacciones.size());
+        for (TransaccionRecurrente transaccion : transacciones) {
+            if (resultadosPendientes.contiene(transaccion.getCodigo())) {
+                // Ya se despachó y su resultado aún no está en la base: enviarla otra vez sería un cobro duplicado
+                log.warn("La transacción {} tiene resultados sin registrar, no se despacha en este ciclo", transaccion.getCodigo());
+                if (!leaseHabilitado && intentos.isEmpty()) {
+                    planificador.programarSiguiente(transaccion, inicio);
+                }
+                continue;
+            }
+            if ("ACT".equals(transaccion.getEstado())) {
+                transaccionesActivas.add(transaccion);
+            } else {
+                log.info("La transacción {} ya no está activa (estado {}), se retira del planificador", 
+                        transaccion.getCodigo(), transaccion.getEstado());
+                transaccionSimpleMapper.descartarPlantilla(transaccion.getCodigo());
+            }
+        }
+
+        metricas.registrarLectura(origen, transacciones.size(), transaccionesActivas.size());
+
+        AtomicInteger transaccionesEnviadas = new AtomicInteger();
+        CompletableFuture<Void> despacho;
+        if (loteHabilitado) {
+            despacho = despachador.despacharLotes(transaccionesActivas, tamanioLote, 
+                    lote -> {
+                        transaccionesEnviadas.addAndGet(procesarLote(lote, intentos, inicio));
+                        volcarSiCorresponde();
+                    });
         } else {
-            log.error("La transacción {} ha excedido el número máximo de reintentos ({}). Cambiando estado a CANCELADO", 
-                    codigo, MAX_REINTENTOS);
-            try {
-                service.actualizarEstado(codigo, "CAN");
-                log.info("Estado de la transacción {} actualizado a CANCELADO", codigo);
-            } catch (Exception e) {
-                log.error("Error al actualizar estado de la transacción {} a CANCELADO: {}", 
-                        codigo, e.getMessage());
+            despacho = despachador.despachar(transaccionesActivas, transaccion -> {
+                int intento = intentos.getOrDefault(transaccion.getCodigo(), EJECUCION_REGULAR);
+                if (procesarTransaccion(transaccion, intento, inicio)) {
+                    transaccionesEnviadas.incrementAndGet();
+                    if (intentos.containsKey(transaccion.getCodigo())) {
+                        resultadosPendientes.registrarReintentoResuelto(transaccion.getCodigo());
+                    }
+                }
+                volcarSiCorresponde();
+            });
+        }
+        despacho.whenComplete((resultado, error) -> {
+            volcarResultados();
+            metricas.registrarCiclo(origen, inicio);
+            if (transaccionesEnviadas.get() > 0) {
+                log.info("Finalizada verificación de transacciones recurrentes: {}. Se enviaron {} transacciones al microservicio externo", 
+                         LocalDateTime.now(), transaccionesEnviadas.get());
+            } else {
+                log.info("Finalizada verificación de transacciones recurrentes: {}. No se enviaron transacciones al microservicio externo", 
+                         LocalDateTime.now());
             }
-            ultimoRechazo.remove(codigo);
-            contadorReintentos.remove(codigo);
+        });
+    }
+
+    /**
+     * Registra los resultados pendientes por bloques de {@code tamanioVolcado}. Además de esta ejecución
+     * periódica, que reintenta los bloques que fallaron, se vuelca durante el ciclo cada vez que se acumula
+     * un bloque, así un envío lento no retrasa el registro de los demás.
+     */
+    @Scheduled(fixedDelayString = "${transaccion.recurrente.resultados.volcado-ms:1000}")
+    public void volcarResultados() {
+        // Si otro hilo ya está volcando, él mismo sigue hasta vaciar los pendientes
+        if (!volcado.tryLock()) {
+            return;
+        }
+        try {
+            while (!resultadosPendientes.estaVacio() && volcarBloque()) {
+                log.debug("Quedan {} resultados pendientes de registrar", resultadosPendientes.tamanio());
+            }
+        } finally {
+            volcado.unlock();
         }
     }
 
-    private boolean debeReintentarse(TransaccionRecurrente transaccion) {
-        LocalDateTime ultimoRechazoTransaccion = ultimoRechazo.get(transaccion.getCodigo());
-        if (ultimoRechazoTransaccion == null) {
-            return false;
+    @PreDestroy
+    public void detener() {
+        volcarResultados();
+        if (!resultadosPendientes.estaVacio()) {
+            log.error("Se detiene el nodo con {} resultados de despacho sin registrar", resultadosPendientes.tamanio());
         }
+    }
 
-        LocalDateTime ahora = LocalDateTime.now();
-        long minutosDesdeRechazo = ChronoUnit.MINUTES.between(ultimoRechazoTransaccion, ahora);
-        
-        return minutosDesdeRechazo >= MINUTOS_ESPERA_REINTENTO;
-    }
-    
-    private boolean debeEjecutarse(TransaccionRecurrente transaccion) {
-        LocalDateTime fechaActual = LocalDateTime.now();
-        LocalDateTime ultima = ultimaEjecucion.get(transaccion.getCodigo());
-        
-        Integer frecuenciaMinutos = transaccion.getFrecuenciaDias();
-        if (frecuenciaMinutos == null || frecuenciaMinutos <= 0) {
-            log.warn("Frecuencia no válida para la transacción {}, usando valor por defecto de 30 minutos", transaccion.getCodigo());
-            frecuenciaMinutos = 30;
-        }
-
-        if (ultima == null) {
-            log.info("Primera detección de la transacción {} con frecuencia {} minutos", 
-                    transaccion.getCodigo(), frecuenciaMinutos);
-            ultimaEjecucion.put(transaccion.getCodigo(), fechaActual);
+    private void volcarSiCorresponde() {
+        if (resultadosPendientes.tamanio() >= tamanioVolcado) {
+            volcarResultados();
+        }
+    }
+
+    private boolean volcarBloque() {
+        ResultadosPendientes.Bloque bloque = resultadosPendientes.tomar(tamanioVolcado);
+        try {
+            bloque.ejecutadasPorFecha().forEach((fecha, codigos) -> service.registrarEjecuciones(codigos, fecha));
+            reintentoService.resolver(bloque.getReintentosResueltos());
+            bloque.cambiosPorEstado().forEach((estado, codigos) -> service.actualizarEstados(codigos, estado));
+        } catch (Exception e) {
+            log.error("Error al registrar un bloque de {} resultados de despacho, se conservan para el siguiente volcado: {}",
+                    bloque.tamanio(), e.getMessage());
             return false;
         }
+        resultadosPendientes.confirmar(bloque);
+        return true;
+    }
 
-        long minutosTranscurridos = ChronoUnit.MINUTES.between(ultima, fechaActual);
-        LocalDateTime proximaEjecucion = ultima.plusMinutes(frecuenciaMinutos);
+    private List<TransaccionRecurrente> obtenerVencidasPlanificadas(LocalDateTime inicio) {
+        List<String> codigosVencidos = planificador.extraerVencidas(inicio);
+        if (codigosVencidos.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return service.obtenerPorCodigos(codigosVencidos);
+        } catch (Exception e) {
+            log.error("Error al obtener las transacciones vencidas, se reprograman {} transacciones: {}", 
+                    codigosVencidos.size(), e.getMessage());
+            for (String codigo : codigosVencidos) {
+                planificador.programar(codigo, inicio.plus(duracionLease));
+            }
+            return List.of();
+        }
+    }
 
-        boolean esHoraExacta = fechaActual.isAfter(proximaEjecucion) || fechaActual.isEqual(proximaEjecucion);
-        boolean dentroDeVentana = fechaActual.getSecond() < 30;
-        
-        if (esHoraExacta && dentroDeVentana) {
-            log.info("Ejecutando transacción {} - Frecuencia: {} minutos, Última ejecución: {}, Próxima programada: {}", 
-                    transaccion.getCodigo(), frecuenciaMinutos, ultima, proximaEjecucion);
-            return true;
+    private List<TransaccionRecurrente> reclamarVencidas(LocalDateTime inicio) {
+        int capacidad = capacidadDisponible();
+        if (capacidad <= 0) {
+            return List.of();
+        }
+        try {
+            return service.reclamarVencidas(nodo, inicio, capacidad, duracionLease);
+        } catch (Exception e) {
+            log.error("Error al reclamar transacciones vencidas para el nodo {}: {}", nodo, e.getMessage());
+            return List.of();
         }
-        
-        return false;
     }
-    
-    private TransaccionSimpleDTO mapearATransaccionSimple(TransaccionRecurrente transaccion) {
-        TransaccionSimpleDTO dto = new TransaccionSimpleDTO();
-        
-        dto.setCodTransaccion(UUID.randomUUID().toString().substring(0, 10));
-        dto.setCodigoUnicoTransaccion(transaccion.getCodigo() + "-" + UUID.randomUUID().toString().substring(0, 5));
-        dto.setTipo("PAG"); // Pago
-        dto.setFecha(LocalDateTime.now());
-        dto.setEstado("ACT");
-        dto.setDiferido(false);
-        dto.setMarca(transaccion.getMarca());
-        dto.setMonto(transaccion.getMonto());
-        dto.setMoneda(transaccion.getMoneda());
-        dto.setPais(transaccion.getPais());
-        
-        if (transaccion.getTarjeta() != null) {
-            dto.setNumeroTarjeta(transaccion.getTarjeta().toString());
-        } else {
-            log.warn("La tarjeta está vacía para la transacción {}, usando valor predeterminado", transaccion.getCodigo());
-            dto.setNumeroTarjeta("4111111111111111");
-        }
-        
-        if (transaccion.getFechaCaducidad() != null) {
-            String mes = String.format("%02d", transaccion.getFechaCaducidad().getMonthValue());
-            String anio = String.valueOf(transaccion.getFechaCaducidad().getYear() % 100);
-            dto.setFechaExpiracion(mes + "/" + anio);
-        } else {
-            log.warn("La fecha de caducidad está vacía para la transacción {}, usando valor predeterminado", transaccion.getCodigo());
-            dto.setFechaExpiracion("12/25");
-        }
-        
-        dto.setSwift_banco(transaccion.getSwiftBanco());
-        dto.setCuenta_iban(transaccion.getCuentaIban());
-        
-        if (transaccion.getCvv() != null && !transaccion.getCvv().isEmpty()) {
+
+    private boolean procesarTransaccion(TransaccionRecurrente transaccion, int intento, LocalDateTime fechaEjecucion) {
+        TransaccionSimpleDTO transaccionSimpleDTO = transaccionSimpleMapper.toCobro(transaccion, LocalDateTime.now());
+        try {
+            if (intento > EJECUCION_REGULAR) {
+                log.info("Reintentando transacción {} (intento {})", transaccion.getCodigo(), intento);
+            } else {
+                log.info("Enviando transacción {} al servicio externo", transaccion.getCodigo());
+            }
+
+            if (intento == EJECUCION_REGULAR) {
+                metricas.registrarRetraso(transaccion, transaccionSimpleDTO.getFecha());
+            }
+
+            long inicioEnvio = System.nanoTime();
+            ResponseEntity<TransaccionSimpleDTO> respuesta;
             try {
-                dto.setCvv(Integer.parseInt(transaccion.getCvv()));
-            } catch (NumberFormatException e) {
-                log.warn("El CVV no es un número válido para la transacción {}, usando valor predeterminado", transaccion.getCodigo());
-                dto.setCvv(123);
+                respuesta = envioTransaccionSimple.ejecutarTransaccion(transaccionSimpleDTO);
+            } catch (ServicioNoDisponibleException e) {
+                metricas.registrarEnvio(transaccion, MetricasTransacciones.RESULTADO_APLAZADO, System.nanoTime() - inicioEnvio);
+                throw e;
+            } catch (Exception e) {
+                metricas.registrarEnvio(transaccion, RegistroEjecuciones.RESULTADO_ERROR, System.nanoTime() - inicioEnvio);
+                throw e;
             }
-        } else {
-            log.warn("El CVV está vacío para la transacción {}, usando valor predeterminado", transaccion.getCodigo());
-            dto.setCvv(123);
+
+            if (respuesta.getStatusCode().is2xxSuccessful()) {
+                metricas.registrarEnvio(transaccion, RegistroEjecuciones.RESULTADO_EXITOSO, System.nanoTime() - inicioEnvio);
+                registrarExito(transaccion, transaccionSimpleDTO, intento, respuesta.getStatusCode().value(), fechaEjecucion);
+                return true;
+            }
+            metricas.registrarEnvio(transaccion, RegistroEjecuciones.RESULTADO_RECHAZADO, System.nanoTime() - inicioEnvio);
+            registrarFallo(transaccion, transaccionSimpleDTO, intento, RegistroEjecuciones.RESULTADO_RECHAZADO, 
+                    respuesta.getStatusCode().value(), "Código de respuesta " + respuesta.getStatusCode().value(), fechaEjecucion);
+        } catch (ServicioNoDisponibleException e) {
+            aplazarTransaccion(transaccion, intento, e);
+        } catch (Exception e) {
+            registrarFallo(transaccion, transaccionSimpleDTO, intento, RegistroEjecuciones.RESULTADO_ERROR, null, e.getMessage(), fechaEjecucion);
+        }
+        return false;
+    }
+
+    private int procesarLote(List<TransaccionRecurrente> lote, Map<String, Integer> intentos, LocalDateTime fechaEjecucion) {
+        Map<String, TransaccionRecurrente> pendientes = new LinkedHashMap<>();
+        Map<String, TransaccionSimpleDTO> enviadas = new LinkedHashMap<>();
+        for (TransaccionRecurrente transaccion : lote) {
+            TransaccionSimpleDTO transaccionSimpleDTO = transaccionSimpleMapper.toCobro(transaccion, LocalDateTime.now());
+            pendientes.put(transaccionSimpleDTO.getCodigoUnicoTransaccion(), transaccion);
+            enviadas.put(transaccionSimpleDTO.getCodigoUnicoTransaccion(), transaccionSimpleDTO);
+            if (!intentos.containsKey(transaccion.getCodigo())) {
+                metricas.registrarRetraso(transaccion, transaccionSimpleDTO.getFecha());
+            }
+        }
+        log.info("Enviando lote de {} transacciones al servicio externo", lote.size());
+        metricas.registrarLote(lote.size());
+
+        List<ResultadoLoteTransaccionDTO> resultadosLote;
+        long inicioEnvio = System.nanoTime();
+        long duracionEnvio;
+        try {
+            ResponseEntity<List<ResultadoLoteTransaccionDTO>> respuesta = 
+                    envioTransaccionSimple.ejecutarLote(new ArrayList<>(enviadas.values()));
+            duracionEnvio = System.nanoTime() - inicioEnvio;
+            resultadosLote = respuesta.getBody();
+            if (!respuesta.getStatusCode().is2xxSuccessful() || resultadosLote == null) {
+                registrarEnvios(lote, RegistroEjecuciones.RESULTADO_RECHAZADO, duracionEnvio);
+                String motivo = "Código de respuesta del lote " + respuesta.getStatusCode().value();
+                pendientes.forEach((codigoUnico, transaccion) -> registrarFallo(transaccion, enviadas.get(codigoUnico), 
+                        intentos.getOrDefault(transaccion.getCodigo(), EJECUCION_REGULAR), RegistroEjecuciones.RESULTADO_RECHAZADO, 
+                        respuesta.getStatusCode().value(), motivo, fechaEjecucion));
+                return 0;
+            }
+        } catch (ServicioNoDisponibleException e) {
+            registrarEnvios(lote, MetricasTransacciones.RESULTADO_APLAZADO, System.nanoTime() - inicioEnvio);
+            for (TransaccionRecurrente transaccion : lote) {
+                aplazarTransaccion(transaccion, intentos.getOrDefault(transaccion.getCodigo(), EJECUCION_REGULAR), e);
+            }
+            return 0;
+        } catch (Exception e) {
+            registrarEnvios(lote, RegistroEjecuciones.RESULTADO_ERROR, System.nanoTime() - inicioEnvio);
+            pendientes.forEach((codigoUnico, transaccion) -> registrarFallo(transaccion, enviadas.get(codigoUnico), 
+                    intentos.getOrDefault(transaccion.getCodigo(), EJECUCION_REGULAR), RegistroEjecuciones.RESULTADO_ERROR, 
+                    null, e.getMessage(), fechaEjecucion));
+            return 0;
         }
-        
-        dto.setFrecuenciaDias(transaccion.getFrecuenciaDias());
-        if (dto.getFrecuenciaDias() == null) {
-            log.warn("La frecuencia está vacía para la transacción {}, usando valor predeterminado de 30 minutos", transaccion.getCodigo());
-            dto.setFrecuenciaDias(30);
+
+        int exitosas = 0;
+        for (ResultadoLoteTransaccionDTO resultadoLote : resultadosLote) {
+            TransaccionRecurrente transaccion = pendientes.remove(resultadoLote.getCodigoUnicoTransaccion());
+            if (transaccion == null) {
+                continue;
+            }
+            int intento = intentos.getOrDefault(transaccion.getCodigo(), EJECUCION_REGULAR);
+            TransaccionSimpleDTO transaccionSimpleDTO = enviadas.get(resultadoLote.getCodigoUnicoTransaccion());
+            Integer codigoRespuesta = resultadoLote.getCodigoRespuesta();
+            if (codigoRespuesta != null && codigoRespuesta >= 200 && codigoRespuesta < 300) {
+                metricas.registrarEnvio(transaccion, RegistroEjecuciones.RESULTADO_EXITOSO, duracionEnvio);
+                registrarExito(transaccion, transaccionSimpleDTO, intento, codigoRespuesta, fechaEjecucion);
+                if (intentos.containsKey(transaccion.getCodigo())) {
+                    resultadosPendientes.registrarReintentoResuelto(transaccion.getCodigo());
+                }
+                exitosas++;
+            } else {
+                metricas.registrarEnvio(transaccion, RegistroEjecuciones.RESULTADO_RECHAZADO, duracionEnvio);
+                String motivo = resultadoLote.getMensaje() != null ? resultadoLote.getMensaje() : "Código de respuesta " + codigoRespuesta;
+                registrarFallo(transaccion, transaccionSimpleDTO, intento, RegistroEjecuciones.RESULTADO_RECHAZADO, 
+                        codigoRespuesta, motivo, fechaEjecucion);
+            }
         }
-        
-        return dto;
+        // Las transacciones sin resultado en la respuesta se tratan como fallidas para que pasen a reintento
+        registrarEnvios(pendientes.values(), RegistroEjecuciones.RESULTADO_ERROR, duracionEnvio);
+        pendientes.forEach((codigoUnico, transaccion) -> registrarFallo(transaccion, enviadas.get(codigoUnico), 
+                intentos.getOrDefault(transaccion.getCodigo(), EJECUCION_REGULAR), RegistroEjecuciones.RESULTADO_ERROR, 
+                null, "Sin resultado en la respuesta del lote", fechaEjecucion));
+        return exitosas;
+    }
+
+    private void registrarEnvios(Collection<TransaccionRecurrente> transacciones, String resultado, long nanos) {
+        for (TransaccionRecurrente transaccion : transacciones) {
+            metricas.registrarEnvio(transaccion, resultado, nanos);
+        }
+    }
+
+    private void registrarExito(TransaccionRecurrente transaccion, TransaccionSimpleDTO transaccionSimpleDTO, int intento, 
+            int codigoRespuesta, LocalDateTime fechaEjecucion) {
+        log.info("Transacción {} enviada exitosamente", transaccion.getCodigo());
+        registroEjecuciones.registrar(transaccion, transaccionSimpleDTO.getCodigoUnicoTransaccion(), intento, 
+                LocalDateTime.now(), RegistroEjecuciones.RESULTADO_EXITOSO, codigoRespuesta, null);
+        resultadosPendientes.registrarEjecucion(transaccion.getCodigo(), fechaEjecucion);
+        if (!leaseHabilitado) {
+            planificador.programarSiguiente(transaccion, fechaEjecucion);
+        }
+    }
+
+    private void registrarFallo(TransaccionRecurrente transaccion, TransaccionSimpleDTO transaccionSimpleDTO, int intento, 
+            String resultado, Integer codigoRespuesta, String motivo, LocalDateTime fechaEjecucion) {
+        log.error("Error al enviar transacción {}: {}", transaccion.getCodigo(), motivo);
+        registroEjecuciones.registrar(transaccion, transaccionSimpleDTO.getCodigoUnicoTransaccion(), intento, 
+                LocalDateTime.now(), resultado, codigoRespuesta, motivo);
+        manejarTransaccionRechazada(transaccion, intento, motivo, fechaEjecucion);
+    }
+
+    private int capacidadDisponible() {
+        if (loteHabilitado) {
+            return Math.min(tamanioLoteLease, despachador.permisosDisponibles() * tamanioLote);
+        }
+        return Math.min(tamanioLoteLease, despachador.getConcurrenciaMaxima() - despachador.enVuelo());
+    }
+
+    private void aplazarTransaccion(TransaccionRecurrente transaccion, int intento, ServicioNoDisponibleException causa) {
+        String codigo = transaccion.getCodigo();
+        try {
+            reintentoService.aplazar(codigo, intento, causa.getMessage(), LocalDateTime.now(), causa.getEsperaSugerida());
+            metricas.registrarReintento("aplazamiento");
+        } catch (Exception e) {
+            log.error("Error al aplazar la transacción {}: {}", codigo, e.getMessage());
+            if (!leaseHabilitado) {
+                planificador.programar(codigo, LocalDateTime.now().plus(causa.getEsperaSugerida()));
+            }
+        }
+    }
+
+    private void manejarTransaccionRechazada(TransaccionRecurrente transaccion, int intento, String motivo, LocalDateTime fechaEjecucion) {
+        String codigo = transaccion.getCodigo();
+        try {
+            ReintentoTransaccion reintento = reintentoService.registrarRechazo(codigo, intento, motivo, LocalDateTime.now());
+            if (reintento != null) {
+                metricas.registrarReintento("rechazo");
+                return;
+            }
+        } catch (Exception e) {
+            log.error("Error al registrar el reintento de la transacción {}: {}", codigo, e.getMessage());
+            if (!leaseHabilitado) {
+                planificador.programar(codigo, LocalDateTime.now().plus(duracionLease));
+            }
+            return;
+        }
+
+        log.error("La transacción {} ha excedido el número máximo de reintentos. Cambiando estado a CANCELADO", codigo);
+        resultadosPendientes.registrarCambioEstado(codigo, "CAN");
+        metricas.registrarCancelacion();
+        transaccionSimpleMapper.descartarPlantilla(codigo);
     }
 } 
\ No newline at end of file
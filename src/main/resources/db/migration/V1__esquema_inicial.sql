@@ -0,0 +1,71 @@
+-- Esquema que hasta ahora generaba Hibernate con ddl-auto=update. Se usa IF NOT EXISTS para que
+-- las bases ya creadas así (baseline en la versión 0) puedan aplicar esta migración: las tablas nuevas
+-- se crean completas y a la tabla existente se le agregan las columnas posteriores a esa versión.
+
+CREATE TABLE IF NOT EXISTS GTW_TRANSACCION_RECURRENTE (
+    COD_TRANSACCION_RECURRENTE VARCHAR(10) NOT NULL,
+    MONTO NUMERIC(20, 2) NOT NULL,
+    MARCA VARCHAR(4),
+    ESTADO VARCHAR(3),
+    FECHA_INICIO DATE,
+    FECHA_FIN DATE,
+    DIA_MES_PAGO INTEGER,
+    SWIFT_BANCO VARCHAR(11),
+    CUENTA_IBAN VARCHAR(28),
+    MONEDA VARCHAR(3),
+    PAIS VARCHAR(2),
+    TARJETA BIGINT,
+    FECHA_CADUCIDAD DATE,
+    CVV VARCHAR(255),
+    FRECUENCIA_DIAS INTEGER,
+    ULTIMA_EJECUCION TIMESTAMP(6),
+    PROXIMA_EJECUCION TIMESTAMP(6),
+    LEASE_NODO VARCHAR(64),
+    LEASE_EXPIRA TIMESTAMP(6),
+    PRIMARY KEY (COD_TRANSACCION_RECURRENTE)
+);
+
+-- Columnas que no existían en el esquema generado por Hibernate; CREATE TABLE IF NOT EXISTS no las agrega
+ALTER TABLE GTW_TRANSACCION_RECURRENTE ADD COLUMN IF NOT EXISTS ULTIMA_EJECUCION TIMESTAMP(6);
+ALTER TABLE GTW_TRANSACCION_RECURRENTE ADD COLUMN IF NOT EXISTS PROXIMA_EJECUCION TIMESTAMP(6);
+ALTER TABLE GTW_TRANSACCION_RECURRENTE ADD COLUMN IF NOT EXISTS LEASE_NODO VARCHAR(64);
+ALTER TABLE GTW_TRANSACCION_RECURRENTE ADD COLUMN IF NOT EXISTS LEASE_EXPIRA TIMESTAMP(6);
+
+CREATE TABLE IF NOT EXISTS GTW_REINTENTO_TRANSACCION (
+    COD_TRANSACCION_RECURRENTE VARCHAR(10) NOT NULL,
+    INTENTO INTEGER NOT NULL,
+    FECHA_REINTENTO TIMESTAMP(6) NOT NULL,
+    FECHA_RECHAZO TIMESTAMP(6) NOT NULL,
+    MOTIVO VARCHAR(200),
+    PRIMARY KEY (COD_TRANSACCION_RECURRENTE, INTENTO)
+);
+
+CREATE TABLE IF NOT EXISTS GTW_EJECUCION_TRANSACCION (
+    ID_EJECUCION BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    COD_TRANSACCION_RECURRENTE VARCHAR(10) NOT NULL,
+    COD_UNICO_TRANSACCION VARCHAR(64) NOT NULL,
+    INTENTO INTEGER NOT NULL,
+    FECHA_EJECUCION TIMESTAMP(6) NOT NULL,
+    MONTO NUMERIC(20, 2),
+    RESULTADO VARCHAR(3) NOT NULL,
+    CODIGO_RESPUESTA INTEGER,
+    DETALLE VARCHAR(200),
+    PRIMARY KEY (ID_EJECUCION)
+);
+
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_ESTADO_PROXIMA
+    ON GTW_TRANSACCION_RECURRENTE (ESTADO, PROXIMA_EJECUCION);
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_MONTO_COD
+    ON GTW_TRANSACCION_RECURRENTE (MONTO, COD_TRANSACCION_RECURRENTE);
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_INICIO_COD
+    ON GTW_TRANSACCION_RECURRENTE (FECHA_INICIO, COD_TRANSACCION_RECURRENTE);
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_DIA_COD
+    ON GTW_TRANSACCION_RECURRENTE (DIA_MES_PAGO, COD_TRANSACCION_RECURRENTE);
+
+CREATE INDEX IF NOT EXISTS IDX_REINTENTO_TRANSACCION_FECHA
+    ON GTW_REINTENTO_TRANSACCION (FECHA_REINTENTO);
+
+CREATE INDEX IF NOT EXISTS IDX_EJECUCION_TRANSACCION_CODIGO_FECHA
+    ON GTW_EJECUCION_TRANSACCION (COD_TRANSACCION_RECURRENTE, FECHA_EJECUCION);
+CREATE INDEX IF NOT EXISTS IDX_EJECUCION_TRANSACCION_FECHA
+    ON GTW_EJECUCION_TRANSACCION (FECHA_EJECUCION);
@@ -0,0 +1,20 @@
+-- Índices para las rutas de acceso de TransaccionRecurrenteRepository que no tenían ninguno.
+-- findByEstado, streamByEstado, streamByEstadoAndProximaEjecucionLessThanEqual y bloquearVencidasSinLease
+-- ya usan IDX_TRANSACCION_RECURRENTE_ESTADO_PROXIMA y findByDiaMesPago usa IDX_TRANSACCION_RECURRENTE_DIA_COD.
+
+-- findByEstadoAndDiaMesPagoAndFechaFinGreaterThanEqual y buscarConFiltros(estado, diaMesPago)
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_ESTADO_DIA_FIN
+    ON GTW_TRANSACCION_RECURRENTE (ESTADO, DIA_MES_PAGO, FECHA_FIN);
+
+-- findByEstadoAndFechaFinLessThanEqual
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_ESTADO_FIN
+    ON GTW_TRANSACCION_RECURRENTE (ESTADO, FECHA_FIN);
+
+-- findByCuentaIban y findByCuentaIbanAndEstado
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_CUENTA_ESTADO
+    ON GTW_TRANSACCION_RECURRENTE (CUENTA_IBAN, ESTADO);
+
+-- buscarConFiltros(pais[, estado])
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_PAIS_ESTADO
+    ON GTW_TRANSACCION_RECURRENTE (PAIS, ESTADO);
+
@@ -0,0 +1,20 @@
+-- Punto de control de las importaciones masivas desde archivos csv. POSICION es el byte del archivo
+-- hasta el que las filas ya están cargadas y POSICION_RECHAZOS el tamaño confirmado del archivo de
+-- rechazos; ambos se actualizan en la misma transacción que el COPY de cada bloque.
+
+CREATE TABLE IF NOT EXISTS GTW_IMPORTACION_TRANSACCION (
+    ID_IMPORTACION BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    ARCHIVO VARCHAR(255) NOT NULL,
+    TAMANIO_ARCHIVO BIGINT NOT NULL,
+    ESTADO VARCHAR(3) NOT NULL,
+    POSICION BIGINT NOT NULL,
+    POSICION_RECHAZOS BIGINT NOT NULL,
+    LINEAS BIGINT NOT NULL,
+    CARGADAS BIGINT NOT NULL,
+    RECHAZADAS BIGINT NOT NULL,
+    MENSAJE VARCHAR(200),
+    FECHA_INICIO TIMESTAMP(6) NOT NULL,
+    FECHA_ACTUALIZACION TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (ID_IMPORTACION),
+    CONSTRAINT UK_IMPORTACION_TRANSACCION_ARCHIVO UNIQUE (ARCHIVO)
+);
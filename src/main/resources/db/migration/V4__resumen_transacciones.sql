@@ -0,0 +1,94 @@
+-- Resumen de la cartera por estado, país, moneda y día de pago. Se mantiene de forma incremental con
+-- triggers por sentencia sobre GTW_TRANSACCION_RECURRENTE: cada INSERT, UPDATE, DELETE o COPY aplica al
+-- resumen solo la diferencia entre las filas anteriores y las nuevas, agrupada, en una única sentencia.
+-- Los valores nulos se guardan como '' y 0 porque forman parte de la clave primaria.
+
+CREATE TABLE IF NOT EXISTS GTW_RESUMEN_TRANSACCION (
+    ESTADO VARCHAR(3) NOT NULL,
+    PAIS VARCHAR(2) NOT NULL,
+    MONEDA VARCHAR(3) NOT NULL,
+    DIA_MES_PAGO INTEGER NOT NULL,
+    CANTIDAD BIGINT NOT NULL,
+    MONTO_TOTAL NUMERIC(24, 2) NOT NULL,
+    PRIMARY KEY (ESTADO, PAIS, MONEDA, DIA_MES_PAGO)
+);
+
+CREATE OR REPLACE FUNCTION GTW_ACTUALIZAR_RESUMEN_TRANSACCION() RETURNS TRIGGER AS $$
+BEGIN
+    -- El orden de la clave fija el orden de bloqueo de las filas del resumen entre sentencias concurrentes
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO GTW_RESUMEN_TRANSACCION AS r (ESTADO, PAIS, MONEDA, DIA_MES_PAGO, CANTIDAD, MONTO_TOTAL)
+        SELECT COALESCE(ESTADO, ''), COALESCE(PAIS, ''), COALESCE(MONEDA, ''), COALESCE(DIA_MES_PAGO, 0), count(*), sum(MONTO)
+        FROM NUEVAS
+        GROUP BY 1, 2, 3, 4
+        ORDER BY 1, 2, 3, 4
+        ON CONFLICT (ESTADO, PAIS, MONEDA, DIA_MES_PAGO) DO UPDATE
+            SET CANTIDAD = r.CANTIDAD + EXCLUDED.CANTIDAD, MONTO_TOTAL = r.MONTO_TOTAL + EXCLUDED.MONTO_TOTAL;
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE GTW_RESUMEN_TRANSACCION r
+        SET CANTIDAD = r.CANTIDAD - d.CANTIDAD, MONTO_TOTAL = r.MONTO_TOTAL - d.MONTO_TOTAL
+        FROM (SELECT COALESCE(ESTADO, '') AS ESTADO, COALESCE(PAIS, '') AS PAIS, COALESCE(MONEDA, '') AS MONEDA,
+                     COALESCE(DIA_MES_PAGO, 0) AS DIA_MES_PAGO, count(*) AS CANTIDAD, sum(MONTO) AS MONTO_TOTAL
+              FROM VIEJAS
+              GROUP BY 1, 2, 3, 4) d
+        WHERE r.ESTADO = d.ESTADO AND r.PAIS = d.PAIS AND r.MONEDA = d.MONEDA AND r.DIA_MES_PAGO = d.DIA_MES_PAGO;
+    ELSE
+        -- Las actualizaciones que no tocan las columnas del resumen (próxima ejecución, lease) suman cero
+        -- en cada grupo y no escriben nada
+        INSERT INTO GTW_RESUMEN_TRANSACCION AS r (ESTADO, PAIS, MONEDA, DIA_MES_PAGO, CANTIDAD, MONTO_TOTAL)
+        SELECT ESTADO, PAIS, MONEDA, DIA_MES_PAGO, sum(CANTIDAD), sum(MONTO_TOTAL)
+        FROM (SELECT COALESCE(ESTADO, '') AS ESTADO, COALESCE(PAIS, '') AS PAIS, COALESCE(MONEDA, '') AS MONEDA,
+                     COALESCE(DIA_MES_PAGO, 0) AS DIA_MES_PAGO, 1 AS CANTIDAD, MONTO AS MONTO_TOTAL
+              FROM NUEVAS
+              UNION ALL
+              SELECT COALESCE(ESTADO, ''), COALESCE(PAIS, ''), COALESCE(MONEDA, ''), COALESCE(DIA_MES_PAGO, 0), -1, -MONTO
+              FROM VIEJAS) cambios
+        GROUP BY ESTADO, PAIS, MONEDA, DIA_MES_PAGO
+        HAVING sum(CANTIDAD) <> 0 OR sum(MONTO_TOTAL) <> 0
+        ORDER BY ESTADO, PAIS, MONEDA, DIA_MES_PAGO
+        ON CONFLICT (ESTADO, PAIS, MONEDA, DIA_MES_PAGO) DO UPDATE
+            SET CANTIDAD = r.CANTIDAD + EXCLUDED.CANTIDAD, MONTO_TOTAL = r.MONTO_TOTAL + EXCLUDED.MONTO_TOTAL;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION GTW_VACIAR_RESUMEN_TRANSACCION() RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM GTW_RESUMEN_TRANSACCION;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Se bloquean las escrituras mientras se crean los triggers y se carga el resumen inicial, para que
+-- ninguna fila quede fuera del resumen ni se cuente dos veces
+LOCK TABLE GTW_TRANSACCION_RECURRENTE IN SHARE ROW EXCLUSIVE MODE;
+
+DROP TRIGGER IF EXISTS TRG_RESUMEN_TRANSACCION_INSERT ON GTW_TRANSACCION_RECURRENTE;
+CREATE TRIGGER TRG_RESUMEN_TRANSACCION_INSERT
+    AFTER INSERT ON GTW_TRANSACCION_RECURRENTE
+    REFERENCING NEW TABLE AS NUEVAS
+    FOR EACH STATEMENT EXECUTE FUNCTION GTW_ACTUALIZAR_RESUMEN_TRANSACCION();
+
+DROP TRIGGER IF EXISTS TRG_RESUMEN_TRANSACCION_UPDATE ON GTW_TRANSACCION_RECURRENTE;
+CREATE TRIGGER TRG_RESUMEN_TRANSACCION_UPDATE
+    AFTER UPDATE ON GTW_TRANSACCION_RECURRENTE
+    REFERENCING OLD TABLE AS VIEJAS NEW TABLE AS NUEVAS
+    FOR EACH STATEMENT EXECUTE FUNCTION GTW_ACTUALIZAR_RESUMEN_TRANSACCION();
+
+DROP TRIGGER IF EXISTS TRG_RESUMEN_TRANSACCION_DELETE ON GTW_TRANSACCION_RECURRENTE;
+CREATE TRIGGER TRG_RESUMEN_TRANSACCION_DELETE
+    AFTER DELETE ON GTW_TRANSACCION_RECURRENTE
+    REFERENCING OLD TABLE AS VIEJAS
+    FOR EACH STATEMENT EXECUTE FUNCTION GTW_ACTUALIZAR_RESUMEN_TRANSACCION();
+
+DROP TRIGGER IF EXISTS TRG_RESUMEN_TRANSACCION_TRUNCATE ON GTW_TRANSACCION_RECURRENTE;
+CREATE TRIGGER TRG_RESUMEN_TRANSACCION_TRUNCATE
+    AFTER TRUNCATE ON GTW_TRANSACCION_RECURRENTE
+    FOR EACH STATEMENT EXECUTE FUNCTION GTW_VACIAR_RESUMEN_TRANSACCION();
+
+DELETE FROM GTW_RESUMEN_TRANSACCION;
+INSERT INTO GTW_RESUMEN_TRANSACCION (ESTADO, PAIS, MONEDA, DIA_MES_PAGO, CANTIDAD, MONTO_TOTAL)
+SELECT COALESCE(ESTADO, ''), COALESCE(PAIS, ''), COALESCE(MONEDA, ''), COALESCE(DIA_MES_PAGO, 0), count(*), sum(MONTO)
+FROM GTW_TRANSACCION_RECURRENTE
+GROUP BY 1, 2, 3, 4;
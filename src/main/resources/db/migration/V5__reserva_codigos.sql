@@ -0,0 +1,10 @@
+-- Último segundo reservado por cada nodo del generador de códigos temporal. Un nodo solo emite códigos de
+-- segundos ya reservados aquí, así que al reiniciar continúa después de SEGUNDO_RESERVADO sin repetir
+-- códigos aunque reinicie en el mismo segundo, haya tomado prestados segundos futuros o el reloj retroceda.
+
+CREATE TABLE IF NOT EXISTS GTW_RESERVA_CODIGO (
+    NODO SMALLINT NOT NULL,
+    SEGUNDO_RESERVADO BIGINT NOT NULL,
+    FECHA_ACTUALIZACION TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (NODO)
+);
@@ -0,0 +1,17 @@
+-- Índices parciales para las rutas que el planificador recorre en cada ciclo y que solo leen transacciones
+-- activas. Las consultas que los usan llevan ESTADO = 'ACT' como literal para que PostgreSQL pueda
+-- demostrar el predicado también con planes genéricos de sentencias preparadas.
+-- Los índices compuestos de V1 y V2 se mantienen para las consultas que reciben el estado como parámetro
+-- (findByEstado*, streamByEstado y buscarConFiltros).
+
+-- buscarActivasPorDiaPago
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_ACT_DIA_FIN
+    ON GTW_TRANSACCION_RECURRENTE (DIA_MES_PAGO, FECHA_FIN) WHERE ESTADO = 'ACT';
+
+-- finalizarVencidas
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_ACT_FIN
+    ON GTW_TRANSACCION_RECURRENTE (FECHA_FIN) WHERE ESTADO = 'ACT';
+
+-- streamActivasVencidas y bloquearVencidasSinLease
+CREATE INDEX IF NOT EXISTS IDX_TRANSACCION_RECURRENTE_ACT_PROXIMA
+    ON GTW_TRANSACCION_RECURRENTE (PROXIMA_EJECUCION) WHERE ESTADO = 'ACT';
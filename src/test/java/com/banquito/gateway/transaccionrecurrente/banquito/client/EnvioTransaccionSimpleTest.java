@@ -0,0 +1,65 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.client.dto.TransaccionSimpleDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.ServicioNoDisponibleException;
+
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+public class EnvioTransaccionSimpleTest {
+
+    private TransaccionSimpleClient client;
+    private EnvioTransaccionSimple envio;
+
+    @BeforeEach
+    public void setup() {
+        client = mock(TransaccionSimpleClient.class);
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(5)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .build();
+        envio = new EnvioTransaccionSimple(client, CircuitBreakerRegistry.of(config), BulkheadRegistry.ofDefaults());
+    }
+
+    @Test
+    public void testEjecutarTransaccion_CircuitoAbiertoNoLlamaAlServicio() {
+        when(client.ejecutarTransaccion(any(TransaccionSimpleDTO.class)))
+                .thenThrow(new RetryableException(-1, "Read timed out", Request.HttpMethod.POST, (Long) null, solicitud()));
+        for (int i = 0; i < 5; i++) {
+            assertThrows(RetryableException.class, () -> envio.ejecutarTransaccion(new TransaccionSimpleDTO()));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, envio.getEstado());
+
+        ServicioNoDisponibleException excepcion = assertThrows(ServicioNoDisponibleException.class, 
+                () -> envio.ejecutarTransaccion(new TransaccionSimpleDTO()));
+
+        assertEquals(Duration.ofSeconds(30), excepcion.getEsperaSugerida());
+        verify(client, times(5)).ejecutarTransaccion(any(TransaccionSimpleDTO.class));
+    }
+
+    private static Request solicitud() {
+        return Request.create(Request.HttpMethod.POST, "http://localhost/api/v1/transacciones/recurrentes", 
+                Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+}
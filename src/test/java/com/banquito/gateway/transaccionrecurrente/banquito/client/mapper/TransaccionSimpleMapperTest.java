@@ -0,0 +1,110 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.client.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.client.dto.TransaccionSimpleDTO;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigoTemporal;
+
+public class TransaccionSimpleMapperTest {
+
+    private final TransaccionSimpleMapper mapper = new TransaccionSimpleMapper(new GeneradorCodigoTemporal(1, (nodo, hasta) -> hasta), 100);
+
+    @Test
+    public void testToTransaccionSimpleDTO_NullModel() {
+        assertNull(mapper.toTransaccionSimpleDTO(null));
+    }
+
+    @Test
+    public void testToCobro_CamposEstaticosDeLaPlantilla() {
+        LocalDateTime fecha = LocalDateTime.of(2025, 3, 10, 8, 30);
+
+        TransaccionSimpleDTO dto = mapper.toCobro(transaccion("TR12345678"), fecha);
+
+        assertEquals("PAG", dto.getTipo());
+        assertEquals("ACT", dto.getEstado());
+        assertFalse(dto.getDiferido());
+        assertEquals("VISA", dto.getMarca());
+        assertEquals(new BigDecimal("100.50"), dto.getMonto());
+        assertEquals("USD", dto.getMoneda());
+        assertEquals("EC", dto.getPais());
+        assertEquals("4532015112830366", dto.getNumeroTarjeta());
+        assertEquals("07/27", dto.getFechaExpiracion());
+        assertEquals("BANKEC21XXX", dto.getSwift_banco());
+        assertEquals("EC12345678901234567890", dto.getCuenta_iban());
+        assertEquals(456, dto.getCvv());
+        assertEquals(15, dto.getFrecuenciaDias());
+        assertEquals(fecha, dto.getFecha());
+        assertTrue(dto.getCodTransaccion().matches("[0-9A-HJKMNP-TV-Z]{10}"));
+        assertTrue(dto.getCodigoUnicoTransaccion().matches("TR12345678-[0-9a-f]{5}"));
+    }
+
+    @Test
+    public void testToCobro_ValoresPorDefecto() {
+        TransaccionRecurrente transaccion = transaccion("TR12345678");
+        transaccion.setTarjeta(null);
+        transaccion.setFechaCaducidad(null);
+        transaccion.setCvv("abc");
+        transaccion.setFrecuenciaDias(null);
+
+        TransaccionSimpleDTO dto = mapper.toCobro(transaccion, LocalDateTime.now());
+
+        assertEquals("4111111111111111", dto.getNumeroTarjeta());
+        assertEquals("12/25", dto.getFechaExpiracion());
+        assertEquals(123, dto.getCvv());
+        assertEquals(30, dto.getFrecuenciaDias());
+    }
+
+    @Test
+    public void testObtenerPlantilla_SeReutilizaHastaQueCambiaLaSuscripcion() {
+        TransaccionRecurrente transaccion = transaccion("TR12345678");
+        PlantillaTransaccionSimple plantilla = mapper.obtenerPlantilla(transaccion);
+
+        assertSame(plantilla, mapper.obtenerPlantilla(transaccion("TR12345678")));
+        assertNotSame(mapper.toCobro(transaccion, LocalDateTime.now()), mapper.toCobro(transaccion, LocalDateTime.now()));
+
+        transaccion.setFechaCaducidad(LocalDate.of(2030, 11, 30));
+        PlantillaTransaccionSimple actualizada = mapper.obtenerPlantilla(transaccion);
+        assertNotSame(plantilla, actualizada);
+        assertEquals("11/30", actualizada.instanciar("X", "Y", LocalDateTime.now()).getFechaExpiracion());
+    }
+
+    @Test
+    public void testObtenerPlantilla_CapacidadAcotada() {
+        TransaccionSimpleMapper acotado = new TransaccionSimpleMapper(new GeneradorCodigoTemporal(1, (nodo, hasta) -> hasta), 10);
+        for (int i = 0; i < 50; i++) {
+            acotado.obtenerPlantilla(transaccion(String.format("TR%08d", i)));
+        }
+        assertEquals(10, acotado.plantillasEnCache());
+
+        acotado.descartarPlantilla("TR00000049");
+        assertEquals(9, acotado.plantillasEnCache());
+    }
+
+    private static TransaccionRecurrente transaccion(String codigo) {
+        TransaccionRecurrente transaccion = new TransaccionRecurrente(codigo);
+        transaccion.setMonto(new BigDecimal("100.50"));
+        transaccion.setMarca("VISA");
+        transaccion.setEstado("ACT");
+        transaccion.setMoneda("USD");
+        transaccion.setPais("EC");
+        transaccion.setTarjeta(4532015112830366L);
+        transaccion.setFechaCaducidad(LocalDate.of(2027, 7, 31));
+        transaccion.setSwiftBanco("BANKEC21XXX");
+        transaccion.setCuentaIban("EC12345678901234567890");
+        transaccion.setCvv("456");
+        transaccion.setFrecuenciaDias(15);
+        return transaccion;
+    }
+}
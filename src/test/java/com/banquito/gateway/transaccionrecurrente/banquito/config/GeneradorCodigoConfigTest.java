@@ -0,0 +1,23 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.config;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigoAleatorio;
+
+public class GeneradorCodigoConfigTest {
+
+    private final GeneradorCodigoConfig config = new GeneradorCodigoConfig();
+
+    @Test
+    public void testGeneradorCodigo_TemporalSinNodoExplicitoNoArranca() {
+        assertThrows(IllegalStateException.class, () -> config.generadorCodigo("temporal", -1, "pod-1", (nodo, hasta) -> hasta));
+    }
+
+    @Test
+    public void testGeneradorCodigo_AleatorioNoRequiereNodo() {
+        assertInstanceOf(GeneradorCodigoAleatorio.class, config.generadorCodigo("aleatorio", -1, "pod-1", (nodo, hasta) -> hasta));
+    }
+}
@@ -0,0 +1,79 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+
+import com.sun.net.httpserver.HttpServer;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class TransporteHttpConfigTest {
+
+    private final ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(FeignAutoConfiguration.class, MetricsAutoConfiguration.class,
+                    SimpleMetricsExportAutoConfiguration.class))
+            .withUserConfiguration(TransporteHttpConfig.class)
+            .withPropertyValues(
+                    "spring.cloud.openfeign.httpclient.hc5.enabled=true",
+                    "spring.cloud.openfeign.httpclient.max-connections=200",
+                    "spring.cloud.openfeign.httpclient.max-connections-per-route=50");
+
+    private HttpServer servidor;
+
+    @BeforeEach
+    public void iniciarServidor() throws Exception {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/", intercambio -> {
+            intercambio.getRequestBody().readAllBytes();
+            byte[] respuesta = "{}".getBytes(StandardCharsets.UTF_8);
+            intercambio.sendResponseHeaders(201, respuesta.length);
+            intercambio.getResponseBody().write(respuesta);
+            intercambio.close();
+        });
+        servidor.start();
+    }
+
+    @AfterEach
+    public void detenerServidor() {
+        servidor.stop(0);
+    }
+
+    @Test
+    public void testMetricasPool_SeRegistranParaElClienteConfigurado() {
+        contexto.run(context -> {
+            Client cliente = context.getBean(Client.class);
+            assertInstanceOf(ApacheHttp5Client.class, cliente);
+
+            Request solicitud = Request.create(Request.HttpMethod.POST, "http://127.0.0.1:" + servidor.getAddress().getPort() + "/",
+                    Map.<String, Collection<String>>of(), "{}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, null);
+            try (Response respuesta = cliente.execute(solicitud, new Request.Options())) {
+                assertEquals(201, respuesta.status());
+            }
+
+            MeterRegistry registro = context.getBean(MeterRegistry.class);
+            assertEquals(200, registro.get("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", TransporteHttpConfig.POOL_TRANSACCION_SIMPLE).gauge().value());
+            // La conexión vuelve al pool al cerrar la respuesta y queda disponible para reutilizarse
+            assertEquals(1, registro.get("httpcomponents.httpclient.pool.total.connections")
+                    .tag("state", "available").gauge().value());
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper.TransaccionRecurrenteMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+public class ExportadorTransaccionesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ExportadorTransacciones exportador = new ExportadorTransacciones(objectMapper, new TransaccionRecurrenteMapper());
+
+    @Test
+    public void testExportar_NdjsonUnaLineaPorTransaccion() throws IOException {
+        ResponseEntity<StreamingResponseBody> respuesta = exportador.exportar("ndjson", null, "transacciones-ACT",
+                recorrido(transaccion("TR00000001", "VISA"), transaccion("TR00000002", "MAST")));
+
+        assertEquals(ExportadorTransacciones.NDJSON, respuesta.getHeaders().getContentType());
+        assertNull(respuesta.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        String[] lineas = new String(cuerpo(respuesta), StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lineas.length);
+        assertEquals("", lineas[2]);
+        JsonNode primera = objectMapper.readTree(lineas[0]);
+        assertEquals("TR00000001", primera.get("codigo").asText());
+        assertEquals("2025-03-01", primera.get("fechaInicio").asText());
+        assertEquals("MAST", objectMapper.readTree(lineas[1]).get("marca").asText());
+        assertEquals("************0366", primera.get("tarjeta").asText());
+        assertFalse(primera.has("cvv"));
+    }
+
+    @Test
+    public void testEnmascararTarjeta() {
+        assertEquals("************0366", TransaccionRecurrenteMapper.enmascararTarjeta(4532015112830366L));
+        assertEquals("***4567", TransaccionRecurrenteMapper.enmascararTarjeta(1234567L));
+        assertEquals("123", TransaccionRecurrenteMapper.enmascararTarjeta(123L));
+        assertNull(TransaccionRecurrenteMapper.enmascararTarjeta(null));
+    }
+
+    @Test
+    public void testExportar_CsvComprimidoConGzip() throws IOException {
+        TransaccionRecurrente conComillas = transaccion("TR00000002", "MA\"S");
+        conComillas.setFechaFin(null);
+        ResponseEntity<StreamingResponseBody> respuesta = exportador.exportar("csv", "br, gzip;q=0.8", "transacciones-dia-15",
+                recorrido(transaccion("TR00000001", "VISA"), conComillas));
+
+        assertEquals("gzip", respuesta.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, respuesta.getHeaders().getFirst(HttpHeaders.VARY));
+        assertTrue(respuesta.getHeaders().getContentDisposition().getFilename().endsWith(".csv"));
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(cuerpo(respuesta))).readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(ExportadorTransacciones.ENCABEZADO_CSV
+                + "\"TR00000001\",100.50,\"VISA\",\"ACT\",2025-03-01,2026-03-01,15,\"BANKEC21XXX\",\"EC12345678901234567890\",\"USD\",\"EC\",\"************0366\",2027-07-31,30\n"
+                + "\"TR00000002\",100.50,\"MA\"\"S\",\"ACT\",2025-03-01,,15,\"BANKEC21XXX\",\"EC12345678901234567890\",\"USD\",\"EC\",\"************0366\",2027-07-31,30\n",
+                csv);
+    }
+
+    @Test
+    public void testExportar_LaPrimeraFilaSeEnviaAntesDeTerminarElRecorrido() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        int[] bytesTrasLaPrimera = { -1 };
+        ToIntFunction<Consumer<TransaccionRecurrente>> recorrido = accion -> {
+            accion.accept(transaccion("TR00000001", "VISA"));
+            bytesTrasLaPrimera[0] = salida.size();
+            accion.accept(transaccion("TR00000002", "VISA"));
+            return 2;
+        };
+
+        exportador.exportar("ndjson", "gzip", "transacciones-ACT", recorrido).getBody().writeTo(salida);
+
+        assertTrue(bytesTrasLaPrimera[0] > 10);
+        assertTrue(salida.size() > bytesTrasLaPrimera[0]);
+    }
+
+    @Test
+    public void testExportar_FormatoInvalido() {
+        assertThrows(TransaccionRecurrenteInvalidaException.class,
+                () -> exportador.exportar("xml", null, "transacciones-ACT", recorrido()));
+    }
+
+    @Test
+    public void testAceptaGzip() {
+        assertTrue(ExportadorTransacciones.aceptaGzip("gzip"));
+        assertTrue(ExportadorTransacciones.aceptaGzip("deflate, GZIP, br"));
+        assertFalse(ExportadorTransacciones.aceptaGzip(null));
+        assertFalse(ExportadorTransacciones.aceptaGzip("br, deflate"));
+        assertFalse(ExportadorTransacciones.aceptaGzip("gzip;q=0"));
+    }
+
+    private static ToIntFunction<Consumer<TransaccionRecurrente>> recorrido(TransaccionRecurrente... transacciones) {
+        return accion -> {
+            List.of(transacciones).forEach(accion);
+            return transacciones.length;
+        };
+    }
+
+    private static byte[] cuerpo(ResponseEntity<StreamingResponseBody> respuesta) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        respuesta.getBody().writeTo(salida);
+        return salida.toByteArray();
+    }
+
+    private static TransaccionRecurrente transaccion(String codigo, String marca) {
+        TransaccionRecurrente transaccion = new TransaccionRecurrente(codigo);
+        transaccion.setMonto(new BigDecimal("100.50"));
+        transaccion.setMarca(marca);
+        transaccion.setEstado("ACT");
+        transaccion.setFechaInicio(LocalDate.of(2025, 3, 1));
+        transaccion.setFechaFin(LocalDate.of(2026, 3, 1));
+        transaccion.setDiaMesPago(15);
+        transaccion.setSwiftBanco("BANKEC21XXX");
+        transaccion.setCuentaIban("EC12345678901234567890");
+        transaccion.setMoneda("USD");
+        transaccion.setPais("EC");
+        transaccion.setTarjeta(4532015112830366L);
+        transaccion.setFechaCaducidad(LocalDate.of(2027, 7, 31));
+        transaccion.setCvv("456");
+        transaccion.setFrecuenciaDias(30);
+        return transaccion;
+    }
+}
@@ -28,6 +28,7 @@ import com.banquito.gateway.transaccionrecurrente.banquito.controller.dto.Transa
 import com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper.TransaccionRecurrenteMapper;
 import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteNotFoundException;
 import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.LoteTransaccionesService;
 import com.banquito.gateway.transaccionrecurrente.banquito.service.TransaccionRecurrenteService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -44,6 +45,12 @@ public class TransaccionRecurrenteControllerTest {
     @MockBean
     private TransaccionRecurrenteMapper mapper;
 
+    @MockBean
+    private ExportadorTransacciones exportador;
+
+    @MockBean
+    private LoteTransaccionesService loteService;
+
     private ObjectMapper objectMapper;
     private TransaccionRecurrente transaccionRecurrente;
     private TransaccionRecurrenteDTO transaccionRecurrenteDTO;
@@ -275,4 +282,31 @@ public class TransaccionRecurrenteControllerTest {
                 .andExpect(jsonPath("$.codigo", is("TR99999999")))
                 .andExpect(jsonPath("$.estado", is("ACT")));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCrearLote_ResultadoPorPosicion() throws Exception {
+        TransaccionRecurrenteDTO sinMonto = new TransaccionRecurrenteDTO();
+        sinMonto.setMarca("VISA");
+        transaccionRecurrenteDTO.setCodigo(null);
+        transaccionRecurrenteDTO.setEstado(null);
+
+        when(mapper.toModel(any(TransaccionRecurrenteDTO.class))).thenReturn(new TransaccionRecurrente());
+        when(loteService.crear(any(List.class))).thenAnswer(invocacion -> {
+            List<TransaccionRecurrente> lote = invocacion.getArgument(0);
+            lote.get(0).setCodigo("TR99999999");
+            return Arrays.asList((String) null);
+        });
+
+        mockMvc.perform(post("/v1/transacciones-recurrentes/lotes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(sinMonto, transaccionRecurrenteDTO))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.total", is(2)))
+                .andExpect(jsonPath("$.creadas", is(1)))
+                .andExpect(jsonPath("$.resultados[0].creada", is(false)))
+                .andExpect(jsonPath("$.resultados[0].errores[0]", is("cuentaIban: La cuenta IBAN es requerida")))
+                .andExpect(jsonPath("$.resultados[1].creada", is(true)))
+                .andExpect(jsonPath("$.resultados[1].codigo", is("TR99999999")));
+    }
+}
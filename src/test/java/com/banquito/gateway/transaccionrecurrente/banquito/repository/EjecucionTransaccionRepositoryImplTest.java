@@ -0,0 +1,40 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.EjecucionTransaccion;
+
+public class EjecucionTransaccionRepositoryImplTest {
+
+    @Test
+    public void testACsv_EscapaTextoYDejaVaciosLosNulos() {
+        EjecucionTransaccion exitosa = ejecucion("TR12345678-ab12c", "EXI", 201, null);
+        EjecucionTransaccion fallida = ejecucion("TR12345678-ff00e", "ERR", null, "Timeout \"connect\", reintentar");
+
+        String csv = EjecucionTransaccionRepositoryImpl.aCsv(List.of(exitosa, fallida));
+
+        assertEquals(
+                "\"TR12345678\",\"TR12345678-ab12c\",1,2025-03-01T10:00,100.50,\"EXI\",201,\n"
+                + "\"TR12345678\",\"TR12345678-ff00e\",1,2025-03-01T10:00,100.50,\"ERR\",,\"Timeout \"\"connect\"\", reintentar\"\n",
+                csv);
+    }
+
+    private static EjecucionTransaccion ejecucion(String codigoUnico, String resultado, Integer codigoRespuesta, String detalle) {
+        EjecucionTransaccion ejecucion = new EjecucionTransaccion();
+        ejecucion.setCodigoTransaccion("TR12345678");
+        ejecucion.setCodigoUnicoTransaccion(codigoUnico);
+        ejecucion.setIntento(1);
+        ejecucion.setFechaEjecucion(LocalDateTime.of(2025, 3, 1, 10, 0));
+        ejecucion.setMonto(new BigDecimal("100.50"));
+        ejecucion.setResultado(resultado);
+        ejecucion.setCodigoRespuesta(codigoRespuesta);
+        ejecucion.setDetalle(detalle);
+        return ejecucion;
+    }
+}
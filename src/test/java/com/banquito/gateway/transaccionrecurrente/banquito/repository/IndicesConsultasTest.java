@@ -0,0 +1,243 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Aplica las migraciones sobre un PostgreSQL local y comprueba con EXPLAIN que cada consulta de los
+ * repositorios tiene un índice que la resuelve. Se desactiva enable_seqscan para que el planificador
+ * solo recurra a un recorrido secuencial cuando no exista ningún índice utilizable.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class IndicesConsultasTest {
+
+    private static final String TABLA = "GTW_TRANSACCION_RECURRENTE";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection conexion;
+
+    @BeforeAll
+    public static void preparar() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+        conexion = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Statement sentencia = conexion.createStatement()) {
+            // Como en producción, la mayoría de las filas son suscripciones ya finalizadas o retiradas
+            sentencia.execute("INSERT INTO " + TABLA + " (COD_TRANSACCION_RECURRENTE, MONTO, ESTADO, FECHA_INICIO, "
+                    + "FECHA_FIN, DIA_MES_PAGO, CUENTA_IBAN, PAIS, FRECUENCIA_DIAS, PROXIMA_EJECUCION) "
+                    + "SELECT 'TR' || lpad(i::text, 8, '0'), (i % 1000) + 0.50, "
+                    + "CASE WHEN i % 20 = 0 THEN 'INA' WHEN i % 20 = 1 THEN 'ELI' WHEN i % 20 = 2 THEN 'CAN' "
+                    + "WHEN i % 20 < 14 THEN 'FIN' ELSE 'ACT' END, "
+                    + "DATE '2025-01-01' + i % 365, DATE '2026-01-01' + i % 730, 1 + i % 28, "
+                    + "'EC' || lpad((i % 5000)::text, 20, '0'), (ARRAY['EC', 'ES', 'CO', 'PE', 'MX'])[1 + i % 5], 15, "
+                    + "TIMESTAMP '2025-03-01 00:00' + (i % 10000) * INTERVAL '1 minute' "
+                    + "FROM generate_series(1, 50000) i");
+            sentencia.execute("INSERT INTO GTW_REINTENTO_TRANSACCION (COD_TRANSACCION_RECURRENTE, INTENTO, "
+                    + "FECHA_REINTENTO, FECHA_RECHAZO, MOTIVO) "
+                    + "SELECT 'TR' || lpad(i::text, 8, '0'), 1, TIMESTAMP '2025-03-01 00:00' + i * INTERVAL '1 second', "
+                    + "TIMESTAMP '2025-03-01 00:00', 'HTTP 503' FROM generate_series(1, 50000, 10) i");
+            sentencia.execute("INSERT INTO GTW_EJECUCION_TRANSACCION (COD_TRANSACCION_RECURRENTE, COD_UNICO_TRANSACCION, "
+                    + "INTENTO, FECHA_EJECUCION, MONTO, RESULTADO) "
+                    + "SELECT 'TR' || lpad((i % 50000)::text, 8, '0'), 'U' || i, 1, "
+                    + "TIMESTAMP '2025-01-01 00:00' + i * INTERVAL '1 minute', 10.00, 'EXI' FROM generate_series(1, 100000) i");
+            sentencia.execute("ANALYZE");
+            sentencia.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    public static void cerrar() throws SQLException {
+        if (conexion != null) {
+            conexion.close();
+        }
+    }
+
+    @Test
+    public void testMigraciones_CreanTodosLosIndices() throws SQLException {
+        try (Statement sentencia = conexion.createStatement();
+                ResultSet resultado = sentencia.executeQuery("SELECT count(*) FROM pg_indexes "
+                        + "WHERE tablename = 'gtw_transaccion_recurrente' AND indexname LIKE 'idx_%'")) {
+            resultado.next();
+            assertEquals(11, resultado.getInt(1));
+        }
+    }
+
+    @Test
+    public void testBuscarActivasPorDiaPago() throws SQLException {
+        assertUsaIndice("SELECT * FROM " + TABLA + " WHERE ESTADO = 'ACT' AND DIA_MES_PAGO = 15 AND FECHA_FIN >= DATE '2026-06-01'",
+                "IDX_TRANSACCION_RECURRENTE_ACT_DIA_FIN");
+    }
+
+    @Test
+    public void testFindByEstadoAndDiaMesPagoAndFechaFinGreaterThanEqual() throws SQLException {
+        assertUsaIndice("SELECT * FROM " + TABLA + " WHERE ESTADO = 'INA' AND DIA_MES_PAGO = 15 AND FECHA_FIN >= DATE '2026-06-01'",
+                "IDX_TRANSACCION_RECURRENTE_ESTADO_DIA_FIN");
+    }
+
+    @Test
+    public void testFindByEstadoAndFechaFinLessThanEqual() throws SQLException {
+        assertUsaIndice("SELECT * FROM " + TABLA + " WHERE ESTADO = 'INA' AND FECHA_FIN <= DATE '2026-01-15'",
+                "IDX_TRANSACCION_RECURRENTE_ESTADO_FIN");
+    }
+
+    @Test
+    public void testFinalizarVencidas() throws SQLException {
+        assertUsaIndice("UPDATE " + TABLA + " SET ESTADO = 'FIN', LEASE_NODO = NULL, LEASE_EXPIRA = NULL "
+                + "WHERE COD_TRANSACCION_RECURRENTE = ANY(ARRAY(SELECT COD_TRANSACCION_RECURRENTE FROM " + TABLA + " "
+                + "WHERE ESTADO = 'ACT' AND FECHA_FIN < DATE '2026-01-15' LIMIT 1000 FOR UPDATE SKIP LOCKED)) "
+                + "RETURNING COD_TRANSACCION_RECURRENTE",
+                "IDX_TRANSACCION_RECURRENTE_ACT_FIN");
+    }
+
+    @Test
+    public void testFindByCuentaIbanAndEstado() throws SQLException {
+        assertUsaIndice("SELECT * FROM " + TABLA + " WHERE CUENTA_IBAN = 'EC00000000000000000042' AND ESTADO = 'ACT'",
+                "IDX_TRANSACCION_RECURRENTE_CUENTA_ESTADO");
+    }
+
+    @Test
+    public void testFindByCuentaIban() throws SQLException {
+        assertUsaIndice("SELECT * FROM " + TABLA + " WHERE CUENTA_IBAN = 'EC00000000000000000042'",
+                "IDX_TRANSACCION_RECURRENTE_CUENTA_ESTADO");
+    }
+
+    @Test
+    public void testFindByDiaMesPago() throws SQLException {
+        assertUsaIndice("SELECT * FROM " + TABLA + " WHERE DIA_MES_PAGO = 15",
+                "IDX_TRANSACCION_RECURRENTE_DIA_COD");
+    }
+
+    @Test
+    public void testFindByEstado() throws SQLException {
+        // Cualquiera de los índices que empiezan por ESTADO resuelve el filtro
+        assertUsaIndice("SELECT * FROM " + TABLA + " WHERE ESTADO = 'INA'",
+                "IDX_TRANSACCION_RECURRENTE_ESTADO_PROXIMA", "IDX_TRANSACCION_RECURRENTE_ESTADO_FIN",
+                "IDX_TRANSACCION_RECURRENTE_ESTADO_DIA_FIN");
+    }
+
+    @Test
+    public void testStreamActivasVencidas() throws SQLException {
+        assertUsaIndice("SELECT COD_TRANSACCION_RECURRENTE, PROXIMA_EJECUCION FROM " + TABLA
+                + " WHERE ESTADO = 'ACT' AND PROXIMA_EJECUCION <= TIMESTAMP '2025-03-01 01:00'",
+                "IDX_TRANSACCION_RECURRENTE_ACT_PROXIMA");
+    }
+
+    @Test
+    public void testStreamActivasVencidas_PlanGenerico() throws SQLException {
+        // Hibernate envía el instante como parámetro; el literal del estado basta para usar el índice parcial
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("SET plan_cache_mode = force_generic_plan");
+            sentencia.execute("PREPARE vencidas(TIMESTAMP) AS SELECT COD_TRANSACCION_RECURRENTE, PROXIMA_EJECUCION FROM "
+                    + TABLA + " WHERE ESTADO = 'ACT' AND PROXIMA_EJECUCION <= $1");
+        }
+        try {
+            assertUsaIndice("EXECUTE vencidas(TIMESTAMP '2025-03-01 01:00')", "IDX_TRANSACCION_RECURRENTE_ACT_PROXIMA");
+        } finally {
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("DEALLOCATE vencidas");
+                sentencia.execute("RESET plan_cache_mode");
+            }
+        }
+    }
+
+    @Test
+    public void testBloquearVencidasSinLease() throws SQLException {
+        assertUsaIndice("SELECT * FROM " + TABLA + " t WHERE t.ESTADO = 'ACT' AND t.PROXIMA_EJECUCION <= TIMESTAMP '2025-03-01 01:00' "
+                + "AND (t.LEASE_EXPIRA IS NULL OR t.LEASE_EXPIRA < TIMESTAMP '2025-03-01 01:00') "
+                + "AND NOT EXISTS (SELECT 1 FROM GTW_REINTENTO_TRANSACCION r WHERE r.COD_TRANSACCION_RECURRENTE = t.COD_TRANSACCION_RECURRENTE) "
+                + "ORDER BY t.PROXIMA_EJECUCION LIMIT 100 FOR UPDATE SKIP LOCKED",
+                "IDX_TRANSACCION_RECURRENTE_ACT_PROXIMA");
+    }
+
+    @Test
+    public void testBuscarConFiltros_EstadoYDia() throws SQLException {
+        assertUsaIndice(buscarConFiltros("'INA'", "15", "CAST(NULL AS VARCHAR)", false),
+                "IDX_TRANSACCION_RECURRENTE_ESTADO_DIA_FIN");
+    }
+
+    @Test
+    public void testBuscarConFiltros_Pais() throws SQLException {
+        assertUsaIndice(buscarConFiltros("CAST(NULL AS VARCHAR)", "CAST(NULL AS INTEGER)", "'PE'", false),
+                "IDX_TRANSACCION_RECURRENTE_PAIS_ESTADO");
+    }
+
+    @Test
+    public void testBuscarConFiltros_PaisYEstado() throws SQLException {
+        assertUsaIndice(buscarConFiltros("'INA'", "CAST(NULL AS INTEGER)", "'PE'", true),
+                "IDX_TRANSACCION_RECURRENTE_PAIS_ESTADO");
+    }
+
+    @Test
+    public void testReintentosBloquearVencidos() throws SQLException {
+        assertUsaIndice("SELECT * FROM GTW_REINTENTO_TRANSACCION r WHERE r.FECHA_REINTENTO <= TIMESTAMP '2025-03-01 00:10' "
+                + "ORDER BY r.FECHA_REINTENTO LIMIT 100 FOR UPDATE SKIP LOCKED",
+                "IDX_REINTENTO_TRANSACCION_FECHA");
+    }
+
+    @Test
+    public void testReintentosFindCodigosTransaccion() throws SQLException {
+        assertUsaIndice("SELECT DISTINCT r.COD_TRANSACCION_RECURRENTE FROM GTW_REINTENTO_TRANSACCION r",
+                "GTW_REINTENTO_TRANSACCION_PKEY");
+    }
+
+    @Test
+    public void testReintentosEliminarSinTransaccionActiva() throws SQLException {
+        assertUsaIndice("DELETE FROM GTW_REINTENTO_TRANSACCION r WHERE NOT EXISTS (SELECT 1 FROM " + TABLA + " t "
+                + "WHERE t.COD_TRANSACCION_RECURRENTE = r.COD_TRANSACCION_RECURRENTE AND t.ESTADO = 'ACT')",
+                // Con pocos reintentos se sondea la clave primaria; con muchos, un hash de las activas desde un índice parcial
+                "GTW_TRANSACCION_RECURRENTE_PKEY", "IDX_TRANSACCION_RECURRENTE_ACT_FIN", "IDX_TRANSACCION_RECURRENTE_ACT_PROXIMA",
+                "IDX_TRANSACCION_RECURRENTE_ACT_DIA_FIN");
+    }
+
+    @Test
+    public void testEjecucionesPorCodigoYFecha() throws SQLException {
+        assertUsaIndice("SELECT * FROM GTW_EJECUCION_TRANSACCION WHERE COD_TRANSACCION_RECURRENTE = 'TR00000042' "
+                + "AND FECHA_EJECUCION BETWEEN TIMESTAMP '2025-01-01 00:00' AND TIMESTAMP '2025-02-01 00:00' ORDER BY FECHA_EJECUCION",
+                "IDX_EJECUCION_TRANSACCION_CODIGO_FECHA");
+    }
+
+    // Misma forma que el JPQL de buscarConFiltros una vez que Hibernate sustituye los parámetros
+    private static String buscarConFiltros(String estado, String diaMesPago, String pais, boolean incluirEliminadas) {
+        return "SELECT * FROM " + TABLA + " t WHERE "
+                + "(" + estado + " IS NULL OR t.ESTADO = " + estado + ") AND "
+                + "(" + diaMesPago + " IS NULL OR t.DIA_MES_PAGO = " + diaMesPago + ") AND "
+                + "(" + pais + " IS NULL OR t.PAIS = " + pais + ") AND "
+                + "(" + incluirEliminadas + " = true OR t.ESTADO <> 'ELI') "
+                + "OFFSET 0 LIMIT 20";
+    }
+
+    private static void assertUsaIndice(String sql, String... indices) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement sentencia = conexion.createStatement();
+                ResultSet resultado = sentencia.executeQuery("EXPLAIN " + sql)) {
+            while (resultado.next()) {
+                plan.append(resultado.getString(1)).append('\n');
+            }
+        }
+        String texto = plan.toString();
+        assertFalse(texto.contains("Seq Scan"), () -> "La consulta recorre la tabla completa:\n" + texto);
+        assertTrue(Arrays.stream(indices).map(indice -> indice.toLowerCase(Locale.ROOT)).anyMatch(texto::contains),
+                () -> "La consulta no usa " + Arrays.toString(indices) + ":\n" + texto);
+    }
+}
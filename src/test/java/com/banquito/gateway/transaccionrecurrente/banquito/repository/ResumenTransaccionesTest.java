@@ -0,0 +1,126 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Comprueba que los triggers de la migración V4 dejan GTW_RESUMEN_TRANSACCION igual a recalcular la
+ * agregación sobre GTW_TRANSACCION_RECURRENTE después de cada tipo de escritura.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ResumenTransaccionesTest {
+
+    private static final String RECALCULADO = "SELECT COALESCE(ESTADO, ''), COALESCE(PAIS, ''), COALESCE(MONEDA, ''), "
+            + "COALESCE(DIA_MES_PAGO, 0), count(*), sum(MONTO) FROM GTW_TRANSACCION_RECURRENTE GROUP BY 1, 2, 3, 4";
+    private static final String RESUMEN = "SELECT ESTADO, PAIS, MONEDA, DIA_MES_PAGO, CANTIDAD, MONTO_TOTAL "
+            + "FROM GTW_RESUMEN_TRANSACCION WHERE CANTIDAD <> 0";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection conexion;
+
+    @BeforeAll
+    public static void preparar() throws SQLException {
+        conexion = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        // Filas existentes antes de la migración, que el resumen inicial tiene que incluir
+        migrar("3");
+        ejecutar("INSERT INTO GTW_TRANSACCION_RECURRENTE (COD_TRANSACCION_RECURRENTE, MONTO, ESTADO, DIA_MES_PAGO, PAIS, MONEDA) "
+                + "SELECT 'A' || i, i % 100 + 0.50, CASE WHEN i % 7 = 0 THEN NULL ELSE 'ACT' END, 1 + i % 31, "
+                + "CASE WHEN i % 11 = 0 THEN NULL ELSE 'EC' END, 'USD' FROM generate_series(1, 1000) i");
+        migrar(null);
+    }
+
+    @AfterAll
+    public static void cerrar() throws SQLException {
+        if (conexion != null) {
+            conexion.close();
+        }
+    }
+
+    @Test
+    public void testResumen_CoincideConLaAgregacionTrasCadaEscritura() throws Exception {
+        assertResumenConsistente();
+
+        ejecutar("INSERT INTO GTW_TRANSACCION_RECURRENTE (COD_TRANSACCION_RECURRENTE, MONTO, ESTADO, DIA_MES_PAGO, PAIS, MONEDA) "
+                + "SELECT 'B' || i, i % 50 + 0.25, 'ACT', 1 + i % 28, (ARRAY['EC', 'PE', 'CO'])[1 + i % 3], "
+                + "(ARRAY['USD', 'EUR'])[1 + i % 2] FROM generate_series(1, 20000) i");
+        assertResumenConsistente();
+
+        ejecutar("UPDATE GTW_TRANSACCION_RECURRENTE SET ESTADO = 'CAN' WHERE COD_TRANSACCION_RECURRENTE LIKE 'B1%'");
+        assertResumenConsistente();
+
+        ejecutar("UPDATE GTW_TRANSACCION_RECURRENTE SET MONTO = MONTO + 1, PAIS = NULL WHERE COD_TRANSACCION_RECURRENTE LIKE 'A2%'");
+        assertResumenConsistente();
+
+        ejecutar("DELETE FROM GTW_TRANSACCION_RECURRENTE WHERE COD_TRANSACCION_RECURRENTE LIKE 'B3%'");
+        assertResumenConsistente();
+
+        conexion.unwrap(PGConnection.class).getCopyAPI().copyIn("COPY GTW_TRANSACCION_RECURRENTE "
+                + "(COD_TRANSACCION_RECURRENTE, MONTO, ESTADO, PAIS) FROM STDIN WITH (FORMAT csv)",
+                new StringReader("\"C1\",10.00,\"ACT\",\"EC\"\n\"C2\",5.00,\"ACT\",\n"));
+        assertResumenConsistente();
+    }
+
+    @Test
+    public void testResumen_ActualizarSoloLaProgramacionNoEscribeEnElResumen() throws SQLException {
+        String antes = versionResumen();
+
+        ejecutar("UPDATE GTW_TRANSACCION_RECURRENTE SET PROXIMA_EJECUCION = now(), LEASE_NODO = 'nodo-1'");
+
+        assertEquals(antes, versionResumen());
+    }
+
+    private static void assertResumenConsistente() throws SQLException {
+        assertEquals(0, contar("(" + RECALCULADO + ") EXCEPT (" + RESUMEN + ")"));
+        assertEquals(0, contar("(" + RESUMEN + ") EXCEPT (" + RECALCULADO + ")"));
+    }
+
+    private static String versionResumen() throws SQLException {
+        try (Statement sentencia = conexion.createStatement();
+                ResultSet resultado = sentencia.executeQuery("SELECT string_agg(xmin::text, ',' ORDER BY ESTADO, PAIS, MONEDA, "
+                        + "DIA_MES_PAGO) FROM GTW_RESUMEN_TRANSACCION")) {
+            resultado.next();
+            return resultado.getString(1);
+        }
+    }
+
+    private static int contar(String consulta) throws SQLException {
+        try (Statement sentencia = conexion.createStatement();
+                ResultSet resultado = sentencia.executeQuery("SELECT count(*) FROM (" + consulta + ") diferencia")) {
+            resultado.next();
+            return resultado.getInt(1);
+        }
+    }
+
+    private static void ejecutar(String sql) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute(sql);
+        }
+    }
+
+    private static void migrar(String version) {
+        FluentConfiguration configuracion = Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        if (version != null) {
+            configuracion.target(version);
+        }
+        configuracion.load().migrate();
+    }
+}
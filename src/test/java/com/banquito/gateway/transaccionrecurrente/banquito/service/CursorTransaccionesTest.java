@@ -0,0 +1,57 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+public class CursorTransaccionesTest {
+
+    @Test
+    public void testCodificarYDecodificar_ConservaValorTipadoYCodigo() {
+        TransaccionRecurrente transaccion = new TransaccionRecurrente("0KZ3M8Q1X4");
+        transaccion.setMonto(new BigDecimal("150.75"));
+        transaccion.setFechaInicio(LocalDate.of(2025, 2, 28));
+
+        String tokenMonto = CursorTransacciones.despuesDe(transaccion, "monto", Sort.Direction.DESC).codificar();
+        CursorTransacciones monto = CursorTransacciones.decodificar(tokenMonto, "monto", Sort.Direction.DESC);
+        assertEquals(new BigDecimal("150.75"), monto.getValor());
+        assertEquals("0KZ3M8Q1X4", monto.getCodigo());
+
+        String tokenFecha = CursorTransacciones.despuesDe(transaccion, "fechaInicio", Sort.Direction.ASC).codificar();
+        assertEquals(LocalDate.of(2025, 2, 28), CursorTransacciones.decodificar(tokenFecha, "fechaInicio", Sort.Direction.ASC).getValor());
+    }
+
+    @Test
+    public void testDecodificar_TokenDeOtroOrden() {
+        TransaccionRecurrente transaccion = new TransaccionRecurrente("0KZ3M8Q1X4");
+        transaccion.setMonto(BigDecimal.TEN);
+        String token = CursorTransacciones.despuesDe(transaccion, "monto", Sort.Direction.ASC).codificar();
+
+        assertThrows(TransaccionRecurrenteInvalidaException.class, 
+                () -> CursorTransacciones.decodificar(token, "monto", Sort.Direction.DESC));
+        assertThrows(TransaccionRecurrenteInvalidaException.class, 
+                () -> CursorTransacciones.decodificar(token, "codigo", Sort.Direction.ASC));
+    }
+
+    @Test
+    public void testDecodificar_TokenInvalido() {
+        assertThrows(TransaccionRecurrenteInvalidaException.class, 
+                () -> CursorTransacciones.decodificar("no es base64!", "codigo", Sort.Direction.ASC));
+        assertThrows(TransaccionRecurrenteInvalidaException.class, 
+                () -> CursorTransacciones.decodificar("bW9udG98QVNDfGFiY3wx", "monto", Sort.Direction.ASC));
+    }
+
+    @Test
+    public void testValidarCampo_SoloColumnasObligatorias() {
+        CursorTransacciones.validarCampo("diaMesPago");
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> CursorTransacciones.validarCampo("fechaFin"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.EjecucionTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.EjecucionTransaccionRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class EjecucionTransaccionServiceTest {
+
+    private static final LocalDateTime DESDE = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final LocalDateTime HASTA = LocalDateTime.of(2025, 3, 31, 23, 59);
+
+    @Mock
+    private EjecucionTransaccionRepository repository;
+
+    @Test
+    public void testObtenerPorRango_LimitaElTamanioDePagina() {
+        when(repository.findByFechaEjecucionBetween(eq(DESDE), eq(HASTA), any(Pageable.class)))
+                .thenReturn(new SliceImpl<EjecucionTransaccion>(List.of()));
+
+        EjecucionTransaccionService service = new EjecucionTransaccionService(repository);
+        service.obtenerPorRango(DESDE, HASTA, 3, 1_000_000);
+        service.obtenerPorRango(DESDE, HASTA, 0, 0);
+
+        ArgumentCaptor<Pageable> paginas = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository, times(2)).findByFechaEjecucionBetween(eq(DESDE), eq(HASTA), paginas.capture());
+        assertEquals(EjecucionTransaccionService.TAMANIO_MAXIMO_PAGINA, paginas.getAllValues().get(0).getPageSize());
+        assertEquals(3, paginas.getAllValues().get(0).getPageNumber());
+        assertEquals(Sort.by("fechaEjecucion", "id"), paginas.getAllValues().get(0).getSort());
+        assertEquals(1, paginas.getAllValues().get(1).getPageSize());
+    }
+
+    @Test
+    public void testObtenerPorRango_PaginaNegativa() {
+        EjecucionTransaccionService service = new EjecucionTransaccionService(repository);
+
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.obtenerPorRango(DESDE, HASTA, -1, 100));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void testObtenerPorRango_RangoInvertido() {
+        EjecucionTransaccionService service = new EjecucionTransaccionService(repository);
+
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.obtenerPorRango(HASTA, DESDE, 0, 100));
+        verifyNoInteractions(repository);
+    }
+}
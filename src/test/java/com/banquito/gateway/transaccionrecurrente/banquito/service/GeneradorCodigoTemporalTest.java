@@ -0,0 +1,168 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.ReservaCodigosRepository;
+
+public class GeneradorCodigoTemporalTest {
+
+    private static final long AHORA = GeneradorCodigoTemporal.EPOCA_SEGUNDOS + 40_000_000L;
+    private static final ReservaCodigosRepository SIN_PERSISTENCIA = (nodo, hasta) -> hasta;
+
+    @Test
+    public void testGenerar_FormatoDeDiezCaracteresCrockford() {
+        String codigo = new GeneradorCodigoTemporal(7, SIN_PERSISTENCIA).generar();
+
+        assertEquals(GeneradorCodigo.LONGITUD, codigo.length());
+        assertTrue(codigo.matches("[0-9A-HJKMNP-TV-Z]{10}"), codigo);
+    }
+
+    @Test
+    public void testGenerar_OrdenadoPorTiempoAunqueElRelojRetroceda() {
+        AtomicLong reloj = new AtomicLong(AHORA);
+        GeneradorCodigoTemporal generador = new GeneradorCodigoTemporal(3, reloj::get, SIN_PERSISTENCIA);
+
+        String anterior = generador.generar();
+        for (int i = 0; i < 50_000; i++) {
+            if (i == 20_000) {
+                reloj.addAndGet(-5);
+            } else if (i % 1000 == 0) {
+                reloj.incrementAndGet();
+            }
+            String codigo = generador.generar();
+            assertTrue(codigo.compareTo(anterior) > 0, codigo + " no es posterior a " + anterior);
+            anterior = codigo;
+        }
+    }
+
+    @Test
+    public void testGenerar_NodosDistintosNoColisionanEnElMismoSegundo() {
+        Set<String> codigos = new HashSet<>();
+        for (int nodo = 0; nodo < GeneradorCodigoTemporal.NODOS; nodo++) {
+            GeneradorCodigoTemporal generador = new GeneradorCodigoTemporal(nodo, () -> AHORA, SIN_PERSISTENCIA);
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(codigos.add(generador.generar()));
+            }
+        }
+    }
+
+    @Test
+    public void testGenerar_NoRepiteCodigosAlReiniciarConElRelojFijo() {
+        AtomicLong almacenado = new AtomicLong(-1);
+        List<Long> reservas = new ArrayList<>();
+        ReservaCodigosRepository reserva = (nodo, hasta) -> {
+            reservas.add(hasta);
+            return almacenado.accumulateAndGet(hasta, Math::max);
+        };
+        Set<String> codigos = new HashSet<>();
+        String anterior = "";
+        for (int reinicio = 0; reinicio < 3; reinicio++) {
+            GeneradorCodigoTemporal generador = new GeneradorCodigoTemporal(5, () -> AHORA, reserva);
+            // Más códigos de los que caben en un segundo: el generador toma prestados los siguientes
+            for (int i = 0; i < 40_000; i++) {
+                String codigo = generador.generar();
+                assertTrue(codigos.add(codigo), "Código repetido tras " + reinicio + " reinicios: " + codigo);
+                assertTrue(codigo.compareTo(anterior) > 0, codigo + " no es posterior a " + anterior);
+                anterior = codigo;
+            }
+        }
+        // Una reserva por ventana de segundos, no una por código
+        assertTrue(reservas.size() <= 6, "Reservas: " + reservas);
+    }
+
+    @Test
+    public void testRenovarReserva_GenerarNoReservaMientrasLaVentanaEstaVigente() {
+        AtomicLong reloj = new AtomicLong(AHORA);
+        List<Long> reservas = new ArrayList<>();
+        ReservaCodigosRepository reserva = (nodo, hasta) -> {
+            reservas.add(hasta);
+            return hasta;
+        };
+        GeneradorCodigoTemporal generador = new GeneradorCodigoTemporal(2, reloj::get, reserva);
+
+        generador.renovarReserva();
+        int trasRenovar = reservas.size();
+        for (int segundo = 0; segundo < GeneradorCodigoTemporal.SEGUNDOS_RESERVA; segundo++) {
+            generador.generar();
+            reloj.incrementAndGet();
+        }
+
+        assertEquals(trasRenovar, reservas.size(), "Reservas: " + reservas);
+    }
+
+    @Test
+    public void testRenovarReserva_SoloAmpliaCuandoQuedaMenosDeMediaVentana() {
+        AtomicLong reloj = new AtomicLong(AHORA);
+        List<Long> reservas = new ArrayList<>();
+        ReservaCodigosRepository reserva = (nodo, hasta) -> {
+            reservas.add(hasta);
+            return hasta;
+        };
+        GeneradorCodigoTemporal generador = new GeneradorCodigoTemporal(2, reloj::get, reserva);
+        long inicio = AHORA - GeneradorCodigoTemporal.EPOCA_SEGUNDOS;
+
+        generador.renovarReserva();
+        reloj.addAndGet(GeneradorCodigoTemporal.SEGUNDOS_RESERVA / 2);
+        generador.renovarReserva();
+        reloj.incrementAndGet();
+        generador.renovarReserva();
+
+        // La lectura inicial, la primera ventana y su ampliación al pasar la mitad
+        assertEquals(List.of(-1L, inicio + GeneradorCodigoTemporal.SEGUNDOS_RESERVA,
+                inicio + GeneradorCodigoTemporal.SEGUNDOS_RESERVA * 3 / 2 + 1), reservas);
+    }
+
+    @Test
+    public void testGenerar_SinColisionesConVariosHilos() throws Exception {
+        int hilos = 8;
+        int porHilo = 250_000;
+        GeneradorCodigoTemporal generador = new GeneradorCodigoTemporal(11, SIN_PERSISTENCIA);
+        Set<String> codigos = ConcurrentHashMap.newKeySet(hilos * porHilo);
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<Integer>> resultados = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                resultados.add(ejecutor.submit(() -> {
+                    inicio.await();
+                    int repetidos = 0;
+                    for (int i = 0; i < porHilo; i++) {
+                        if (!codigos.add(generador.generar())) {
+                            repetidos++;
+                        }
+                    }
+                    return repetidos;
+                }));
+            }
+            inicio.countDown();
+            for (Future<Integer> resultado : resultados) {
+                assertEquals(0, resultado.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        assertEquals(hilos * porHilo, codigos.size());
+    }
+
+    @Test
+    public void testConstructor_NodoFueraDeRango() {
+        assertThrows(IllegalArgumentException.class, () -> new GeneradorCodigoTemporal(GeneradorCodigoTemporal.NODOS, SIN_PERSISTENCIA));
+        assertThrows(IllegalArgumentException.class, () -> new GeneradorCodigoTemporal(-1, SIN_PERSISTENCIA));
+    }
+}
@@ -0,0 +1,238 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.controller.mapper.TransaccionRecurrenteMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ImportacionTransacciones;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.ImportacionTransaccionesRepository;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.TransaccionRecurrenteRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportacionTransaccionesServiceTest {
+
+    private static final String ENCABEZADO = "monto,marca,fechaInicio,fechaFin,diaMesPago,swiftBanco,cuentaIban,moneda,pais,"
+            + "tarjeta,fechaCaducidad,cvv,frecuenciaDias\n";
+    private static final String CADUCIDAD = LocalDate.now().plusYears(2).toString();
+
+    @TempDir
+    private Path directorio;
+
+    @Mock
+    private TransaccionRecurrenteRepository transaccionRepository;
+
+    @Mock
+    private ImportacionTransaccionesRepository importacionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    private final List<String> copiadas = new ArrayList<>();
+    private ImportacionTransaccionesService service;
+
+    @BeforeEach
+    public void setup() {
+        TransaccionRecurrenteService transaccionService = new TransaccionRecurrenteService(transaccionRepository, eventos,
+                entityManager, new GeneradorCodigoAleatorio(), cacheManager);
+        service = new ImportacionTransaccionesService(transaccionService, transaccionRepository, importacionRepository,
+                eventos, new TransaccionRecurrenteMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                transactionManager, cacheManager, directorio.toString(), 2, 2, 2);
+    }
+
+    @AfterEach
+    public void cerrar() {
+        service.detener();
+    }
+
+    @Test
+    public void testEjecutar_CargaPorBloquesYEscribeLosRechazos() throws IOException {
+        guardarCheckpoint();
+        copiarCuentas();
+        Path archivo = archivo(fila("EC00000000000000000001", "100.50", "2025-01-01"),
+                fila("EC00000000000000000002", "0", "2025-01-01"),
+                "",
+                fila("EC00000000000000000003", "20.00", "2024-12-01"),
+                "1,\"VI\"SA\"",
+                fila("EC00000000000000000004", "30.00", "2025-01-01"));
+
+        ImportacionTransacciones resultado = service.ejecutar(archivo, nueva(archivo));
+
+        assertEquals(ImportacionTransaccionesService.ESTADO_FINALIZADA, resultado.getEstado());
+        assertEquals(Files.size(archivo), resultado.getPosicion());
+        assertEquals(6, resultado.getLineas());
+        assertEquals(2, resultado.getCargadas());
+        assertEquals(3, resultado.getRechazadas());
+        assertEquals(List.of("EC00000000000000000001", "EC00000000000000000004"), copiadas);
+        // Seis líneas en bloques de 2: un COPY y un punto de control por bloque en la misma transacción
+        verify(transactionManager, times(4)).commit(any());
+        assertEquals(2, activadas());
+        assertEquals(ImportacionTransaccionesService.ENCABEZADO_RECHAZOS
+                + "3,\"Error en la transacción recurrente: El monto debe ser mayor a 0\",\"" + citada(fila("EC00000000000000000002", "0", "2025-01-01")) + "\"\n"
+                + "5,\"Error en la transacción recurrente: La fecha fin debe ser posterior a la fecha de inicio\",\"" + citada(fila("EC00000000000000000003", "20.00", "2024-12-01")) + "\"\n"
+                + "6,\"Error en la transacción recurrente: Hay comillas sin cerrar en la línea\",\"1,\"\"VI\"\"SA\"\"\"\n",
+                Files.readString(rechazos(archivo), StandardCharsets.UTF_8));
+        assertEquals(Files.size(rechazos(archivo)), resultado.getPosicionRechazos());
+    }
+
+    @Test
+    public void testEjecutar_RetomaDesdeElUltimoPuntoDeControl() throws IOException {
+        guardarCheckpoint();
+        copiarCuentas();
+        Path archivo = archivo(fila("EC00000000000000000001", "10.00", "2025-01-01"),
+                fila("EC00000000000000000002", "0", "2025-01-01"),
+                fila("EC00000000000000000003", "30.00", "2025-01-01"));
+        String rechazoPrevio = "3,\"Error\",\"x\"\n";
+        // Lo escrito en rechazos después del punto de control corresponde a un bloque que no llegó a confirmarse
+        Files.writeString(rechazos(archivo), ImportacionTransaccionesService.ENCABEZADO_RECHAZOS + rechazoPrevio + "4,\"sin confirmar\"\n");
+        ImportacionTransacciones importacion = nueva(archivo);
+        importacion.setPosicion((long) (ENCABEZADO.length() + fila("EC00000000000000000001", "10.00", "2025-01-01").length() + 1
+                + fila("EC00000000000000000002", "0", "2025-01-01").length() + 1));
+        importacion.setPosicionRechazos((long) (ImportacionTransaccionesService.ENCABEZADO_RECHAZOS.length() + rechazoPrevio.length()));
+        importacion.setLineas(2L);
+        importacion.setCargadas(1L);
+        importacion.setRechazadas(1L);
+
+        ImportacionTransacciones resultado = service.ejecutar(archivo, importacion);
+
+        assertEquals(List.of("EC00000000000000000003"), copiadas);
+        assertEquals(3, resultado.getLineas());
+        assertEquals(2, resultado.getCargadas());
+        assertEquals(1, resultado.getRechazadas());
+        assertEquals(ImportacionTransaccionesService.ENCABEZADO_RECHAZOS + rechazoPrevio,
+                Files.readString(rechazos(archivo), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEjecutar_ErrorEnElCopyDejaElUltimoPuntoDeControlConfirmado() throws IOException {
+        guardarCheckpoint();
+        Path archivo = archivo(fila("EC00000000000000000001", "10.00", "2025-01-01"));
+        ImportacionTransacciones importacion = nueva(archivo);
+        ImportacionTransacciones confirmada = nueva(archivo);
+        when(importacionRepository.findById(1L)).thenReturn(Optional.of(confirmada));
+        when(transaccionRepository.copiarEnLote(anyList())).thenThrow(new DataAccessResourceFailureException("conexión cerrada"));
+
+        ImportacionTransacciones resultado = service.ejecutar(archivo, importacion);
+
+        assertEquals(ImportacionTransaccionesService.ESTADO_ERROR, resultado.getEstado());
+        assertEquals("conexión cerrada", resultado.getMensaje());
+        assertEquals(0, resultado.getPosicion());
+        assertEquals(0, resultado.getCargadas());
+    }
+
+    @Test
+    public void testIniciar_ArchivoFueraDelDirectorio() {
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.iniciar("../transacciones.csv"));
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.iniciar("inexistente.csv"));
+    }
+
+    @Test
+    public void testColumnas_EncabezadoDeLaExportacionConBom() {
+        assertEquals(15, ImportacionTransaccionesService.columnas("\uFEFFcodigo,monto,marca,estado,fechaInicio,fechaFin,"
+                + "diaMesPago,swiftBanco,cuentaIban,moneda,pais,tarjeta,fechaCaducidad,cvv,frecuenciaDias").length);
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> ImportacionTransaccionesService.columnas("monto,importe"));
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> ImportacionTransaccionesService.columnas(null));
+    }
+
+    @Test
+    public void testCampos_ComillasYCamposVacios() {
+        assertEquals(List.of("TR1", "MA\"S", "", "a,b"), ImportacionTransaccionesService.campos("\"TR1\",\"MA\"\"S\",,\"a,b\""));
+    }
+
+    private void guardarCheckpoint() {
+        when(importacionRepository.save(any(ImportacionTransacciones.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+    }
+
+    private void copiarCuentas() {
+        when(transaccionRepository.copiarEnLote(anyList())).thenAnswer(invocacion -> {
+            List<TransaccionRecurrente> bloque = invocacion.getArgument(0);
+            bloque.forEach(transaccion -> {
+                assertEquals("ACT", transaccion.getEstado());
+                assertTrue(transaccion.getCodigo() != null && transaccion.getProximaEjecucion() != null);
+                copiadas.add(transaccion.getCuentaIban());
+            });
+            return bloque.size();
+        });
+    }
+
+    private Path archivo(String... lineas) throws IOException {
+        return Files.writeString(directorio.resolve("transacciones.csv"), ENCABEZADO + String.join("\n", lineas) + "\n");
+    }
+
+    private static Path rechazos(Path archivo) {
+        return archivo.resolveSibling(archivo.getFileName() + ImportacionTransaccionesService.SUFIJO_RECHAZOS);
+    }
+
+    private static String fila(String cuentaIban, String monto, String fechaFin) {
+        return monto + ",\"VISA\",2025-01-01," + fechaFin + ",15,\"BANKEC21XXX\",\"" + cuentaIban + "\",\"USD\",\"EC\","
+                + "4532015112830366," + CADUCIDAD + ",\"456\",30";
+    }
+
+    private static String citada(String fila) {
+        return fila.replace("\"", "\"\"");
+    }
+
+    private static ImportacionTransacciones nueva(Path archivo) throws IOException {
+        ImportacionTransacciones importacion = new ImportacionTransacciones(1L);
+        importacion.setArchivo(archivo.getFileName().toString());
+        importacion.setTamanioArchivo(Files.size(archivo));
+        importacion.setEstado(ImportacionTransaccionesService.ESTADO_EN_PROCESO);
+        importacion.setPosicion(0L);
+        importacion.setPosicionRechazos(0L);
+        importacion.setLineas(0L);
+        importacion.setCargadas(0L);
+        importacion.setRechazadas(0L);
+        importacion.setFechaInicio(LocalDateTime.now());
+        importacion.setFechaActualizacion(LocalDateTime.now());
+        return importacion;
+    }
+
+    private int activadas() {
+        ArgumentCaptor<TransaccionesActivadasEvent> eventosActivadas = ArgumentCaptor.forClass(TransaccionesActivadasEvent.class);
+        verify(eventos, atLeastOnce()).publishEvent(eventosActivadas.capture());
+        return eventosActivadas.getAllValues().stream().mapToInt(evento -> evento.getTransacciones().size()).sum();
+    }
+}
@@ -0,0 +1,62 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LectorLineasTest {
+
+    @TempDir
+    private Path directorio;
+
+    @Test
+    public void testSiguiente_LineasConCrLfYSinSaltoFinal() throws IOException {
+        // Buffer menor que las líneas para que cada una cruce varias lecturas del canal
+        try (FileChannel canal = abrir("código,ñandú\r\n\nfinal")) {
+            LectorLineas lector = new LectorLineas(canal, 0, 4, 1024);
+
+            assertEquals("código,ñandú", lector.siguiente());
+            assertEquals(17, lector.posicion());
+            assertEquals("", lector.siguiente());
+            assertEquals(18, lector.posicion());
+            assertEquals("final", lector.siguiente());
+            assertEquals(23, lector.posicion());
+            assertNull(lector.siguiente());
+            assertNull(lector.siguiente());
+        }
+    }
+
+    @Test
+    public void testSiguiente_RetomaDesdeUnaPosicion() throws IOException {
+        try (FileChannel canal = abrir("encabezado\nuno\ndos\n")) {
+            LectorLineas lector = new LectorLineas(canal, 15, 8, 1024);
+
+            assertEquals("dos", lector.siguiente());
+            assertEquals(19, lector.posicion());
+            assertNull(lector.siguiente());
+        }
+    }
+
+    @Test
+    public void testSiguiente_LineaMayorALaLongitudMaxima() throws IOException {
+        try (FileChannel canal = abrir("a".repeat(600) + "\n")) {
+            LectorLineas lector = new LectorLineas(canal, 0, 64, 512);
+
+            assertThrows(IOException.class, lector::siguiente);
+        }
+    }
+
+    private FileChannel abrir(String contenido) throws IOException {
+        Path archivo = Files.writeString(directorio.resolve("lineas.csv"), contenido, StandardCharsets.UTF_8);
+        return FileChannel.open(archivo);
+    }
+}
@@ -0,0 +1,166 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.config.CacheConfig;
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+@ExtendWith(MockitoExtension.class)
+public class LoteTransaccionesServiceTest {
+
+    @Mock
+    private TransaccionRecurrenteService transaccionService;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    private LoteTransaccionesService service;
+
+    @BeforeEach
+    public void setup() {
+        service = new LoteTransaccionesService(transaccionService, eventos, entityManager, transactionManager, cacheManager,
+                100, 4, 2);
+    }
+
+    @Test
+    public void testCrear_ValidaEnUnaPasadaEInsertaPorBloques() {
+        asignarCodigos();
+        List<TransaccionRecurrente> lote = lote(10);
+        lote.get(3).setMonto(BigDecimal.ZERO);
+
+        List<String> errores = service.crear(lote);
+
+        assertEquals("Error en la transacción recurrente: El monto debe ser mayor a 0", errores.get(3));
+        assertNull(errores.get(0));
+        assertEquals("TR10", lote.get(9).getCodigo());
+        // 9 válidas en bloques de 4: tres transacciones y un flush cada 2 filas más uno al cerrar cada bloque
+        verify(transactionManager, times(3)).commit(any());
+        verify(entityManager, times(9)).persist(any(TransaccionRecurrente.class));
+        verify(entityManager, times(7)).flush();
+        assertEquals(9, activadas());
+    }
+
+    @Test
+    public void testCrear_UnBloqueFallidoSeInformaSinAfectarALosDemas() {
+        asignarCodigos();
+        List<TransaccionRecurrente> lote = lote(8);
+        int[] persistidas = { 0 };
+        doAnswer(invocacion -> {
+            if (++persistidas[0] == 5) {
+                throw new PersistenceException("duplicate key value violates unique constraint");
+            }
+            return null;
+        }).when(entityManager).persist(any(TransaccionRecurrente.class));
+
+        List<String> errores = service.crear(lote);
+
+        IntStream.range(0, 4).forEach(i -> assertNull(errores.get(i)));
+        IntStream.range(4, 8).forEach(i -> {
+            assertEquals("No se pudo guardar el bloque de transacciones que incluía esta transacción", errores.get(i));
+            assertNull(lote.get(i).getCodigo());
+        });
+        verify(transactionManager).rollback(any());
+        assertEquals(4, activadas());
+    }
+
+    @Test
+    public void testCrear_DescartaLasCuentasTrasConfirmarCadaBloque() {
+        asignarCodigos();
+        when(cacheManager.getCache(CacheConfig.CACHE_POR_CUENTA)).thenReturn(cache);
+        int[] persistidas = { 0 };
+        doAnswer(invocacion -> {
+            if (++persistidas[0] == 5) {
+                throw new PersistenceException("duplicate key value violates unique constraint");
+            }
+            return null;
+        }).when(entityManager).persist(any(TransaccionRecurrente.class));
+
+        service.crear(lote(8));
+
+        // Solo el primer bloque se confirma; el revertido no descarta nada
+        InOrder orden = inOrder(transactionManager, cache);
+        orden.verify(transactionManager).commit(any());
+        orden.verify(cache, times(3)).evict(any());
+        verify(cache, times(3)).evict(any());
+    }
+
+    @Test
+    public void testCrear_LoteFueraDeRango() {
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.crear(lote(101)));
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.crear(new ArrayList<>()));
+        verify(entityManager, never()).persist(any());
+    }
+
+    private void asignarCodigos() {
+        when(transaccionService.prepararNueva(any(TransaccionRecurrente.class))).thenAnswer(invocacion -> {
+            TransaccionRecurrente transaccion = invocacion.getArgument(0);
+            if (transaccion.getMonto().signum() <= 0) {
+                throw new TransaccionRecurrenteInvalidaException("El monto debe ser mayor a 0");
+            }
+            transaccion.setCodigo("TR" + transaccion.getMonto().intValue());
+            transaccion.setProximaEjecucion(LocalDateTime.now());
+            return transaccion;
+        });
+    }
+
+    private static List<TransaccionRecurrente> lote(int tamanio) {
+        List<TransaccionRecurrente> lote = new ArrayList<>(tamanio);
+        for (int i = 1; i <= tamanio; i++) {
+            TransaccionRecurrente transaccion = new TransaccionRecurrente();
+            transaccion.setMonto(new BigDecimal(i));
+            transaccion.setCuentaIban("EC1234567890123456789" + i % 3);
+            lote.add(transaccion);
+        }
+        return lote;
+    }
+
+    private int activadas() {
+        ArgumentCaptor<TransaccionesActivadasEvent> eventosActivadas = ArgumentCaptor.forClass(TransaccionesActivadasEvent.class);
+        verify(eventos, atLeastOnce()).publishEvent(eventosActivadas.capture());
+        return eventosActivadas.getAllValues().stream().mapToInt(evento -> evento.getTransacciones().size()).sum();
+    }
+}
@@ -0,0 +1,55 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class PoliticaReintentoTest {
+
+    @Test
+    public void testCalcularEspera_SinJitterCreceExponencialmenteHastaElMaximo() {
+        PoliticaReintento politica = new PoliticaReintento(10, 60, 2.0, 600, 0.0);
+
+        assertEquals(Duration.ofSeconds(60), politica.calcularEspera(1));
+        assertEquals(Duration.ofSeconds(120), politica.calcularEspera(2));
+        assertEquals(Duration.ofSeconds(240), politica.calcularEspera(3));
+        assertEquals(Duration.ofSeconds(480), politica.calcularEspera(4));
+        assertEquals(Duration.ofSeconds(600), politica.calcularEspera(5));
+        assertEquals(Duration.ofSeconds(600), politica.calcularEspera(9));
+    }
+
+    @Test
+    public void testCalcularEspera_ConJitterReparteLosReintentosDentroDelRango() {
+        PoliticaReintento politica = new PoliticaReintento(3, 60, 2.0, 3600, 0.5);
+        Set<Long> esperas = new HashSet<>();
+
+        for (int i = 0; i < 1_000; i++) {
+            long espera = politica.calcularEspera(2).toMillis();
+            assertTrue(espera >= 60_000 && espera <= 120_000, "Espera fuera de rango: " + espera);
+            esperas.add(espera);
+        }
+
+        assertTrue(esperas.size() > 100, "El jitter debe dispersar los reintentos");
+    }
+
+    @Test
+    public void testPermiteReintento() {
+        PoliticaReintento politica = new PoliticaReintento(3, 60, 2.0, 3600, 0.5);
+
+        assertTrue(politica.permiteReintento(3));
+        assertFalse(politica.permiteReintento(4));
+    }
+
+    @Test
+    public void testConstructor_ParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new PoliticaReintento(3, 60, 0.5, 3600, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new PoliticaReintento(3, 60, 2.0, 3600, 1.5));
+    }
+}
@@ -0,0 +1,144 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.CargaTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.TransaccionRecurrenteRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class PronosticoCargaServiceTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2025, 2, 27, 10, 0);
+
+    @Mock
+    private TransaccionRecurrenteRepository repository;
+
+    @Test
+    public void testPronosticar_ModoPruebaDesdeLaProximaEjecucionHastaLaFechaFin() {
+        // Cada 60 minutos desde las 10:30 del 27 hasta el final del 28
+        Carga horaria = new Carga("10.00", "USD", "BANKEC21XXX", 15, 60, null, LocalDate.of(2025, 2, 28), AHORA.plusMinutes(30));
+        // Vencida, sale en el siguiente minuto y cada 30 minutos, pero recién desde el 1 de marzo
+        Carga futura = new Carga("1.50", "EUR", null, 15, null, LocalDate.of(2025, 3, 1), null, AHORA.minusDays(1));
+        when(repository.streamCargaByEstado("ACT")).thenReturn(Stream.of(horaria, futura));
+
+        PronosticoCarga pronostico = new PronosticoCargaService(repository, true).pronosticar(3, AHORA);
+
+        assertEquals(LocalDateTime.of(2025, 2, 27, 0, 0), pronostico.getDesde());
+        assertEquals(1, pronostico.cantidadEnMinuto(10 * 60 + 30));
+        assertEquals(1000, pronostico.centavosEnMinuto(10 * 60 + 30));
+        assertEquals(0, pronostico.cantidadEnMinuto(10 * 60));
+        long[][] usd = pronostico.getPorMoneda().get("USD");
+        assertEquals(14, usd[0][0]);
+        assertEquals(24, usd[0][1]);
+        assertEquals(0, usd[0][2]);
+        long[][] eur = pronostico.getPorMoneda().get("EUR");
+        assertEquals(0, eur[0][1]);
+        assertEquals(48, eur[0][2]);
+        assertEquals(48 * 150, eur[1][2]);
+        assertEquals(1, pronostico.cantidadEnMinuto(2 * 1440));
+        assertEquals(48, pronostico.getPorBanco().get("desconocido")[0][2]);
+    }
+
+    @Test
+    public void testPronosticar_ModoMensualEnElUltimoDiaDeUnMesCorto() {
+        Carga fin = new Carga("20.00", "USD", "BANKEC21XXX", 31, 30, null, null, null);
+        Carga terminada = new Carga("5.00", "USD", "BANKEC21XXX", 28, 30, null, LocalDate.of(2025, 2, 27), null);
+        Carga marzo = new Carga("7.00", "USD", "BANKEC21XXX", 2, 30, null, null, null);
+        when(repository.streamCargaByEstado("ACT")).thenReturn(Stream.of(fin, terminada, marzo));
+
+        PronosticoCarga pronostico = new PronosticoCargaService(repository, false).pronosticar(5, AHORA);
+
+        long[][] usd = pronostico.getPorMoneda().get("USD");
+        assertEquals(0, usd[0][0]);
+        assertEquals(1, usd[0][1]);
+        assertEquals(2000, usd[1][1]);
+        assertEquals(1, usd[0][3]);
+        assertEquals(1, pronostico.cantidadEnMinuto(1440));
+        assertEquals(700, pronostico.centavosEnMinuto(3 * 1440));
+    }
+
+    @Test
+    public void testPronosticar_DiasFueraDeRango() {
+        PronosticoCargaService service = new PronosticoCargaService(repository, true);
+
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.pronosticar(0, AHORA));
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.pronosticar(32, AHORA));
+    }
+
+    private static final class Carga implements CargaTransaccion {
+
+        private final BigDecimal monto;
+        private final String moneda;
+        private final String swiftBanco;
+        private final Integer diaMesPago;
+        private final Integer frecuenciaDias;
+        private final LocalDate fechaInicio;
+        private final LocalDate fechaFin;
+        private final LocalDateTime proximaEjecucion;
+
+        private Carga(String monto, String moneda, String swiftBanco, Integer diaMesPago, Integer frecuenciaDias,
+                LocalDate fechaInicio, LocalDate fechaFin, LocalDateTime proximaEjecucion) {
+            this.monto = new BigDecimal(monto);
+            this.moneda = moneda;
+            this.swiftBanco = swiftBanco;
+            this.diaMesPago = diaMesPago;
+            this.frecuenciaDias = frecuenciaDias;
+            this.fechaInicio = fechaInicio;
+            this.fechaFin = fechaFin;
+            this.proximaEjecucion = proximaEjecucion;
+        }
+
+        @Override
+        public BigDecimal getMonto() {
+            return monto;
+        }
+
+        @Override
+        public String getMoneda() {
+            return moneda;
+        }
+
+        @Override
+        public String getSwiftBanco() {
+            return swiftBanco;
+        }
+
+        @Override
+        public Integer getDiaMesPago() {
+            return diaMesPago;
+        }
+
+        @Override
+        public Integer getFrecuenciaDias() {
+            return frecuenciaDias;
+        }
+
+        @Override
+        public LocalDate getFechaInicio() {
+            return fechaInicio;
+        }
+
+        @Override
+        public LocalDate getFechaFin() {
+            return fechaFin;
+        }
+
+        @Override
+        public LocalDateTime getProximaEjecucion() {
+            return proximaEjecucion;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class PronosticoCargaTest {
+
+    private static final LocalDateTime DESDE = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    @Test
+    public void testCerrar_CoincideConRecorrerCadaEjecucion() {
+        PronosticoCarga pronostico = new PronosticoCarga(DESDE, 3);
+
+        verificarContraRecorrido(pronostico, new int[] { 1, 7, 30, 1440, 2000 });
+    }
+
+    @Test
+    public void testAgregar_AcotaLosArreglosDeDiferenciasConMuchasFrecuencias() {
+        PronosticoCarga pronostico = new PronosticoCarga(DESDE, 3);
+        int[] pasos = new int[60];
+        for (int i = 0; i < pasos.length; i++) {
+            pasos[i] = i + 1;
+        }
+
+        verificarContraRecorrido(pronostico, pasos);
+
+        assertTrue(pronostico.pasosConDiferencias() <= PronosticoCarga.MAXIMO_PASOS_CON_DIFERENCIAS);
+    }
+
+    private static void verificarContraRecorrido(PronosticoCarga pronostico, int[] pasos) {
+        long[] cantidades = new long[pronostico.getMinutos()];
+        long[] centavos = new long[pronostico.getMinutos()];
+        long[] usdPorDia = new long[pronostico.getDias()];
+        Random aleatorio = new Random(42);
+
+        for (int i = 0; i < 500; i++) {
+            int primera = aleatorio.nextInt(pronostico.getMinutos() + 100) - 50;
+            int paso = pasos[aleatorio.nextInt(pasos.length)];
+            int limite = aleatorio.nextInt(pronostico.getMinutos() + 200);
+            long monto = 1 + aleatorio.nextInt(10000);
+            String moneda = i % 2 == 0 ? "USD" : "EUR";
+            pronostico.agregar(primera, paso, limite, monto, moneda, "BANKEC21XXX");
+            if (primera < 0) {
+                continue;
+            }
+            for (int minuto = primera; minuto < Math.min(limite, pronostico.getMinutos()); minuto += paso) {
+                cantidades[minuto]++;
+                centavos[minuto] += monto;
+                if (moneda.equals("USD")) {
+                    usdPorDia[minuto / PronosticoCarga.MINUTOS_DIA]++;
+                }
+            }
+        }
+        pronostico.cerrar();
+
+        for (int minuto = 0; minuto < pronostico.getMinutos(); minuto++) {
+            assertEquals(cantidades[minuto], pronostico.cantidadEnMinuto(minuto), "cantidad en el minuto " + minuto);
+            assertEquals(centavos[minuto], pronostico.centavosEnMinuto(minuto), "centavos en el minuto " + minuto);
+        }
+        assertArrayEquals(usdPorDia, pronostico.getPorMoneda().get("USD")[0]);
+    }
+
+    @Test
+    public void testAgregar_SinBancoSeAgrupaComoDesconocido() {
+        PronosticoCarga pronostico = new PronosticoCarga(DESDE, 1);
+
+        pronostico.agregar(10, 60, 200, 250, "USD", null);
+        pronostico.cerrar();
+
+        assertEquals(4, pronostico.getPorBanco().get("desconocido")[0][0]);
+        assertEquals(1000, pronostico.getPorBanco().get("desconocido")[1][0]);
+        assertThrows(IllegalStateException.class, () -> pronostico.agregar(0, 1, 1, 1, "USD", null));
+    }
+
+    @Test
+    public void testOcurrencias() {
+        assertEquals(4, PronosticoCarga.ocurrencias(10, 60, 10, 200));
+        assertEquals(3, PronosticoCarga.ocurrencias(10, 60, 11, 200));
+        assertEquals(3, PronosticoCarga.ocurrencias(10, 60, 10, 190));
+        assertEquals(0, PronosticoCarga.ocurrencias(10, 60, 200, 200));
+    }
+}
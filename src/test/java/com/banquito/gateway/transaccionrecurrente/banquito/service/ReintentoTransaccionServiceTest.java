@@ -0,0 +1,45 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.ReintentoTransaccionRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class ReintentoTransaccionServiceTest {
+
+    @Mock
+    private ReintentoTransaccionRepository repository;
+
+    @Mock
+    private PoliticaReintento politica;
+
+    @Test
+    public void testCodigosConReintentoPendiente_EliminaAntesLosHuerfanos() {
+        when(repository.eliminarSinTransaccionActiva()).thenReturn(2);
+        when(repository.findCodigosTransaccion()).thenReturn(Set.of("TR00000001"));
+
+        Set<String> codigos = new ReintentoTransaccionService(repository, politica).codigosConReintentoPendiente();
+
+        assertEquals(Set.of("TR00000001"), codigos);
+        InOrder orden = inOrder(repository);
+        orden.verify(repository).eliminarSinTransaccionActiva();
+        orden.verify(repository).findCodigosTransaccion();
+    }
+
+    @Test
+    public void testEliminarHuerfanos_DevuelveLosEliminados() {
+        when(repository.eliminarSinTransaccionActiva()).thenReturn(3);
+
+        assertEquals(3, new ReintentoTransaccionService(repository, politica).eliminarHuerfanos());
+    }
+}
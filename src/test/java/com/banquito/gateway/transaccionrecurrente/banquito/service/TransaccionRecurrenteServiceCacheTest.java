@@ -0,0 +1,232 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.config.CacheConfig;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.repository.TransaccionRecurrenteRepository;
+
+import jakarta.persistence.EntityManager;
+
+@SpringJUnitConfig(TransaccionRecurrenteServiceCacheTest.Configuracion.class)
+public class TransaccionRecurrenteServiceCacheTest {
+
+    private static final String CODIGO = "0KZ3M8Q1X4";
+    private static final String IBAN = "EC12345678901234567890";
+    private static final String OTRA_IBAN = "EC09876543210987654321";
+
+    @Configuration
+    @EnableCaching
+    @Import(TransaccionRecurrenteService.class)
+    static class Configuracion {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.CACHE_POR_CODIGO, CacheConfig.CACHE_POR_CUENTA);
+        }
+    }
+
+    @MockitoBean
+    private TransaccionRecurrenteRepository repository;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private GeneradorCodigo generadorCodigo;
+
+    @Autowired
+    private TransaccionRecurrenteService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void limpiarCache() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+    }
+
+    @Test
+    public void testObtenerPorCodigo_SegundaLecturaDesdeCache() {
+        TransaccionRecurrente transaccion = transaccion();
+        when(repository.findById(CODIGO)).thenReturn(Optional.of(transaccion));
+
+        TransaccionRecurrente primera = service.obtenerPorCodigo(CODIGO);
+        transaccion.setEstado("CAN");
+        TransaccionRecurrente segunda = service.obtenerPorCodigo(CODIGO);
+
+        // La caché guarda una copia: los cambios sobre la entidad leída no la alcanzan
+        assertNotSame(transaccion, primera);
+        assertSame(primera, segunda);
+        assertEquals("ACT", segunda.getEstado());
+        verify(repository, times(1)).findById(CODIGO);
+    }
+
+    @Test
+    public void testActualizarEstado_DescartaCodigoYCuenta() {
+        TransaccionRecurrente transaccion = transaccion();
+        when(repository.findById(CODIGO)).thenReturn(Optional.of(transaccion));
+        when(repository.findByCuentaIban(IBAN)).thenReturn(List.of(transaccion));
+        when(repository.save(any(TransaccionRecurrente.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+        service.obtenerPorCodigo(CODIGO);
+        service.obtenerPorCuentaIban(IBAN);
+        clearInvocations(repository);
+
+        service.actualizarEstado(CODIGO, "CAN");
+        service.obtenerPorCodigo(CODIGO);
+        service.obtenerPorCuentaIban(IBAN);
+
+        // Una lectura dentro de actualizarEstado y otra después del descarte
+        verify(repository, times(2)).findById(CODIGO);
+        verify(repository, times(1)).findByCuentaIban(IBAN);
+    }
+
+    @Test
+    public void testCrear_GuardaPorCodigoYDescartaLaCuenta() {
+        when(repository.findByCuentaIban(IBAN)).thenReturn(List.of());
+        service.obtenerPorCuentaIban(IBAN);
+        TransaccionRecurrente nueva = transaccion();
+        nueva.setCodigo(null);
+        when(generadorCodigo.generar()).thenReturn(CODIGO);
+        when(repository.save(any(TransaccionRecurrente.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        service.crear(nueva);
+        service.obtenerPorCodigo(CODIGO);
+        service.obtenerPorCuentaIban(IBAN);
+
+        verify(repository, times(0)).findById(CODIGO);
+        verify(repository, times(2)).findByCuentaIban(IBAN);
+    }
+
+    @Test
+    public void testActualizarEstados_DescartaLosCodigosDelLote() {
+        when(repository.findById(CODIGO)).thenReturn(Optional.of(transaccion()));
+        service.obtenerPorCodigo(CODIGO);
+
+        service.actualizarEstados(List.of(CODIGO), "FIN");
+        service.obtenerPorCodigo(CODIGO);
+
+        verify(repository, times(2)).findById(CODIGO);
+    }
+
+    @Test
+    public void testActualizarEstados_DescartaSoloLasCuentasAfectadas() {
+        when(repository.findByCuentaIban(IBAN)).thenReturn(List.of(transaccion()));
+        when(repository.findByCuentaIban(OTRA_IBAN)).thenReturn(List.of());
+        when(repository.obtenerCuentasIban(List.of(CODIGO))).thenReturn(List.of(IBAN));
+        service.obtenerPorCuentaIban(IBAN);
+        service.obtenerPorCuentaIban(OTRA_IBAN);
+
+        service.actualizarEstados(List.of(CODIGO), "CAN");
+        service.obtenerPorCuentaIban(IBAN);
+        service.obtenerPorCuentaIban(OTRA_IBAN);
+
+        verify(repository, times(2)).findByCuentaIban(IBAN);
+        verify(repository, times(1)).findByCuentaIban(OTRA_IBAN);
+    }
+
+    @Test
+    public void testRegistrarEjecuciones_DescartaSoloLasCuentasAfectadas() {
+        when(repository.findByCuentaIban(IBAN)).thenReturn(List.of(transaccion()));
+        when(repository.findByCuentaIban(OTRA_IBAN)).thenReturn(List.of());
+        when(repository.obtenerCuentasIban(List.of(CODIGO))).thenReturn(List.of(IBAN));
+        service.obtenerPorCuentaIban(IBAN);
+        service.obtenerPorCuentaIban(OTRA_IBAN);
+
+        service.registrarEjecuciones(List.of(CODIGO), LocalDateTime.of(2025, 3, 1, 8, 0));
+        service.obtenerPorCuentaIban(IBAN);
+        service.obtenerPorCuentaIban(OTRA_IBAN);
+
+        verify(repository, times(2)).findByCuentaIban(IBAN);
+        verify(repository, times(1)).findByCuentaIban(OTRA_IBAN);
+    }
+
+    @Test
+    public void testFinalizarVencidas_DescartaSoloLasCuentasAfectadas() {
+        LocalDate hoy = LocalDate.of(2025, 3, 1);
+        when(repository.findByCuentaIban(IBAN)).thenReturn(List.of(transaccion()));
+        when(repository.findByCuentaIban(OTRA_IBAN)).thenReturn(List.of());
+        when(repository.finalizarVencidas(hoy, 100)).thenReturn(List.of(CODIGO));
+        when(repository.obtenerCuentasIban(List.of(CODIGO))).thenReturn(List.of(IBAN));
+        service.obtenerPorCuentaIban(IBAN);
+        service.obtenerPorCuentaIban(OTRA_IBAN);
+
+        service.finalizarVencidas(hoy, 100);
+        service.obtenerPorCuentaIban(IBAN);
+        service.obtenerPorCuentaIban(OTRA_IBAN);
+
+        verify(repository, times(2)).findByCuentaIban(IBAN);
+        verify(repository, times(1)).findByCuentaIban(OTRA_IBAN);
+    }
+
+    @Test
+    public void testObtenerPorCodigo_FallosConcurrentesCarganUnaSolaVez() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(repository.findById(CODIGO)).thenAnswer(invocacion -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return Optional.of(transaccion());
+        });
+        ExecutorService ejecutor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TransaccionRecurrente>> lecturas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                lecturas.add(ejecutor.submit(() -> service.obtenerPorCodigo(CODIGO)));
+            }
+            Thread.sleep(200);
+            liberar.countDown();
+            TransaccionRecurrente primera = lecturas.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<TransaccionRecurrente> lectura : lecturas) {
+                assertSame(primera, lectura.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        verify(repository, times(1)).findById(CODIGO);
+        assertEquals(1, ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cacheManager.getCache(CacheConfig.CACHE_POR_CODIGO)
+                .getNativeCache()).estimatedSize());
+    }
+
+    private static TransaccionRecurrente transaccion() {
+        TransaccionRecurrente transaccion = new TransaccionRecurrente(CODIGO);
+        transaccion.setMonto(new BigDecimal("100.50"));
+        transaccion.setMarca("VISA");
+        transaccion.setEstado("ACT");
+        transaccion.setFechaInicio(LocalDate.now());
+        transaccion.setDiaMesPago(15);
+        transaccion.setCuentaIban(IBAN);
+        transaccion.setFrecuenciaDias(15);
+        transaccion.setProximaEjecucion(LocalDateTime.now().plusMinutes(15));
+        return transaccion;
+    }
+}
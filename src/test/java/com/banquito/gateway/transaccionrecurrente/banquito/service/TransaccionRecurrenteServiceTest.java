@@ -1,40 +1,71 @@
 package com.banquito.gateway.transaccionrecurrente.banquito.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteInvalidaException;
 import com.banquito.gateway.transaccionrecurrente.banquito.exception.TransaccionRecurrenteNotFoundException;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.ProgramacionTransaccion;
 import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
 import com.banquito.gateway.transaccionrecurrente.banquito.repository.TransaccionRecurrenteRepository;
 
+import jakarta.persistence.EntityManager;
+
 @ExtendWith(MockitoExtension.class)
 public class TransaccionRecurrenteServiceTest {
 
     @Mock
     private TransaccionRecurrenteRepository repository;
 
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private GeneradorCodigo generadorCodigo;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private TransaccionRecurrenteService service;
 
@@ -135,12 +166,16 @@ public class TransaccionRecurrenteServiceTest {
         nuevaTransaccion.setTarjeta(4532123456789012L);
         nuevaTransaccion.setFechaCaducidad(LocalDate.now().plusYears(2));
 
+        when(generadorCodigo.generar()).thenReturn("0KZ3M8Q1X4");
         when(repository.save(any(TransaccionRecurrente.class))).thenReturn(nuevaTransaccion);
 
         TransaccionRecurrente resultado = service.crear(nuevaTransaccion);
 
         verify(repository, times(1)).save(any(TransaccionRecurrente.class));
-        assertNotNull(resultado.getCodigo());
+        ArgumentCaptor<TransaccionesActivadasEvent> activadas = ArgumentCaptor.forClass(TransaccionesActivadasEvent.class);
+        verify(eventos).publishEvent(activadas.capture());
+        assertEquals(List.of(nuevaTransaccion), activadas.getValue().getTransacciones());
+        assertEquals("0KZ3M8Q1X4", resultado.getCodigo());
         assertEquals("ACT", resultado.getEstado());
         assertEquals(new BigDecimal("150.75"), resultado.getMonto());
     }
@@ -226,13 +261,119 @@ public class TransaccionRecurrenteServiceTest {
 
     @Test
     public void testObtenerTransaccionesParaEjecutar() {
-        when(repository.findByEstadoAndDiaMesPagoAndFechaFinGreaterThanEqual(anyString(), anyInt(), any(LocalDate.class)))
+        when(repository.buscarActivasPorDiaPago(anyInt(), any(LocalDate.class)))
                 .thenReturn(transaccionesList);
 
         List<TransaccionRecurrente> resultado = service.obtenerTransaccionesParaEjecutar(15);
 
-        verify(repository, times(1)).findByEstadoAndDiaMesPagoAndFechaFinGreaterThanEqual(
-                eq("ACT"), eq(15), any(LocalDate.class));
+        verify(repository, times(1)).buscarActivasPorDiaPago(eq(15), any(LocalDate.class));
         assertEquals(2, resultado.size());
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testRegistrarEjecuciones_UnaSentenciaPorBloqueDeCodigos() {
+        List<String> codigos = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            codigos.add(String.format("TR%08d", i));
+        }
+        LocalDateTime ejecucion = LocalDateTime.of(2025, 3, 1, 10, 0);
+        when(repository.registrarEjecuciones(anyCollection(), eq(ejecucion), eq(TransaccionRecurrenteService.FRECUENCIA_POR_DEFECTO)))
+                .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).size());
+
+        int actualizadas = service.registrarEjecuciones(codigos, ejecucion);
+
+        verify(repository, times(3)).registrarEjecuciones(anyCollection(), eq(ejecucion), eq(TransaccionRecurrenteService.FRECUENCIA_POR_DEFECTO));
+        verify(repository, never()).save(any(TransaccionRecurrente.class));
+        assertEquals(2500, actualizadas);
+    }
+
+    @Test
+    public void testActualizarEstados_CancelaEnPlanificador() {
+        List<String> codigos = List.of("TR12345678", "TR87654321");
+        when(repository.actualizarEstados(codigos, "CAN")).thenReturn(2);
+
+        int actualizadas = service.actualizarEstados(codigos, "CAN");
+
+        assertEquals(2, actualizadas);
+        assertEquals(codigos, codigosRetirados());
+    }
+
+    @Test
+    public void testFinalizarVencidas_RetiraDelPlanificador() {
+        LocalDate hoy = LocalDate.of(2025, 3, 1);
+        when(repository.finalizarVencidas(hoy, 100)).thenReturn(List.of("TR12345678", "TR87654321"));
+
+        List<String> finalizadas = service.finalizarVencidas(hoy, 100);
+
+        assertEquals(2, finalizadas.size());
+        assertEquals(finalizadas, codigosRetirados());
+        verify(repository, never()).save(any(TransaccionRecurrente.class));
+    }
+
+    @Test
+    public void testRecorrerPorEstado_LiberaElContextoDePersistenciaPorBloques() {
+        SpelAwareProxyProjectionFactory proyecciones = new SpelAwareProxyProjectionFactory();
+        when(repository.streamByEstado("ACT")).thenReturn(IntStream.range(0, 1200)
+                .mapToObj(i -> proyecciones.createProjection(ProgramacionTransaccion.class, 
+                        new TransaccionRecurrente(String.format("TR%08d", i)))));
+        AtomicInteger procesadas = new AtomicInteger();
+
+        int recorridas = service.recorrerPorEstado("ACT", transaccion -> procesadas.incrementAndGet());
+
+        assertEquals(1200, recorridas);
+        assertEquals(1200, procesadas.get());
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    public void testExportarPorEstado_RecorreElCursorYValidaAntesDeConsultar() {
+        when(repository.streamTransaccionesByEstado("ACT")).thenReturn(IntStream.range(0, 600)
+                .mapToObj(i -> new TransaccionRecurrente(String.format("TR%08d", i))));
+        List<String> exportadas = new ArrayList<>();
+
+        int recorridas = service.exportarPorEstado("ACT", transaccion -> exportadas.add(transaccion.getCodigo()));
+
+        assertEquals(600, recorridas);
+        assertEquals("TR00000599", exportadas.get(599));
+        verify(entityManager, times(2)).clear();
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.exportarPorEstado("XYZ", transaccion -> {}));
+        verify(repository, never()).streamTransaccionesByEstado("XYZ");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBuscarTransaccionesPorCursor_PideUnaFilaDeMasYNoCuenta() {
+        List<TransaccionRecurrente> filas = IntStream.range(0, 11)
+                .mapToObj(i -> new TransaccionRecurrente(String.format("TR%08d", i)))
+                .toList();
+        when(repository.findBy(any(Specification.class), any(Function.class))).thenReturn(filas);
+
+        Slice<TransaccionRecurrente> pagina = service.buscarTransaccionesPorCursor("ACT", null, null, false, 
+                "codigo", Sort.Direction.ASC, 10, null);
+
+        assertEquals(10, pagina.getNumberOfElements());
+        assertTrue(pagina.hasNext());
+        verify(repository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    public void testBuscarTransaccionesPorCursor_CampoNoPermitido() {
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.buscarTransaccionesPorCursor(
+                null, null, null, false, "fechaFin", Sort.Direction.ASC, 10, null));
+    }
+
+    @Test
+    public void testObtenerResumen_AgrupaPorLasDimensionesPedidas() {
+        service.obtenerResumen(List.of("estado", "diaMesPago"));
+
+        verify(repository).obtenerResumen(true, false, false, true);
+        assertThrows(TransaccionRecurrenteInvalidaException.class, () -> service.obtenerResumen(List.of("estado", "tarjeta")));
+        verify(repository, times(1)).obtenerResumen(anyBoolean(), anyBoolean(), anyBoolean(), anyBoolean());
+    }
+
+    private List<String> codigosRetirados() {
+        ArgumentCaptor<TransaccionesRetiradasEvent> retiradas = ArgumentCaptor.forClass(TransaccionesRetiradasEvent.class);
+        verify(eventos).publishEvent(retiradas.capture());
+        return retiradas.getValue().getCodigos();
+    }
+}
@@ -0,0 +1,65 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class CalendarioMensualTest {
+
+    @Test
+    public void testVencenEn_SoloLaCubetaDelDia() {
+        CalendarioMensual<String> calendario = new CalendarioMensual<>();
+        calendario.agregar("A", 15);
+        calendario.agregar("B", 16);
+        calendario.agregar("C", 31);
+
+        assertEquals(List.of("A"), calendario.vencenEn(LocalDate.of(2025, 3, 15)));
+        assertEquals(List.of("C"), calendario.vencenEn(LocalDate.of(2025, 3, 31)));
+        assertTrue(calendario.vencenEn(LocalDate.of(2025, 3, 30)).isEmpty());
+    }
+
+    @Test
+    public void testVencenEn_ElUltimoDiaDeUnMesCortoIncluyeLosDiasQueNoTiene() {
+        CalendarioMensual<String> calendario = new CalendarioMensual<>();
+        calendario.agregar("28", 28);
+        calendario.agregar("29", 29);
+        calendario.agregar("30", 30);
+        calendario.agregar("31", 31);
+
+        assertEquals(Set.of("28", "29", "30", "31"), new HashSet<>(calendario.vencenEn(LocalDate.of(2025, 2, 28))));
+        assertEquals(List.of("28"), calendario.vencenEn(LocalDate.of(2024, 2, 28)));
+        assertEquals(Set.of("29", "30", "31"), new HashSet<>(calendario.vencenEn(LocalDate.of(2024, 2, 29))));
+        assertEquals(Set.of("30", "31"), new HashSet<>(calendario.vencenEn(LocalDate.of(2025, 4, 30))));
+    }
+
+    @Test
+    public void testAgregar_CambiarDeDiaLaMueveDeCubeta() {
+        CalendarioMensual<String> calendario = new CalendarioMensual<>();
+        calendario.agregar("A", 10);
+        calendario.agregar("A", 20);
+
+        assertTrue(calendario.vencenEn(LocalDate.of(2025, 3, 10)).isEmpty());
+        assertEquals(List.of("A"), calendario.vencenEn(LocalDate.of(2025, 3, 20)));
+        assertEquals(1, calendario.tamanio());
+    }
+
+    @Test
+    public void testRetirar() {
+        CalendarioMensual<String> calendario = new CalendarioMensual<>();
+        calendario.agregar("A", 10);
+        calendario.agregar("B", null);
+
+        assertTrue(calendario.retirar("A"));
+        assertFalse(calendario.retirar("A"));
+        assertFalse(calendario.contiene("B"));
+        assertTrue(calendario.vencenEn(LocalDate.of(2025, 3, 10)).isEmpty());
+        assertEquals(0, calendario.tamanio());
+    }
+}
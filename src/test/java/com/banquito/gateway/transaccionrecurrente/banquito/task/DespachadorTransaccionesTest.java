@@ -0,0 +1,112 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+public class DespachadorTransaccionesTest {
+
+    private DespachadorTransacciones despachador;
+
+    @AfterEach
+    public void detener() {
+        if (despachador != null) {
+            despachador.detener();
+        }
+    }
+
+    @Test
+    public void testDespachar_NoSuperaLaConcurrenciaMaxima() throws Exception {
+        despachador = new DespachadorTransacciones(5);
+        AtomicInteger simultaneas = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+
+        despachador.despachar(transacciones(50), transaccion -> {
+            maximo.accumulateAndGet(simultaneas.incrementAndGet(), Math::max);
+            dormir(10);
+            simultaneas.decrementAndGet();
+        }).get(10, TimeUnit.SECONDS);
+
+        assertTrue(maximo.get() <= 5);
+    }
+
+    @Test
+    public void testDespachar_MismoCodigoNuncaEstaEnVueloDosVeces() throws Exception {
+        despachador = new DespachadorTransacciones(10);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger ejecuciones = new AtomicInteger();
+        Consumer<TransaccionRecurrente> lenta = transaccion -> {
+            ejecuciones.incrementAndGet();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        var primerCiclo = despachador.despachar(List.of(transaccion("TR00000001")), lenta);
+        var segundoCiclo = despachador.despachar(List.of(transaccion("TR00000001"), transaccion("TR00000001")), lenta);
+        liberar.countDown();
+        primerCiclo.get(5, TimeUnit.SECONDS);
+        segundoCiclo.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(0, despachador.enVuelo());
+    }
+
+    @Test
+    public void testDespacharLotes_AgrupaEnLotesYOmiteCodigosEnVuelo() throws Exception {
+        despachador = new DespachadorTransacciones(10);
+        CountDownLatch liberar = new CountDownLatch(1);
+        var primerCiclo = despachador.despachar(List.of(transaccion("TR00000003")), transaccion -> {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        List<Integer> tamanios = Collections.synchronizedList(new ArrayList<>());
+
+        despachador.despacharLotes(transacciones(1201), 500, lote -> tamanios.add(lote.size())).get(5, TimeUnit.SECONDS);
+        liberar.countDown();
+        primerCiclo.get(5, TimeUnit.SECONDS);
+
+        Collections.sort(tamanios);
+        assertEquals(List.of(200, 500, 500), tamanios);
+        assertEquals(0, despachador.enVuelo());
+    }
+
+    private static List<TransaccionRecurrente> transacciones(int cantidad) {
+        List<TransaccionRecurrente> transacciones = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            transacciones.add(transaccion(String.format("TR%08d", i)));
+        }
+        return transacciones;
+    }
+
+    private static TransaccionRecurrente transaccion(String codigo) {
+        TransaccionRecurrente transaccion = new TransaccionRecurrente(codigo);
+        transaccion.setEstado("ACT");
+        return transaccion;
+    }
+
+    private static void dormir(long milis) {
+        try {
+            Thread.sleep(milis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
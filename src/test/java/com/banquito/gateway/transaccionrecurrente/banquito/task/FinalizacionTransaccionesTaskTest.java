@@ -0,0 +1,56 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.client.mapper.TransaccionSimpleMapper;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.TransaccionRecurrenteService;
+
+@ExtendWith(MockitoExtension.class)
+public class FinalizacionTransaccionesTaskTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 1);
+
+    @Mock
+    private TransaccionRecurrenteService service;
+
+    @Mock
+    private TransaccionSimpleMapper transaccionSimpleMapper;
+
+    @Test
+    public void testFinalizarVencidas_RecorreBloquesHastaUnoIncompleto() {
+        when(service.finalizarVencidas(HOY, 2))
+                .thenReturn(List.of("TR00000001", "TR00000002"))
+                .thenReturn(List.of("TR00000003", "TR00000004"))
+                .thenReturn(List.of("TR00000005"));
+
+        int finalizadas = new FinalizacionTransaccionesTask(service, transaccionSimpleMapper, 2).finalizarVencidas(HOY);
+
+        assertEquals(5, finalizadas);
+        verify(service, times(3)).finalizarVencidas(HOY, 2);
+        verify(transaccionSimpleMapper).descartarPlantilla("TR00000005");
+    }
+
+    @Test
+    public void testFinalizarVencidas_UnErrorDetieneLaEjecucion() {
+        when(service.finalizarVencidas(HOY, 2))
+                .thenReturn(List.of("TR00000001", "TR00000002"))
+                .thenThrow(new DataAccessResourceFailureException("Conexión cerrada"));
+
+        int finalizadas = new FinalizacionTransaccionesTask(service, transaccionSimpleMapper, 2).finalizarVencidas(HOY);
+
+        assertEquals(2, finalizadas);
+        verify(service, times(2)).finalizarVencidas(HOY, 2);
+    }
+}
@@ -0,0 +1,81 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MetricasTransaccionesTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricasTransacciones metricas = new MetricasTransacciones(registry);
+
+    @Test
+    public void testRegistrarEnvio_EtiquetadoPorResultadoMarcaYBanco() {
+        TransaccionRecurrente visa = transaccion("VISA", "BANKEC21XXX");
+        TransaccionRecurrente sinBanco = transaccion("MSTR", null);
+
+        metricas.registrarEnvio(visa, RegistroEjecuciones.RESULTADO_EXITOSO, TimeUnit.MILLISECONDS.toNanos(40));
+        metricas.registrarEnvio(visa, RegistroEjecuciones.RESULTADO_EXITOSO, TimeUnit.MILLISECONDS.toNanos(60));
+        metricas.registrarEnvio(sinBanco, RegistroEjecuciones.RESULTADO_RECHAZADO, TimeUnit.MILLISECONDS.toNanos(10));
+
+        Timer exitosas = registry.get("transaccion.recurrente.envio")
+                .tags("resultado", "EXI", "marca", "VISA", "banco", "BANKEC21XXX").timer();
+        assertEquals(2, exitosas.count());
+        assertEquals(100, exitosas.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, registry.get("transaccion.recurrente.envio")
+                .tags("resultado", "REC", "marca", "MSTR", "banco", "desconocido").timer().count());
+    }
+
+    @Test
+    public void testRegistrarLectura_FilasLeidasContraVencidas() {
+        metricas.registrarLectura(MetricasTransacciones.ORIGEN_PLANIFICADOR, 120, 100);
+        metricas.registrarLectura(MetricasTransacciones.ORIGEN_PLANIFICADOR, 30, 30);
+
+        assertEquals(150, registry.get("transaccion.recurrente.filas.leidas").tag("origen", "planificador").counter().count());
+        assertEquals(130, registry.get("transaccion.recurrente.filas.vencidas").tag("origen", "planificador").counter().count());
+    }
+
+    @Test
+    public void testRegistrarRetraso_EnvioMenosProximaEjecucion() {
+        LocalDateTime envio = LocalDateTime.of(2025, 5, 1, 10, 0, 5);
+        TransaccionRecurrente atrasada = transaccion("VISA", "BANKEC21XXX");
+        atrasada.setProximaEjecucion(envio.minusSeconds(5));
+        TransaccionRecurrente adelantada = transaccion("VISA", "BANKEC21XXX");
+        adelantada.setProximaEjecucion(envio.plusSeconds(1));
+
+        metricas.registrarRetraso(atrasada, envio);
+        metricas.registrarRetraso(adelantada, envio);
+        metricas.registrarRetraso(transaccion("VISA", "BANKEC21XXX"), envio);
+
+        Timer retraso = registry.get("transaccion.recurrente.retraso.programacion").timer();
+        assertEquals(2, retraso.count());
+        assertEquals(5, retraso.max(TimeUnit.SECONDS), 0.001);
+    }
+
+    @Test
+    public void testReintentosYCancelaciones() {
+        metricas.registrarReintento("rechazo");
+        metricas.registrarReintento("rechazo");
+        metricas.registrarReintento("aplazamiento");
+        metricas.registrarCancelacion();
+
+        assertEquals(2, registry.get("transaccion.recurrente.reintentos").tag("motivo", "rechazo").counter().count());
+        assertEquals(1, registry.get("transaccion.recurrente.reintentos").tag("motivo", "aplazamiento").counter().count());
+        assertEquals(1, registry.get("transaccion.recurrente.cancelaciones").counter().count());
+    }
+
+    private static TransaccionRecurrente transaccion(String marca, String swiftBanco) {
+        TransaccionRecurrente transaccion = new TransaccionRecurrente("TR00000001");
+        transaccion.setMarca(marca);
+        transaccion.setSwiftBanco(swiftBanco);
+        return transaccion;
+    }
+}
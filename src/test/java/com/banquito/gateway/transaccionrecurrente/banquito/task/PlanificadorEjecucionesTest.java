@@ -0,0 +1,48 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.TransaccionesActivadasEvent;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.TransaccionesRetiradasEvent;
+
+public class PlanificadorEjecucionesTest {
+
+    private final PlanificadorEjecuciones planificador = new PlanificadorEjecuciones(1000, true);
+
+    @Test
+    public void testAlActivar_IncorporaAlCalendarioYALaRueda() {
+        planificador.alActivar(new TransaccionesActivadasEvent(List.of(transaccion("TR00000001", 5)), LocalDateTime.now()));
+
+        assertTrue(planificador.estaProgramada("TR00000001"));
+        assertEquals(List.of("TR00000001"), planificador.vencenEn(LocalDate.of(2025, 3, 5)));
+    }
+
+    @Test
+    public void testAlRetirar_CancelaEnLaRuedaYEnElCalendario() {
+        planificador.alActivar(new TransaccionesActivadasEvent(
+                List.of(transaccion("TR00000001", 5), transaccion("TR00000002", 5)), LocalDateTime.now()));
+
+        planificador.alRetirar(new TransaccionesRetiradasEvent(List.of("TR00000001")));
+
+        assertFalse(planificador.estaProgramada("TR00000001"));
+        assertTrue(planificador.estaProgramada("TR00000002"));
+        assertEquals(List.of("TR00000002"), planificador.vencenEn(LocalDate.of(2025, 3, 5)));
+    }
+
+    private static TransaccionRecurrente transaccion(String codigo, int diaMesPago) {
+        TransaccionRecurrente transaccion = new TransaccionRecurrente(codigo);
+        transaccion.setEstado("ACT");
+        transaccion.setDiaMesPago(diaMesPago);
+        transaccion.setFrecuenciaDias(15);
+        return transaccion;
+    }
+}
@@ -0,0 +1,84 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.model.EjecucionTransaccion;
+import com.banquito.gateway.transaccionrecurrente.banquito.model.TransaccionRecurrente;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.EjecucionTransaccionService;
+
+@ExtendWith(MockitoExtension.class)
+public class RegistroEjecucionesTest {
+
+    @Mock
+    private EjecucionTransaccionService service;
+
+    private TransaccionRecurrente transaccion;
+
+    @BeforeEach
+    public void setup() {
+        transaccion = new TransaccionRecurrente("TR12345678");
+        transaccion.setMonto(new BigDecimal("100.50"));
+    }
+
+    @Test
+    public void testVolcar_EscribeEnLotesDelTamanioConfigurado() {
+        RegistroEjecuciones registro = new RegistroEjecuciones(service, 100, 1000);
+        List<Integer> tamanios = new ArrayList<>();
+        when(service.registrar(anyList())).thenAnswer(invocation -> {
+            tamanios.add(invocation.<List<EjecucionTransaccion>>getArgument(0).size());
+            return tamanios.get(tamanios.size() - 1);
+        });
+        for (int i = 0; i < 250; i++) {
+            registrar(registro, i);
+        }
+
+        registro.volcar();
+
+        assertEquals(List.of(100, 100, 50), tamanios);
+        assertEquals(0, registro.pendientes());
+    }
+
+    @Test
+    public void testVolcar_ErrorDevuelveLasEjecucionesALaCola() {
+        RegistroEjecuciones registro = new RegistroEjecuciones(service, 100, 1000);
+        when(service.registrar(anyList())).thenThrow(new RuntimeException("Base de datos no disponible"));
+        for (int i = 0; i < 30; i++) {
+            registrar(registro, i);
+        }
+
+        registro.volcar();
+
+        verify(service, times(1)).registrar(anyList());
+        assertEquals(30, registro.pendientes());
+    }
+
+    @Test
+    public void testRegistrar_DescartaAlSuperarLaCapacidadMaxima() {
+        RegistroEjecuciones registro = new RegistroEjecuciones(service, 10, 20);
+        for (int i = 0; i < 25; i++) {
+            registrar(registro, i);
+        }
+
+        assertEquals(20, registro.pendientes());
+    }
+
+    private void registrar(RegistroEjecuciones registro, int i) {
+        registro.registrar(transaccion, "TR12345678-" + i, 0, LocalDateTime.now(), 
+                RegistroEjecuciones.RESULTADO_EXITOSO, 201, null);
+    }
+}
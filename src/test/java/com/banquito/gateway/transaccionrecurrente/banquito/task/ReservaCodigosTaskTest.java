@@ -0,0 +1,44 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigo;
+import com.banquito.gateway.transaccionrecurrente.banquito.service.GeneradorCodigoTemporal;
+
+public class ReservaCodigosTaskTest {
+
+    @Test
+    public void testRenovarReserva_RenuevaElGeneradorTemporal() {
+        GeneradorCodigoTemporal generador = mock(GeneradorCodigoTemporal.class);
+
+        new ReservaCodigosTask(generador).renovarReserva();
+
+        verify(generador, times(1)).renovarReserva();
+    }
+
+    @Test
+    public void testRenovarReserva_UnErrorNoSePropaga() {
+        GeneradorCodigoTemporal generador = mock(GeneradorCodigoTemporal.class);
+        doThrow(new DataAccessResourceFailureException("Conexión cerrada")).when(generador).renovarReserva();
+
+        new ReservaCodigosTask(generador).renovarReserva();
+
+        verify(generador, times(1)).renovarReserva();
+    }
+
+    @Test
+    public void testRenovarReserva_IgnoraOtrosGeneradores() {
+        GeneradorCodigo generador = mock(GeneradorCodigo.class);
+
+        new ReservaCodigosTask(generador).renovarReserva();
+
+        verifyNoInteractions(generador);
+    }
+}
@@ -0,0 +1,71 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class ResultadosPendientesTest {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2025, 3, 1, 8, 0);
+
+    @Test
+    public void testTomar_DevuelveBloquesAcotadosSinRetirarlos() {
+        ResultadosPendientes pendientes = new ResultadosPendientes();
+        for (int i = 0; i < 5; i++) {
+            pendientes.registrarEjecucion("T" + i, FECHA);
+        }
+
+        ResultadosPendientes.Bloque bloque = pendientes.tomar(2);
+
+        assertEquals(2, bloque.tamanio());
+        assertEquals(5, pendientes.tamanio());
+    }
+
+    @Test
+    public void testConfirmar_SoloRetiraLoRegistrado() {
+        ResultadosPendientes pendientes = new ResultadosPendientes();
+        pendientes.registrarEjecucion("T1", FECHA);
+        pendientes.registrarReintentoResuelto("T1");
+        pendientes.registrarCambioEstado("T2", "CAN");
+
+        ResultadosPendientes.Bloque bloque = pendientes.tomar(10);
+        pendientes.registrarEjecucion("T3", FECHA);
+        pendientes.confirmar(bloque);
+
+        assertFalse(pendientes.contiene("T1"));
+        assertFalse(pendientes.contiene("T2"));
+        assertTrue(pendientes.contiene("T3"));
+        assertEquals(Map.of(FECHA, List.of("T1")), bloque.ejecutadasPorFecha());
+        assertEquals(Map.of("CAN", List.of("T2")), bloque.cambiosPorEstado());
+    }
+
+    @Test
+    public void testConfirmar_ConservaLaEjecucionReemplazadaDuranteElVolcado() {
+        ResultadosPendientes pendientes = new ResultadosPendientes();
+        pendientes.registrarEjecucion("T1", FECHA);
+
+        ResultadosPendientes.Bloque bloque = pendientes.tomar(10);
+        pendientes.registrarEjecucion("T1", FECHA.plusMonths(1));
+        pendientes.confirmar(bloque);
+
+        assertTrue(pendientes.contiene("T1"));
+        assertEquals(Map.of(FECHA.plusMonths(1), List.of("T1")), pendientes.tomar(10).ejecutadasPorFecha());
+    }
+
+    @Test
+    public void testSinConfirmar_ElBloqueFallidoSeConservaParaElSiguienteVolcado() {
+        ResultadosPendientes pendientes = new ResultadosPendientes();
+        pendientes.registrarEjecucion("T1", FECHA);
+
+        pendientes.tomar(10);
+
+        assertTrue(pendientes.contiene("T1"));
+        assertEquals(1, pendientes.tomar(10).tamanio());
+    }
+}
@@ -0,0 +1,80 @@
+package com.banquito.gateway.transaccionrecurrente.banquito.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class RuedaTemporalTest {
+
+    private static final long TICK = 100;
+
+    @Test
+    public void testAvanzar_SoloDevuelveVencidas() {
+        RuedaTemporal<String> rueda = new RuedaTemporal<>(TICK, 0);
+        rueda.programar("A", 500);
+        rueda.programar("B", 1500);
+
+        assertTrue(rueda.avanzar(400).isEmpty());
+        assertEquals(List.of("A"), rueda.avanzar(500));
+        assertTrue(rueda.avanzar(1400).isEmpty());
+        assertEquals(List.of("B"), rueda.avanzar(1600));
+        assertEquals(0, rueda.tamanio());
+    }
+
+    @Test
+    public void testProgramar_VencimientoPasadoSeEntregaEnElSiguienteAvance() {
+        RuedaTemporal<String> rueda = new RuedaTemporal<>(TICK, 0);
+        rueda.avanzar(10_000);
+        rueda.programar("A", 5_000);
+
+        assertEquals(List.of("A"), rueda.avanzar(10_000));
+    }
+
+    @Test
+    public void testCancelarYReprogramar() {
+        RuedaTemporal<String> rueda = new RuedaTemporal<>(TICK, 0);
+        rueda.programar("A", 1_000);
+        rueda.programar("B", 1_000);
+        assertTrue(rueda.cancelar("A"));
+        assertFalse(rueda.contiene("A"));
+
+        rueda.programar("B", 900_000);
+        assertTrue(rueda.avanzar(1_000).isEmpty());
+        assertEquals(List.of("B"), rueda.avanzar(900_000));
+    }
+
+    @Test
+    public void testAvanzar_EntradasEnTodosLosNivelesSeEntreganEnElAvanceCorrecto() {
+        RuedaTemporal<Integer> rueda = new RuedaTemporal<>(TICK, 0);
+        Random random = new Random(42);
+        Map<Integer, Long> vencimientos = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long vencimiento = (long) (Math.pow(10, 2 + random.nextDouble() * 7.5));
+            vencimientos.put(i, vencimiento);
+            rueda.programar(i, vencimiento);
+        }
+
+        List<Integer> entregadas = new ArrayList<>();
+        long ahora = 0;
+        while (entregadas.size() < vencimientos.size()) {
+            long anterior = ahora;
+            ahora += 1 + random.nextInt(5_000_000);
+            for (Integer clave : rueda.avanzar(ahora)) {
+                assertTrue(vencimientos.get(clave) <= ahora, "Entrada " + clave + " entregada antes de su vencimiento");
+                assertTrue(vencimientos.get(clave) > anterior - TICK, "Entrada " + clave + " entregada con retraso");
+                entregadas.add(clave);
+            }
+        }
+
+        assertEquals(vencimientos.size(), entregadas.stream().distinct().count());
+        assertEquals(0, rueda.tamanio());
+    }
+}